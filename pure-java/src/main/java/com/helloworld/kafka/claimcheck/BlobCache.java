@@ -0,0 +1,55 @@
+package com.helloworld.kafka.claimcheck;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché LRU de payloads descargados, acotada por bytes totales. Un payload mayor que la caché
+ * entera no se guarda.
+ */
+class BlobCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+
+    BlobCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    synchronized byte[] get(String reference) {
+        byte[] payload = entries.get(reference);
+        if (payload == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return payload;
+    }
+
+    synchronized void put(String reference, byte[] payload) {
+        if (payload.length > maxBytes) {
+            return;
+        }
+        byte[] previous = entries.put(reference, payload);
+        if (previous != null) {
+            bytes -= previous.length;
+        }
+        bytes += payload.length;
+        for (Iterator<Map.Entry<String, byte[]>> it = entries.entrySet().iterator(); bytes > maxBytes && it.hasNext();) {
+            bytes -= it.next().getValue().length;
+            it.remove();
+        }
+    }
+
+    synchronized long hits() {
+        return hits;
+    }
+
+    synchronized long misses() {
+        return misses;
+    }
+}
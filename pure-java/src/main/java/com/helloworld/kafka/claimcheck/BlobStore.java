@@ -0,0 +1,30 @@
+package com.helloworld.kafka.claimcheck;
+
+import java.io.Closeable;
+
+import org.apache.kafka.common.Configurable;
+
+/**
+ * Almacén de payloads grandes para el patrón claim-check: el productor guarda el payload y
+ * solo envía a Kafka la referencia que devuelve {@link #put}.
+ *
+ * Las implementaciones necesitan un constructor sin argumentos; reciben la configuración del
+ * serializador en {@link #configure}.
+ */
+public interface BlobStore extends Configurable, Closeable {
+
+    /**
+     * Guarda el payload y devuelve su referencia. Un mismo contenido puede devolver la misma
+     * referencia sin volver a escribirse.
+     */
+    String put(byte[] payload);
+
+    /**
+     * @throws IllegalStateException si la referencia no existe
+     */
+    byte[] get(String reference);
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,62 @@
+package com.helloworld.kafka.claimcheck;
+
+import java.util.Map;
+
+import org.apache.kafka.common.utils.Utils;
+
+/**
+ * Propiedades de {@link ClaimCheckSerializer} y {@link ClaimCheckDeserializer}; se pasan junto
+ * al resto de la configuración del productor o consumidor.
+ */
+public final class ClaimCheckConfig {
+
+    /** Tamaño serializado a partir del cual el valor va al almacén (por defecto 100 KB) */
+    public static final String THRESHOLD_BYTES = "claim.check.threshold.bytes";
+    /** Implementación de {@link BlobStore} (por defecto {@link LocalFileBlobStore}) */
+    public static final String STORE_CLASS = "claim.check.store.class";
+    /** Directorio de {@link LocalFileBlobStore} */
+    public static final String STORE_DIR = "claim.check.store.dir";
+    /** Serializador del valor real (por defecto ByteArraySerializer) */
+    public static final String INNER_SERIALIZER = "claim.check.inner.serializer";
+    /** Deserializador del valor real (por defecto ByteArrayDeserializer) */
+    public static final String INNER_DESERIALIZER = "claim.check.inner.deserializer";
+    /** Bytes máximos de payloads descargados en caché en el consumidor (por defecto 64 MB) */
+    public static final String CACHE_BYTES = "claim.check.cache.bytes";
+
+    /** Header que marca un registro cuyo valor es una referencia */
+    public static final String HEADER = "x-claim-check";
+    /** Header con el tamaño real del payload */
+    public static final String SIZE_HEADER = "x-claim-check-size";
+
+    static final int DEFAULT_THRESHOLD_BYTES = 100 * 1024;
+    static final long DEFAULT_CACHE_BYTES = 64L * 1024 * 1024;
+
+    private ClaimCheckConfig() {
+    }
+
+    static long getLong(Map<String, ?> configs, String key, long defaultValue) {
+        Object value = configs.get(key);
+        return value == null ? defaultValue : Long.parseLong(value.toString());
+    }
+
+    static <T> T newInstance(Map<String, ?> configs, String key, Class<? extends T> defaultClass, Class<T> type) {
+        Object value = configs.get(key);
+        try {
+            if (value == null) {
+                return Utils.newInstance(defaultClass);
+            }
+            if (value instanceof Class) {
+                return Utils.newInstance((Class<?>) value, type);
+            }
+            return Utils.newInstance(value.toString(), type);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Clase no encontrada en " + key + ": " + value, e);
+        }
+    }
+
+    static BlobStore store(Map<String, ?> configs) {
+        BlobStore store = newInstance(configs, STORE_CLASS, LocalFileBlobStore.class, BlobStore.class);
+        store.configure(configs);
+        return store;
+    }
+}
@@ -0,0 +1,95 @@
+package com.helloworld.kafka.claimcheck;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Deserializador de {@link ClaimCheckSerializer}. Devuelve un {@link ClaimCheckValue}: los
+ * registros con el header {@link ClaimCheckConfig#HEADER} no se resuelven al hacer poll sino
+ * al leer el valor, y los payloads descargados se guardan en una caché LRU de
+ * {@link ClaimCheckConfig#CACHE_BYTES} bytes (los reintentos y los contenidos repetidos no
+ * vuelven a ir al almacén).
+ */
+public class ClaimCheckDeserializer<T> implements Deserializer<ClaimCheckValue<T>> {
+
+    private Deserializer<T> inner;
+    private BlobStore store;
+    private BlobCache cache;
+
+    public ClaimCheckDeserializer() {
+    }
+
+    public ClaimCheckDeserializer(Deserializer<T> inner, BlobStore store, long cacheBytes) {
+        this.inner = inner;
+        this.store = store;
+        this.cache = new BlobCache(cacheBytes);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        if (inner == null) {
+            inner = ClaimCheckConfig.newInstance(configs, ClaimCheckConfig.INNER_DESERIALIZER,
+                    ByteArrayDeserializer.class, Deserializer.class);
+            inner.configure(configs, isKey);
+        }
+        if (store == null) {
+            store = ClaimCheckConfig.store(configs);
+        }
+        if (cache == null) {
+            cache = new BlobCache(ClaimCheckConfig.getLong(configs, ClaimCheckConfig.CACHE_BYTES,
+                    ClaimCheckConfig.DEFAULT_CACHE_BYTES));
+        }
+    }
+
+    @Override
+    public ClaimCheckValue<T> deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (headers.lastHeader(ClaimCheckConfig.HEADER) == null) {
+            return new ClaimCheckValue<>(inner.deserialize(topic, headers, data), data.length);
+        }
+        String reference = new String(data, StandardCharsets.UTF_8);
+        Header size = headers.lastHeader(ClaimCheckConfig.SIZE_HEADER);
+        return new ClaimCheckValue<>(reference, size == null ? -1 : ByteBuffer.wrap(size.value()).getInt(),
+                ref -> inner.deserialize(topic, headers, fetch(ref)));
+    }
+
+    @Override
+    public ClaimCheckValue<T> deserialize(String topic, byte[] data) {
+        return data == null ? null : new ClaimCheckValue<>(inner.deserialize(topic, data), data.length);
+    }
+
+    /**
+     * Payload de una referencia, de la caché si está
+     */
+    public byte[] fetch(String reference) {
+        byte[] payload = cache.get(reference);
+        if (payload == null) {
+            payload = store.get(reference);
+            cache.put(reference, payload);
+        }
+        return payload;
+    }
+
+    public long cacheHits() {
+        return cache.hits();
+    }
+
+    public long cacheMisses() {
+        return cache.misses();
+    }
+
+    @Override
+    public void close() {
+        inner.close();
+        store.close();
+    }
+}
@@ -0,0 +1,130 @@
+package com.helloworld.kafka.claimcheck;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helloworld.kafka.testdocker.Config;
+
+/**
+ * Envía documentos de 1 KB a 4 MB (por encima del max.request.size por defecto de 1 MB) con
+ * {@link ClaimCheckSerializer}, repitiendo algunos para mostrar la deduplicación, y los lee
+ * con {@link ClaimCheckDeserializer}: solo se descargan los documentos de la clave "pdf".
+ *
+ * Uso: ClaimCheckExample [fichero config] [directorio del almacén] [documentos]
+ */
+public class ClaimCheckExample {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final String TOPIC = "claim-check-documents";
+    private static final String[] TYPES = {"pdf", "png", "xml"};
+    private static final int[] SIZES = {1024, 64 * 1024, 512 * 1024, 4 * 1024 * 1024};
+
+    public static void main(String[] args) throws Exception {
+        String configFile = args.length > 0 ? args[0] : "./config/default.properties";
+        String storeDir = args.length > 1 ? args[1] : "./claim-check";
+        int documents = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+
+        Properties config = Config.loadConfig(configFile);
+        createTopic(config);
+
+        produce(config, storeDir, documents);
+        consume(config, storeDir, documents);
+    }
+
+    private static void produce(Properties config, String storeDir, int documents) {
+        Properties props = new Properties();
+        props.putAll(config);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ClaimCheckSerializer.class);
+        props.put(ClaimCheckConfig.INNER_SERIALIZER, ByteArraySerializer.class);
+        props.put(ClaimCheckConfig.STORE_DIR, storeDir);
+
+        Random rnd = new Random(42);
+        // Un puñado de documentos distintos: los repetidos se guardan una sola vez
+        byte[][] library = new byte[documents / 4 + 1][];
+        for (int i = 0; i < library.length; i++) {
+            library[i] = new byte[SIZES[rnd.nextInt(SIZES.length)]];
+            rnd.nextBytes(library[i]);
+        }
+
+        long bytes = 0;
+        try (KafkaProducer<String, byte[]> producer = new KafkaProducer<>(props)) {
+            for (int i = 0; i < documents; i++) {
+                byte[] document = library[rnd.nextInt(library.length)];
+                bytes += document.length;
+                producer.send(new ProducerRecord<>(TOPIC, TYPES[i % TYPES.length], document), (metadata, e) -> {
+                    if (e != null) {
+                        log.error("Error enviando documento", e);
+                    }
+                });
+            }
+            producer.flush();
+        }
+        log.info("Enviados {} documentos ({} bytes de payload)", documents, bytes);
+    }
+
+    private static void consume(Properties config, String storeDir, int documents) {
+        Properties props = new Properties();
+        props.putAll(config);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "claim-check-example");
+        props.remove(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ClaimCheckDeserializer.class);
+        props.put(ClaimCheckConfig.INNER_DESERIALIZER, ByteArrayDeserializer.class);
+        props.put(ClaimCheckConfig.STORE_DIR, storeDir);
+
+        int read = 0;
+        int references = 0;
+        int fetched = 0;
+        try (KafkaConsumer<String, ClaimCheckValue<byte[]>> consumer = new KafkaConsumer<>(props)) {
+            consumer.subscribe(List.of(TOPIC));
+            while (read < documents) {
+                for (ConsumerRecord<String, ClaimCheckValue<byte[]>> record : consumer.poll(Duration.ofMillis(500))) {
+                    read++;
+                    ClaimCheckValue<byte[]> value = record.value();
+                    if (value.isClaimCheck()) {
+                        references++;
+                    }
+                    if ("pdf".equals(record.key())) {
+                        fetched += value.get().length;
+                    }
+                }
+                consumer.commitSync();
+            }
+        }
+        log.info("Leídos {} documentos, {} por referencia; descargados {} bytes de los pdf", read, references,
+                fetched);
+    }
+
+    private static void createTopic(Properties config) throws InterruptedException, ExecutionException {
+        try (Admin admin = Admin.create(config)) {
+            admin.createTopics(List.of(new NewTopic(TOPIC, 3, (short) 1))).all().get();
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof TopicExistsException)) {
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.helloworld.kafka.claimcheck;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Serializador claim-check: serializa el valor con el serializador interno y, si pasa de
+ * {@link ClaimCheckConfig#THRESHOLD_BYTES}, lo guarda en el {@link BlobStore} y envía solo la
+ * referencia, marcada con el header {@link ClaimCheckConfig#HEADER}. Los valores pequeños
+ * viajan tal cual, sin coste añadido.
+ *
+ * Así un productor puede enviar payloads mayores que max.request.size (y que
+ * message.max.bytes del broker) sin subir esos límites para todo el clúster.
+ *
+ * Se usa como value.serializer:
+ *
+ * <pre>
+ * props.put(VALUE_SERIALIZER_CLASS_CONFIG, ClaimCheckSerializer.class);
+ * props.put(ClaimCheckConfig.INNER_SERIALIZER, StringSerializer.class);
+ * props.put(ClaimCheckConfig.STORE_DIR, "/data/claim-check");
+ * </pre>
+ */
+public class ClaimCheckSerializer<T> implements Serializer<T> {
+
+    private Serializer<T> inner;
+    private BlobStore store;
+    private long threshold;
+
+    public ClaimCheckSerializer() {
+    }
+
+    public ClaimCheckSerializer(Serializer<T> inner, BlobStore store, long threshold) {
+        this.inner = inner;
+        this.store = store;
+        this.threshold = threshold;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        if (inner == null) {
+            inner = ClaimCheckConfig.newInstance(configs, ClaimCheckConfig.INNER_SERIALIZER,
+                    ByteArraySerializer.class, Serializer.class);
+            inner.configure(configs, isKey);
+        }
+        if (store == null) {
+            store = ClaimCheckConfig.store(configs);
+        }
+        if (threshold == 0) {
+            threshold = ClaimCheckConfig.getLong(configs, ClaimCheckConfig.THRESHOLD_BYTES,
+                    ClaimCheckConfig.DEFAULT_THRESHOLD_BYTES);
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, T data) {
+        byte[] payload = inner.serialize(topic, headers, data);
+        if (payload == null || payload.length <= threshold) {
+            return payload;
+        }
+        String reference = store.put(payload);
+        headers.remove(ClaimCheckConfig.HEADER);
+        headers.remove(ClaimCheckConfig.SIZE_HEADER);
+        headers.add(ClaimCheckConfig.HEADER, new byte[] {1});
+        headers.add(ClaimCheckConfig.SIZE_HEADER, ByteBuffer.allocate(Integer.BYTES).putInt(payload.length).array());
+        return reference.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sin headers no hay forma de marcar la referencia: solo se admiten valores bajo el umbral
+     */
+    @Override
+    public byte[] serialize(String topic, T data) {
+        byte[] payload = inner.serialize(topic, data);
+        if (payload != null && payload.length > threshold) {
+            throw new IllegalStateException("El claim-check necesita headers para valores de más de " + threshold
+                    + " bytes (" + payload.length + ")");
+        }
+        return payload;
+    }
+
+    @Override
+    public void close() {
+        inner.close();
+        store.close();
+    }
+}
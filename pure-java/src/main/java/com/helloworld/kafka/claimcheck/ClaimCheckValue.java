@@ -0,0 +1,64 @@
+package com.helloworld.kafka.claimcheck;
+
+import java.util.function.Function;
+
+/**
+ * Valor devuelto por {@link ClaimCheckDeserializer}. Si el registro llevaba el payload dentro,
+ * ya está deserializado; si llevaba una referencia, el payload se descarga del almacén (o de
+ * la caché local) la primera vez que se llama a {@link #get()}. Un consumidor que filtra o
+ * enruta por clave o headers no paga la descarga de lo que descarta.
+ */
+public final class ClaimCheckValue<T> {
+
+    private final String reference;
+    private final int size;
+    private Function<String, T> loader;
+    private T value;
+
+    ClaimCheckValue(T value, int size) {
+        this.reference = null;
+        this.size = size;
+        this.value = value;
+    }
+
+    ClaimCheckValue(String reference, int size, Function<String, T> loader) {
+        this.reference = reference;
+        this.size = size;
+        this.loader = loader;
+    }
+
+    public T get() {
+        if (loader != null) {
+            value = loader.apply(reference);
+            loader = null;
+        }
+        return value;
+    }
+
+    public boolean isClaimCheck() {
+        return reference != null;
+    }
+
+    /**
+     * Referencia en el almacén, o null si el payload viajaba en el registro
+     */
+    public String reference() {
+        return reference;
+    }
+
+    /**
+     * Tamaño serializado del payload real, o -1 si es desconocido
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isLoaded() {
+        return loader == null;
+    }
+
+    @Override
+    public String toString() {
+        return reference != null ? reference + " (" + size + " bytes)" : String.valueOf(value);
+    }
+}
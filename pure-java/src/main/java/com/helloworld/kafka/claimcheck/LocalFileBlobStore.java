@@ -0,0 +1,100 @@
+package com.helloworld.kafka.claimcheck;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * {@link BlobStore} sobre un directorio local (o un volumen compartido entre productores y
+ * consumidores) direccionado por contenido: la referencia es "sha256:" seguido del hash del
+ * payload, así que el mismo payload enviado varias veces se guarda una sola vez.
+ *
+ * Los ficheros se reparten en subdirectorios por los dos primeros caracteres del hash. Se
+ * escriben en un temporal y se mueven con ATOMIC_MOVE, de modo que un consumidor nunca lee un
+ * blob a medias; si dos productores escriben el mismo contenido a la vez gana cualquiera, ya
+ * que ambos ficheros son idénticos.
+ */
+public class LocalFileBlobStore implements BlobStore {
+
+    static final String PREFIX = "sha256:";
+
+    private Path dir;
+
+    public LocalFileBlobStore() {
+    }
+
+    public LocalFileBlobStore(Path dir) {
+        this.dir = dir;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        Object value = configs.get(ClaimCheckConfig.STORE_DIR);
+        if (value == null && dir == null) {
+            throw new IllegalArgumentException("Falta " + ClaimCheckConfig.STORE_DIR);
+        }
+        if (value != null) {
+            dir = Paths.get(value.toString());
+        }
+    }
+
+    @Override
+    public String put(byte[] payload) {
+        String hash = sha256(payload);
+        Path target = path(hash);
+        if (Files.exists(target)) {
+            return PREFIX + hash;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            Path tmp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            try {
+                Files.write(tmp, payload);
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Otro productor ha guardado el mismo contenido
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo guardar el blob " + hash, e);
+        }
+        return PREFIX + hash;
+    }
+
+    @Override
+    public byte[] get(String reference) {
+        if (!reference.startsWith(PREFIX)) {
+            throw new IllegalArgumentException("Referencia no válida: " + reference);
+        }
+        String hash = reference.substring(PREFIX.length());
+        try {
+            return Files.readAllBytes(path(hash));
+        } catch (NoSuchFileException e) {
+            throw new IllegalStateException("No existe el blob " + reference + " en " + dir, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el blob " + reference, e);
+        }
+    }
+
+    private Path path(String hash) {
+        return dir.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static String sha256(byte[] payload) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(payload));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
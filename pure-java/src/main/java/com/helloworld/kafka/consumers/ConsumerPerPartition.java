@@ -17,17 +17,22 @@ public class ConsumerPerPartition {
     private static final String TOPIC = "test-topic";
     private static final String GROUP_ID = "ConsumerPerPartition-group";
     private static final int NUM_CONSUMERS = 3;
+    private static final int MAX_POLL_INTERVAL_MS = 300_000;
+    private static final int MAX_POLL_RECORDS = 500;
+    // Al ceder un lote, las particiones pendientes descansan un poll antes de volver a procesarse
+    private static final boolean PAUSE_ON_YIELD = true;
 
     public static void main(String[] args) {
         ExecutorService executor = Executors.newFixedThreadPool(NUM_CONSUMERS);
         List<KafkaConsumer<String, String>> consumers = new ArrayList<>();
+        PollWatchdog watchdog = new PollWatchdog(Duration.ofMillis(MAX_POLL_INTERVAL_MS), MAX_POLL_RECORDS);
 
         try {
             for (int i = 0; i < NUM_CONSUMERS; i++) {
             	final int numConsumer = i;
-                KafkaConsumer<String, String> consumer = createConsumer();
+                KafkaConsumer<String, String> consumer = createConsumer(numConsumer);
                 consumers.add(consumer);
-                executor.submit(() -> runConsumer(consumer, numConsumer));
+                executor.submit(() -> runConsumer(consumer, numConsumer, watchdog));
             }
 
             Thread.sleep(Long.MAX_VALUE);
@@ -35,54 +40,83 @@ public class ConsumerPerPartition {
             e.printStackTrace();
         } finally {
             executor.shutdown();
+            watchdog.close();
         }
     }
 
-    private static KafkaConsumer<String, String> createConsumer() {
+    private static KafkaConsumer<String, String> createConsumer(int numConsumer) {
         Properties props = new Properties();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, BOOTSTRAP_SERVERS);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put("enable.auto.commit", false);
-        props.put(ConsumerConfig.GROUP_ID_CONFIG, GROUP_ID);
+        // Asignación cooperativa y membresía estática: un despliegue o un escalado no para todo el grupo
+        GroupMembership.cooperativeStatic(props, GROUP_ID, numConsumer);
+        props.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, MAX_POLL_INTERVAL_MS);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, MAX_POLL_RECORDS);
 
         return new KafkaConsumer<>(props);
     }
 
-    private static void runConsumer(KafkaConsumer<String, String> consumer, int numConsumer) {
+    private static void runConsumer(KafkaConsumer<String, String> consumer, int numConsumer, PollWatchdog watchdog) {
+        PollWatchdog.Handle health = watchdog.register("consumer-" + numConsumer);
         try {
         	
-            consumer.subscribe(Collections.singletonList(TOPIC), new ConsumerRebalanceListener() {
-                @Override
-                public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
-                    // Commit any offsets before revoking the partitions
-                    consumer.commitSync();
-                }
-
-                @Override
-                public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
-                    // Do nothing
-                }
-            });
+            consumer.subscribe(Collections.singletonList(TOPIC), new IncrementalRebalanceListener(consumer));
 
             while (true) {
+                Set<TopicPartition> paused = consumer.paused();
+                health.pollStarted();
                 ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(1000));
-                processRecords(records, consumer, numConsumer);
+                health.pollReturned();
+                if (!paused.isEmpty()) {
+                    consumer.resume(paused);
+                }
+                processRecords(records, consumer, numConsumer, health);
             }
         } catch (WakeupException e) {
             // Ignored for shutdown
         } finally {
+            health.close();
             consumer.close();
         }
     }
 
-    private static void processRecords(ConsumerRecords<String, String> records, KafkaConsumer<String, String> consumer, int numConsumer) {
+    private static void processRecords(ConsumerRecords<String, String> records, KafkaConsumer<String, String> consumer,
+            int numConsumer, PollWatchdog.Handle health) {
+        int processed = 0;
         for (ConsumerRecord<String, String> record : records) {
+            if (processed >= health.batchLimit() || health.shouldYield()) {
+                // Se deja el resto del lote para volver a poll antes de max.poll.interval.ms
+                yieldRemaining(records, record, consumer, health.shouldYield() && PAUSE_ON_YIELD);
+                return;
+            }
             System.out.printf("Consumer = %s, offset = %d, partition = %d, key = %s, value = %s%n", 
             		//consumer.groupMetadata().memberId()
             		numConsumer,  record.offset(), record.partition(), record.key(), record.value());
+            processed++;
         }
 
         //System.out.println("Se ha finalizado el procesamiento del pool");
     }
+
+    /**
+     * Hace seek al primer registro sin procesar de cada partición del lote; el registro
+     * actual y todo lo que le sigue se volverá a recibir en los próximos poll
+     */
+    private static void yieldRemaining(ConsumerRecords<String, String> records, ConsumerRecord<String, String> next,
+            KafkaConsumer<String, String> consumer, boolean pause) {
+        Map<TopicPartition, Long> firstPending = new HashMap<>();
+        boolean pending = false;
+        for (ConsumerRecord<String, String> record : records) {
+            pending |= record == next;
+            if (pending) {
+                firstPending.putIfAbsent(new TopicPartition(record.topic(), record.partition()), record.offset());
+            }
+        }
+        firstPending.forEach(consumer::seek);
+        if (pause) {
+            consumer.pause(firstPending.keySet());
+        }
+    }
 }
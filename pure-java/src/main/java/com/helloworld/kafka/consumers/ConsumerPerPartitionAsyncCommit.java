@@ -12,14 +12,14 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
-import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
-import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.errors.WakeupException;
 import org.apache.kafka.common.serialization.StringDeserializer;
 
+import com.helloworld.kafka.jfr.TracedConsumer;
+
 public class ConsumerPerPartitionAsyncCommit {
     private static final String BOOTSTRAP_SERVERS = "localhost:29092";
     private static final String TOPIC = "test-topic";
@@ -28,12 +28,12 @@ public class ConsumerPerPartitionAsyncCommit {
 
     public static void main(String[] args) {
         ExecutorService executor = Executors.newFixedThreadPool(NUM_CONSUMERS);
-        List<KafkaConsumer<String, String>> consumers = new ArrayList<>();
+        List<TracedConsumer<String, String>> consumers = new ArrayList<>();
 
         try {
             for (int i = 0; i < NUM_CONSUMERS; i++) {
             	final int numConsumer = i;
-                KafkaConsumer<String, String> consumer = createConsumer();
+                TracedConsumer<String, String> consumer = new TracedConsumer<>(createConsumer(numConsumer));
                 consumers.add(consumer);
                 executor.submit(() -> runConsumer(consumer, numConsumer));
             }
@@ -46,38 +46,30 @@ public class ConsumerPerPartitionAsyncCommit {
         }
     }
 
-    private static KafkaConsumer<String, String> createConsumer() {
+    private static KafkaConsumer<String, String> createConsumer(int numConsumer) {
         Properties props = new Properties();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, BOOTSTRAP_SERVERS);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put("enable.auto.commit", false);
-        props.put(ConsumerConfig.GROUP_ID_CONFIG, GROUP_ID);
+        // Asignación cooperativa y membresía estática: un despliegue o un escalado no para todo el grupo
+        GroupMembership.cooperativeStatic(props, GROUP_ID, numConsumer);
 
         return new KafkaConsumer<>(props);
     }
 
-    private static void runConsumer(KafkaConsumer<String, String> consumer, int numConsumer) {
+    // Con -XX:StartFlightRecording=settings=jfr/kafka-clients.jfc el envoltorio graba poll, procesamiento,
+    // commits y rebalanceos (ver com.helloworld.kafka.jfr.JfrSummary)
+    private static void runConsumer(TracedConsumer<String, String> consumer, int numConsumer) {
         try {
         	
-            consumer.subscribe(Collections.singletonList(TOPIC), new ConsumerRebalanceListener() {
-                @Override
-                public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
-                    // Commit any offsets before revoking the partitions
-                    consumer.commitSync();
-                }
-
-                @Override
-                public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
-                    // Do nothing
-                }
-            });
+            consumer.subscribe(Collections.singletonList(TOPIC), new IncrementalRebalanceListener(consumer.delegate()));
 
             while (true) {
                 ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(1000));
                 if (records.count()>0) {
                 	final int count = records.count();
-                	processRecords(records, consumer, numConsumer);
+                	consumer.process(records, batch -> processRecords(batch, consumer, numConsumer));
                 	System.out.println("Registros procesados: "+count);
                 }
                 
@@ -89,7 +81,7 @@ public class ConsumerPerPartitionAsyncCommit {
         }
     }
 
-    private static void processRecords(ConsumerRecords<String, String> records, KafkaConsumer<String, String> consumer, int numConsumer) {
+    private static void processRecords(ConsumerRecords<String, String> records, TracedConsumer<String, String> consumer, int numConsumer) {
     	Collection<Integer> offsetsCollection = new ArrayList<>();
         for (ConsumerRecord<String, String> record : records) {
             System.out.printf("Consumer = %s, offset = %d, partition = %d, key = %s, value = %s%n", 
@@ -0,0 +1,50 @@
+package com.helloworld.kafka.consumers;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Properties;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
+
+/**
+ * Configuración de grupo común a los consumidores de ejemplo: asignación cooperativa
+ * incremental y membresía estática.
+ *
+ * Con cooperative-sticky un rebalanceo solo revoca las particiones que cambian de dueño; el
+ * resto sigue consumiéndose. Con group.instance.id un miembro que se reinicia antes de
+ * session.timeout.ms recupera sus particiones sin rebalancear el grupo. El identificador es
+ * grupo-instancia-índice, donde la instancia sale de KAFKA_INSTANCE_ID, HOSTNAME o el nombre
+ * del host: si hay varios procesos del mismo grupo en un host, cada uno necesita su propio
+ * KAFKA_INSTANCE_ID (dos miembros con el mismo id se expulsan entre sí).
+ */
+public final class GroupMembership {
+
+    private GroupMembership() {
+    }
+
+    public static void cooperativeStatic(Properties props, String groupId, int index) {
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, CooperativeStickyAssignor.class.getName());
+        props.put(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG, instanceId(groupId, index));
+    }
+
+    public static String instanceId(String groupId, int index) {
+        return groupId + "-" + instanceName() + "-" + index;
+    }
+
+    public static String instanceName() {
+        String instance = System.getenv("KAFKA_INSTANCE_ID");
+        if (instance == null || instance.isBlank()) {
+            instance = System.getenv("HOSTNAME");
+        }
+        if (instance == null || instance.isBlank()) {
+            try {
+                instance = InetAddress.getLocalHost().getHostName();
+            } catch (UnknownHostException e) {
+                throw new IllegalStateException("No se pudo obtener el nombre del host; define KAFKA_INSTANCE_ID", e);
+            }
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,74 @@
+package com.helloworld.kafka.consumers;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Listener de rebalanceo válido para asignación cooperativa.
+ *
+ * Con cooperative-sticky, onPartitionsRevoked solo recibe las particiones que se van (y a
+ * menudo ninguna), así que se vacía y confirma únicamente lo de esas particiones: un
+ * commitSync() sin argumentos confirmaría también las que se quedan. En onPartitionsLost la
+ * partición ya tiene otro dueño y un commit fallaría o pisaría el suyo: solo se descarta el
+ * trabajo pendiente.
+ */
+public class IncrementalRebalanceListener implements ConsumerRebalanceListener {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private final KafkaConsumer<?, ?> consumer;
+    private final Consumer<Collection<TopicPartition>> flush;
+    private final Consumer<Collection<TopicPartition>> discard;
+
+    public IncrementalRebalanceListener(KafkaConsumer<?, ?> consumer) {
+        this(consumer, partitions -> { }, partitions -> { });
+    }
+
+    /**
+     * @param flush   termina el trabajo pendiente de las particiones antes de confirmarlas
+     * @param discard descarta el trabajo pendiente de particiones perdidas
+     */
+    public IncrementalRebalanceListener(KafkaConsumer<?, ?> consumer, Consumer<Collection<TopicPartition>> flush,
+            Consumer<Collection<TopicPartition>> discard) {
+        this.consumer = consumer;
+        this.flush = flush;
+        this.discard = discard;
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        flush.accept(partitions);
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            offsets.put(partition, new OffsetAndMetadata(consumer.position(partition)));
+        }
+        consumer.commitSync(offsets);
+        log.info("Revocadas {}: confirmados {}", partitions, offsets);
+    }
+
+    @Override
+    public void onPartitionsLost(Collection<TopicPartition> partitions) {
+        discard.accept(partitions);
+        log.warn("Perdidas {} sin poder confirmar offsets", partitions);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+        if (!partitions.isEmpty()) {
+            log.info("Asignadas {} (total {})", partitions, consumer.assignment().size());
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.helloworld.kafka.consumers;
+
+import java.io.Closeable;
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Vigila el tiempo que pasa cada hilo consumidor fuera de poll.
+ *
+ * Si el hueco entre la vuelta de un poll y el siguiente supera max.poll.interval.ms, el
+ * consumidor sale del grupo y se rebalancea. El vigilante revisa los hilos registrados
+ * periódicamente: al pasar del umbral de aviso registra un warning con la pila del hilo (lo
+ * que está haciendo el handler lento) y al pasar del crítico pide al bucle que ceda
+ * ({@link Handle#shouldYield()}), para que deje el resto del lote y vuelva a poll a tiempo.
+ *
+ * Además ajusta un límite de registros por lote ({@link Handle#batchLimit()}): se reduce a la
+ * mitad tras cada aviso y vuelve a crecer poco a poco mientras los huecos sean sanos. Como
+ * max.poll.records no se puede cambiar sin recrear el consumidor, el bucle aplica el límite
+ * procesando solo esos registros y haciendo seek al primero pendiente.
+ */
+public class PollWatchdog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final double WARN_RATIO = 0.5;
+    private static final double CRITICAL_RATIO = 0.8;
+    private static final int STACK_FRAMES = 15;
+    private static final int MIN_BATCH = 1;
+
+    private final long maxPollIntervalNanos;
+    private final int maxBatch;
+    private final List<Handle> handles = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService checker;
+
+    /**
+     * @param maxBatch límite inicial y máximo de registros por lote (normalmente max.poll.records)
+     */
+    public PollWatchdog(Duration maxPollInterval, int maxBatch) {
+        this.maxPollIntervalNanos = maxPollInterval.toNanos();
+        this.maxBatch = maxBatch;
+        this.checker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "poll-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMillis = Math.max(10, Math.min(1000, maxPollInterval.toMillis() / 20));
+        checker.scheduleAtFixedRate(this::check, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Vigilante con max.poll.interval.ms y max.poll.records de las propiedades del consumidor
+     * (o los valores por defecto del cliente)
+     */
+    public static PollWatchdog forConsumer(Properties props) {
+        Object interval = props.getOrDefault(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, 300_000);
+        Object records = props.getOrDefault(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+        return new PollWatchdog(Duration.ofMillis(Long.parseLong(interval.toString())),
+                Integer.parseInt(records.toString()));
+    }
+
+    /**
+     * Registra el hilo actual; cada hilo consumidor debe tener su propio handle
+     */
+    public Handle register(String name) {
+        Handle handle = new Handle(name, Thread.currentThread());
+        handles.add(handle);
+        return handle;
+    }
+
+    public String summary() {
+        StringBuilder summary = new StringBuilder();
+        for (Handle handle : handles) {
+            summary.append(String.format("%s: hueco máx %d ms, último %d ms, avisos %d, críticos %d, lote %d%n",
+                    handle.name, handle.getMaxGapMillis(), handle.getLastGapMillis(), handle.getWarnings(),
+                    handle.getCriticals(), handle.batchLimit()));
+        }
+        return summary.toString();
+    }
+
+    private void check() {
+        long now = System.nanoTime();
+        for (Handle handle : handles) {
+            try {
+                handle.check(now);
+            } catch (RuntimeException e) {
+                log.warn("Error revisando {}", handle.name, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        checker.shutdownNow();
+        if (!handles.isEmpty()) {
+            log.info("Resumen del vigilante de poll:\n{}", summary());
+        }
+    }
+
+    private static String stack(Thread thread) {
+        StringBuilder stack = new StringBuilder();
+        StackTraceElement[] frames = thread.getStackTrace();
+        for (int i = 0; i < Math.min(STACK_FRAMES, frames.length); i++) {
+            stack.append("\n\tat ").append(frames[i]);
+        }
+        if (frames.length > STACK_FRAMES) {
+            stack.append("\n\t... ").append(frames.length - STACK_FRAMES).append(" más");
+        }
+        return stack.toString();
+    }
+
+    /**
+     * Estado de un hilo consumidor. pollStarted y pollReturned se llaman desde ese hilo; el
+     * vigilante solo lee los tiempos y activa la petición de ceder.
+     */
+    public final class Handle implements Closeable {
+
+        private final String name;
+        private final Thread thread;
+
+        // 0 mientras el hilo está dentro de poll
+        private volatile long gapStartNanos;
+        private volatile boolean warned;
+        private volatile boolean critical;
+        private volatile boolean yieldRequested;
+        private volatile int batchLimit;
+
+        private final AtomicLong maxGapNanos = new AtomicLong();
+        private volatile long lastGapNanos;
+        private final AtomicLong warnings = new AtomicLong();
+        private final AtomicLong criticals = new AtomicLong();
+
+        private Handle(String name, Thread thread) {
+            this.name = name;
+            this.thread = thread;
+            this.batchLimit = maxBatch;
+        }
+
+        public void pollStarted() {
+            long start = gapStartNanos;
+            gapStartNanos = 0;
+            if (start == 0) {
+                return;
+            }
+            long gap = System.nanoTime() - start;
+            lastGapNanos = gap;
+            maxGapNanos.accumulateAndGet(gap, Math::max);
+            if (warned) {
+                batchLimit = Math.max(MIN_BATCH, batchLimit / 2);
+                log.info("{}: hueco de {} ms, el lote efectivo baja a {} registros", name,
+                        TimeUnit.NANOSECONDS.toMillis(gap), batchLimit);
+            } else if (batchLimit < maxBatch) {
+                // Recuperación gradual: +25% por cada hueco sano
+                batchLimit = Math.min(maxBatch, batchLimit + Math.max(1, batchLimit / 4));
+            }
+            warned = false;
+            critical = false;
+            yieldRequested = false;
+        }
+
+        public void pollReturned() {
+            gapStartNanos = System.nanoTime();
+        }
+
+        /**
+         * El hueco se acerca a max.poll.interval.ms: el bucle debe dejar el resto del lote y
+         * volver a poll cuanto antes
+         */
+        public boolean shouldYield() {
+            return yieldRequested;
+        }
+
+        /**
+         * Registros que conviene procesar de cada lote
+         */
+        public int batchLimit() {
+            return batchLimit;
+        }
+
+        public long getMaxGapMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxGapNanos.get());
+        }
+
+        public long getLastGapMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(lastGapNanos);
+        }
+
+        public long getWarnings() {
+            return warnings.get();
+        }
+
+        public long getCriticals() {
+            return criticals.get();
+        }
+
+        private void check(long now) {
+            long start = gapStartNanos;
+            if (start == 0) {
+                return;
+            }
+            long gap = now - start;
+            if (!warned && gap > maxPollIntervalNanos * WARN_RATIO) {
+                warned = true;
+                warnings.incrementAndGet();
+                log.warn("{}: {} ms sin llamar a poll (max.poll.interval.ms = {}). Pila del hilo {}:{}", name,
+                        TimeUnit.NANOSECONDS.toMillis(gap), TimeUnit.NANOSECONDS.toMillis(maxPollIntervalNanos),
+                        thread.getName(), stack(thread));
+            }
+            if (!critical && gap > maxPollIntervalNanos * CRITICAL_RATIO) {
+                critical = true;
+                criticals.incrementAndGet();
+                yieldRequested = true;
+                log.error("{}: {} ms sin llamar a poll, se pide ceder el lote para evitar el rebalanceo. Pila:{}",
+                        name, TimeUnit.NANOSECONDS.toMillis(gap), stack(thread));
+            }
+        }
+
+        @Override
+        public void close() {
+            handles.remove(this);
+        }
+    }
+}
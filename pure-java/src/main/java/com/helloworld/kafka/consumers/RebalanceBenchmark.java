@@ -0,0 +1,282 @@
+package com.helloworld.kafka.consumers;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.MemberToRemove;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.RemoveMembersFromConsumerGroupOptions;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.RangeAssignor;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helloworld.kafka.testdocker.Config;
+
+/**
+ * Mide cuánto tiempo deja de consumirse cada partición durante un rebalanceo, con asignación
+ * eager, cooperativa y cooperativa con membresía estática.
+ *
+ * Un productor escribe a ritmo constante en todas las particiones; para cada modo se arranca
+ * un grupo de 3 miembros y, ya estable, se provocan dos eventos: entra un cuarto miembro
+ * (escalado) y se reinicia un miembro (despliegue). En cada ventana se guarda el mayor hueco
+ * entre registros consumidos de cada partición; un hueco de más de {@link #PAUSE_THRESHOLD_MS}
+ * cuenta como partición parada.
+ *
+ * Un miembro estático que se cierra no envía LeaveGroup; tras el escalado, el cuarto miembro se
+ * retira del grupo con removeMembersFromConsumerGroup, como haría un escalado hacia abajo bien
+ * hecho. Sin ello sus particiones seguirían sin asignar durante {@link #SESSION_TIMEOUT_MS} y
+ * la ventana del reinicio empezaría con el grupo aún sin estabilizar.
+ *
+ * Uso: RebalanceBenchmark [fichero config] [segundos por ventana]
+ */
+public class RebalanceBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final String TOPIC = "rebalance-benchmark";
+    private static final int PARTITIONS = 12;
+    private static final int MEMBERS = 3;
+    private static final int RECORDS_PER_SEC_PER_PARTITION = 200;
+    private static final long PAUSE_THRESHOLD_MS = 1_000;
+    private static final int SESSION_TIMEOUT_MS = 30_000;
+
+    enum Mode {
+        EAGER(RangeAssignor.class, false),
+        COOPERATIVE(CooperativeStickyAssignor.class, false),
+        COOPERATIVE_STATIC(CooperativeStickyAssignor.class, true);
+
+        private final Class<?> assignor;
+        private final boolean staticMembership;
+
+        Mode(Class<?> assignor, boolean staticMembership) {
+            this.assignor = assignor;
+            this.staticMembership = staticMembership;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String configFile = args.length > 0 ? args[0] : "./config/default.properties";
+        int windowSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        Properties config = Config.loadConfig(configFile);
+        createTopic(config);
+
+        Thread producer = new Thread(() -> produce(config), "benchmark-producer");
+        producer.setDaemon(true);
+        producer.start();
+
+        List<String> results = new ArrayList<>();
+        for (Mode mode : Mode.values()) {
+            results.addAll(run(config, mode, windowSeconds));
+        }
+        producer.interrupt();
+
+        StringBuilder table = new StringBuilder(String.format("%-20s %-10s %10s %14s %16s%n", "modo", "evento",
+                "paradas", "pausa máx ms", "pausa total ms"));
+        results.forEach(table::append);
+        log.info("Pausa por partición durante el rebalanceo ({} particiones, umbral {} ms):\n{}", PARTITIONS,
+                PAUSE_THRESHOLD_MS, table);
+    }
+
+    private static List<String> run(Properties config, Mode mode, int windowSeconds)
+            throws InterruptedException, ExecutionException {
+        String group = "rebalance-benchmark-" + mode.name().toLowerCase() + "-" + System.currentTimeMillis();
+        PartitionGaps gaps = new PartitionGaps();
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            members.add(Member.start(config, mode, group, i, gaps));
+        }
+        log.info("{}: esperando a que el grupo {} se estabilice", mode, group);
+        TimeUnit.SECONDS.sleep(windowSeconds);
+
+        List<String> results = new ArrayList<>();
+
+        gaps.startWindow();
+        Member extra = Member.start(config, mode, group, MEMBERS, gaps);
+        TimeUnit.SECONDS.sleep(windowSeconds);
+        results.add(gaps.endWindow(mode, "escalado"));
+
+        // Vuelta a 3 miembros antes de medir el reinicio
+        extra.close();
+        if (mode.staticMembership) {
+            removeStaticMember(config, group, MEMBERS);
+        }
+        TimeUnit.SECONDS.sleep(windowSeconds);
+
+        gaps.startWindow();
+        members.get(0).close();
+        members.set(0, Member.start(config, mode, group, 0, gaps));
+        TimeUnit.SECONDS.sleep(windowSeconds);
+        results.add(gaps.endWindow(mode, "reinicio"));
+
+        members.forEach(Member::close);
+        return results;
+    }
+
+    private static void removeStaticMember(Properties config, String group, int index)
+            throws InterruptedException, ExecutionException {
+        try (Admin admin = Admin.create(config)) {
+            admin.removeMembersFromConsumerGroup(group, new RemoveMembersFromConsumerGroupOptions(
+                    List.of(new MemberToRemove(instanceId(group, index))))).all().get();
+        }
+        log.info("Miembro estático {} retirado del grupo", instanceId(group, index));
+    }
+
+    private static String instanceId(String group, int index) {
+        return group + "-" + index;
+    }
+
+    private static void produce(Properties config) {
+        Properties props = new Properties();
+        props.putAll(config);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / (RECORDS_PER_SEC_PER_PARTITION * PARTITIONS);
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(props)) {
+            long next = System.nanoTime();
+            for (long i = 0; !Thread.currentThread().isInterrupted(); i++) {
+                producer.send(new ProducerRecord<>(TOPIC, (int) (i % PARTITIONS), null, Long.toString(i)));
+                next += intervalNanos;
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void createTopic(Properties config) throws InterruptedException, ExecutionException {
+        try (Admin admin = Admin.create(config)) {
+            admin.createTopics(List.of(new NewTopic(TOPIC, PARTITIONS, (short) 1))).all().get();
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof TopicExistsException)) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Mayor hueco entre registros consumidos de cada partición dentro de la ventana actual
+     */
+    private static final class PartitionGaps {
+
+        private final AtomicLongArray lastSeen = new AtomicLongArray(PARTITIONS);
+        private final AtomicLongArray maxGap = new AtomicLongArray(PARTITIONS);
+
+        void record(int partition, long now) {
+            long previous = lastSeen.getAndSet(partition, now);
+            if (previous != 0) {
+                maxGap.accumulateAndGet(partition, now - previous, Math::max);
+            }
+        }
+
+        void startWindow() {
+            long now = System.nanoTime();
+            for (int p = 0; p < PARTITIONS; p++) {
+                lastSeen.set(p, now);
+                maxGap.set(p, 0);
+            }
+        }
+
+        String endWindow(Mode mode, String event) {
+            long now = System.nanoTime();
+            int paused = 0;
+            long max = 0;
+            long total = 0;
+            for (int p = 0; p < PARTITIONS; p++) {
+                // Una partición que sigue parada al cerrar la ventana cuenta hasta ahora
+                long gapMillis = TimeUnit.NANOSECONDS.toMillis(Math.max(maxGap.get(p), now - lastSeen.get(p)));
+                if (gapMillis > PAUSE_THRESHOLD_MS) {
+                    paused++;
+                    total += gapMillis;
+                }
+                max = Math.max(max, gapMillis);
+            }
+            log.info("{} {}: {} particiones paradas, pausa máxima {} ms", mode, event, paused, max);
+            return String.format("%-20s %-10s %10d %14d %16d%n", mode, event, paused, max, total);
+        }
+    }
+
+    private static final class Member implements Runnable {
+
+        private final KafkaConsumer<String, String> consumer;
+        private final PartitionGaps gaps;
+        private final Thread thread;
+        private volatile boolean closed;
+
+        private Member(KafkaConsumer<String, String> consumer, PartitionGaps gaps, String name) {
+            this.consumer = consumer;
+            this.gaps = gaps;
+            this.thread = new Thread(this, name);
+        }
+
+        static Member start(Properties config, Mode mode, String group, int index, PartitionGaps gaps) {
+            Properties props = new Properties();
+            props.putAll(config);
+            props.remove(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG);
+            props.put(ConsumerConfig.GROUP_ID_CONFIG, group);
+            props.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, mode.assignor.getName());
+            if (mode.staticMembership) {
+                props.put(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG, instanceId(group, index));
+            }
+            props.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, SESSION_TIMEOUT_MS);
+            props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+            props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+            props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+            props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+            Member member = new Member(new KafkaConsumer<>(props), gaps, "member-" + index);
+            member.thread.start();
+            return member;
+        }
+
+        @Override
+        public void run() {
+            try {
+                consumer.subscribe(List.of(TOPIC), new IncrementalRebalanceListener(consumer));
+                while (!closed) {
+                    for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(100))) {
+                        gaps.record(record.partition(), System.nanoTime());
+                    }
+                    consumer.commitAsync();
+                }
+            } catch (WakeupException e) {
+                if (!closed) {
+                    throw e;
+                }
+            } finally {
+                consumer.close();
+            }
+        }
+
+        void close() {
+            closed = true;
+            consumer.wakeup();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
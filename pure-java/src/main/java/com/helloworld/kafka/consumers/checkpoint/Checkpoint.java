@@ -0,0 +1,34 @@
+package com.helloworld.kafka.consumers.checkpoint;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Checkpoint restaurado: estado serializado y siguiente offset a consumir.
+ */
+public class Checkpoint {
+
+    private final long offset;
+    private final long generation;
+    private final ByteBuffer state;
+
+    Checkpoint(long offset, long generation, ByteBuffer state) {
+        this.offset = offset;
+        this.generation = generation;
+        this.state = state;
+    }
+
+    /**
+     * Offset del primer registro no incluido en el estado
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public ByteBuffer getState() {
+        return state.duplicate();
+    }
+}
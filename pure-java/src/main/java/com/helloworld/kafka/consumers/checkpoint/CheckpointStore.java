@@ -0,0 +1,227 @@
+package com.helloworld.kafka.consumers.checkpoint;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Checkpoints locales de estado por partición en ficheros mapeados en memoria.
+ *
+ * Un fichero por partición (topic-partición.ckpt) con dos slots de igual tamaño. Cada
+ * escritura va al slot que no tiene el checkpoint más reciente, así que un corte a mitad de
+ * escritura deja intacto el anterior. Cabecera de cada slot:
+ * [int magic][int crc32c][long generación][long offset][int longitud][int reservado], seguida
+ * del estado serializado. El CRC cubre desde la generación hasta el final del estado; al leer
+ * se elige el slot válido con mayor generación.
+ *
+ * Si el estado no cabe en el slot, el fichero se reescribe con slots del doble de tamaño en un
+ * temporal que sustituye al original con un move atómico.
+ *
+ * Cada partición debe escribirla un solo hilo cada vez; distintas particiones pueden
+ * escribirse en paralelo.
+ */
+public class CheckpointStore implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final int MAGIC = 0x4B434B50;
+    private static final int HEADER_BYTES = 32;
+    private static final int MIN_STATE_BYTES = 64 * 1024;
+    private static final String SUFFIX = ".ckpt";
+
+    private final Path directory;
+    private final Map<TopicPartition, PartitionFile> files = new ConcurrentHashMap<>();
+
+    public CheckpointStore(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el directorio de checkpoints " + directory, e);
+        }
+    }
+
+    /**
+     * Último checkpoint válido de la partición, si existe
+     */
+    public Optional<Checkpoint> read(TopicPartition partition) {
+        Path path = path(partition);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        return file(partition).latest();
+    }
+
+    /**
+     * Guarda el estado de la partición junto al offset del primer registro que no incluye.
+     * Vuelve cuando el slot está escrito en disco.
+     */
+    public void write(TopicPartition partition, long offset, byte[] state) {
+        file(partition).write(offset, state);
+    }
+
+    /**
+     * Borra el checkpoint de la partición (por ejemplo, si ya no es utilizable)
+     */
+    public void delete(TopicPartition partition) {
+        files.remove(partition);
+        try {
+            Files.deleteIfExists(path(partition));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        // Los mapeos se liberan cuando el GC recoge los buffers
+        files.clear();
+    }
+
+    private PartitionFile file(TopicPartition partition) {
+        return files.computeIfAbsent(partition, tp -> new PartitionFile(path(tp)));
+    }
+
+    private Path path(TopicPartition partition) {
+        return directory.resolve(partition.topic() + "-" + partition.partition() + SUFFIX);
+    }
+
+    private static final class PartitionFile {
+
+        private final Path path;
+        private MappedByteBuffer buffer;
+        private int slotBytes;
+        private long generation;
+        private int latestSlot = -1;
+
+        PartitionFile(Path path) {
+            this.path = path;
+            if (Files.exists(path)) {
+                try {
+                    map();
+                    latest().ifPresent(checkpoint -> generation = checkpoint.getGeneration());
+                } catch (IllegalStateException e) {
+                    // Se trata como si no hubiera checkpoint: la siguiente escritura rehace el fichero
+                    log.warn("{}", e.getMessage());
+                    buffer = null;
+                }
+            }
+        }
+
+        synchronized Optional<Checkpoint> latest() {
+            if (buffer == null) {
+                return Optional.empty();
+            }
+            Checkpoint best = null;
+            for (int slot = 0; slot < 2; slot++) {
+                Checkpoint candidate = readSlot(slot);
+                if (candidate != null && (best == null || candidate.getGeneration() > best.getGeneration())) {
+                    best = candidate;
+                    latestSlot = slot;
+                }
+            }
+            return Optional.ofNullable(best);
+        }
+
+        synchronized void write(long offset, byte[] state) {
+            generation++;
+            if (buffer == null || state.length > slotBytes - HEADER_BYTES) {
+                grow(offset, state);
+                return;
+            }
+            int slot = latestSlot == 0 ? 1 : 0;
+            writeSlot(buffer, slot * slotBytes, offset, state);
+            buffer.force(slot * slotBytes, HEADER_BYTES + state.length);
+            latestSlot = slot;
+        }
+
+        private void writeSlot(ByteBuffer target, int base, long offset, byte[] state) {
+            // La marca se borra primero y se escribe la última
+            target.putInt(base, 0);
+            target.putLong(base + 8, generation);
+            target.putLong(base + 16, offset);
+            target.putInt(base + 24, state.length);
+            target.putInt(base + 28, 0);
+            target.put(base + HEADER_BYTES, state);
+            target.putInt(base + 4, crc(target, base, state.length));
+            target.putInt(base, MAGIC);
+        }
+
+        private Checkpoint readSlot(int slot) {
+            int base = slot * slotBytes;
+            if (buffer.getInt(base) != MAGIC) {
+                return null;
+            }
+            int length = buffer.getInt(base + 24);
+            if (length < 0 || length > slotBytes - HEADER_BYTES || buffer.getInt(base + 4) != crc(buffer, base, length)) {
+                log.warn("Slot {} de {} corrupto, se ignora", slot, path);
+                return null;
+            }
+            byte[] state = new byte[length];
+            buffer.get(base + HEADER_BYTES, state);
+            return new Checkpoint(buffer.getLong(base + 16), buffer.getLong(base + 8), ByteBuffer.wrap(state));
+        }
+
+        private static int crc(ByteBuffer source, int base, int length) {
+            CRC32C crc = new CRC32C();
+            crc.update(source.duplicate().position(base + 8).limit(base + HEADER_BYTES + length));
+            return (int) crc.getValue();
+        }
+
+        /**
+         * Reescribe el fichero con slots mayores: el nuevo checkpoint va al slot 0 de un
+         * temporal que sustituye al fichero con un move atómico
+         */
+        private void grow(long offset, byte[] state) {
+            int newSlotBytes = HEADER_BYTES + Math.max(MIN_STATE_BYTES, Integer.highestOneBit(state.length) << 1);
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer tmpBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, 2L * newSlotBytes);
+                writeSlot(tmpBuffer, 0, offset, state);
+                tmpBuffer.force();
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo escribir el checkpoint " + tmp, e);
+            }
+            try {
+                Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo sustituir el checkpoint " + path, e);
+            }
+            if (buffer != null) {
+                log.info("Checkpoint {} ampliado a slots de {} KB", path, newSlotBytes / 1024);
+            }
+            map();
+            latestSlot = 0;
+        }
+
+        private void map() {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long size = channel.size();
+                if (size < 2L * HEADER_BYTES || size % 2 != 0 || size / 2 > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("Tamaño de checkpoint no válido en " + path + ": " + size);
+                }
+                slotBytes = (int) (size / 2);
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo abrir el checkpoint " + path, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.helloworld.kafka.consumers.checkpoint;
+
+import java.io.Closeable;
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bucle de consumo con estado en memoria por partición y checkpoints locales.
+ *
+ * Al recibir una partición se restaura su último checkpoint de {@link CheckpointStore} y se
+ * hace seek al offset guardado con él, así que solo se reprocesa la cola posterior. Sin
+ * checkpoint (o si el offset ya no existe en el broker) el estado se reconstruye desde el
+ * principio del topic. Cada intervalo, y al perder la partición, se escribe el checkpoint y
+ * se confirman los mismos offsets en el grupo; el offset confirmado es solo informativo (lag),
+ * la fuente de verdad para el estado es el checkpoint.
+ *
+ * El estado de cada partición se actualiza solo desde el hilo del bucle.
+ */
+public class CheckpointingConsumer<K, V, S> implements Runnable, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private final KafkaConsumer<K, V> consumer;
+    private final String topic;
+    private final CheckpointStore store;
+    private final StateCodec<S> codec;
+    private final Supplier<S> initialState;
+    private final BiConsumer<S, ConsumerRecord<K, V>> updater;
+    private final long intervalNanos;
+
+    private final Map<TopicPartition, S> states = new HashMap<>();
+    // Siguiente offset a procesar de cada partición (el que se guarda con el estado)
+    private final Map<TopicPartition, Long> positions = new HashMap<>();
+    private long nextCheckpointNanos;
+    private volatile boolean closed;
+
+    public CheckpointingConsumer(KafkaConsumer<K, V> consumer, String topic, CheckpointStore store,
+            StateCodec<S> codec, Supplier<S> initialState, BiConsumer<S, ConsumerRecord<K, V>> updater,
+            Duration interval) {
+        this.consumer = consumer;
+        this.topic = topic;
+        this.store = store;
+        this.codec = codec;
+        this.initialState = initialState;
+        this.updater = updater;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    @Override
+    public void run() {
+        try {
+            consumer.subscribe(List.of(topic), new ConsumerRebalanceListener() {
+                @Override
+                public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                    commit(checkpoint(partitions));
+                    release(partitions);
+                }
+
+                @Override
+                public void onPartitionsLost(Collection<TopicPartition> partitions) {
+                    // Ya no se puede confirmar en el grupo, pero el checkpoint local sigue siendo coherente
+                    checkpoint(partitions);
+                    release(partitions);
+                }
+
+                @Override
+                public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+                    restore(partitions);
+                }
+            });
+            nextCheckpointNanos = System.nanoTime() + intervalNanos;
+            while (!closed) {
+                ConsumerRecords<K, V> records = consumer.poll(Duration.ofMillis(1000));
+                for (ConsumerRecord<K, V> record : records) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    updater.accept(states.get(partition), record);
+                    positions.put(partition, record.offset() + 1);
+                }
+                if (System.nanoTime() >= nextCheckpointNanos) {
+                    consumer.commitAsync(checkpoint(states.keySet()), null);
+                    nextCheckpointNanos = System.nanoTime() + intervalNanos;
+                }
+            }
+        } catch (WakeupException e) {
+            if (!closed) {
+                throw e;
+            }
+        } finally {
+            try {
+                commit(checkpoint(states.keySet()));
+            } finally {
+                consumer.close();
+            }
+        }
+    }
+
+    /**
+     * Estado actual de una partición asignada. Solo debe llamarse desde el hilo del bucle
+     * (por ejemplo, desde el actualizador).
+     */
+    public S state(TopicPartition partition) {
+        return states.get(partition);
+    }
+
+    private void restore(Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        Map<TopicPartition, Long> beginning = consumer.beginningOffsets(partitions);
+        for (TopicPartition partition : partitions) {
+            Optional<Checkpoint> checkpoint = store.read(partition);
+            if (checkpoint.isPresent() && checkpoint.get().getOffset() >= beginning.get(partition)) {
+                long offset = checkpoint.get().getOffset();
+                states.put(partition, codec.decode(checkpoint.get().getState()));
+                positions.put(partition, offset);
+                consumer.seek(partition, offset);
+                log.info("{} restaurada desde checkpoint en el offset {}", partition, offset);
+            } else {
+                if (checkpoint.isPresent()) {
+                    // La retención ya borró registros posteriores al checkpoint: no sirve
+                    log.warn("Checkpoint de {} en el offset {} anterior al inicio del log {}, se descarta",
+                            partition, checkpoint.get().getOffset(), beginning.get(partition));
+                    store.delete(partition);
+                }
+                states.put(partition, initialState.get());
+                positions.put(partition, beginning.get(partition));
+                consumer.seek(partition, beginning.get(partition));
+                log.info("{} sin checkpoint, se reconstruye desde el offset {}", partition, beginning.get(partition));
+            }
+        }
+        log.info("Restauradas {} particiones en {} ms", partitions.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Escribe el checkpoint de las particiones y devuelve los offsets guardados
+     */
+    private Map<TopicPartition, OffsetAndMetadata> checkpoint(Collection<TopicPartition> partitions) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        long start = System.nanoTime();
+        long bytes = 0;
+        for (TopicPartition partition : partitions) {
+            S state = states.get(partition);
+            if (state == null) {
+                continue;
+            }
+            long offset = positions.get(partition);
+            byte[] encoded = codec.encode(state);
+            store.write(partition, offset, encoded);
+            offsets.put(partition, new OffsetAndMetadata(offset));
+            bytes += encoded.length;
+        }
+        if (!offsets.isEmpty()) {
+            log.debug("Checkpoint de {} particiones ({} bytes) en {} ms", offsets.size(), bytes,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+        return offsets;
+    }
+
+    private void commit(Map<TopicPartition, OffsetAndMetadata> offsets) {
+        if (!offsets.isEmpty()) {
+            consumer.commitSync(offsets);
+        }
+    }
+
+    private void release(Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions) {
+            states.remove(partition);
+            positions.remove(partition);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        consumer.wakeup();
+    }
+}
@@ -0,0 +1,126 @@
+package com.helloworld.kafka.consumers.checkpoint;
+
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helloworld.kafka.consumers.GroupMembership;
+
+/**
+ * Versión con estado de ConsumerPerPartition: cada hilo cuenta los registros por clave de sus
+ * particiones de test-topic y guarda el recuento con checkpoints locales, así que al
+ * reiniciar solo se reprocesa lo llegado desde el último checkpoint.
+ *
+ * Uso: KeyCountConsumer [directorio de checkpoints] [segundos entre checkpoints]
+ */
+public class KeyCountConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final String BOOTSTRAP_SERVERS = "localhost:29092";
+    private static final String TOPIC = "test-topic";
+    private static final String GROUP_ID = "KeyCountConsumer-group";
+    private static final int NUM_CONSUMERS = 3;
+
+    public static void main(String[] args) throws InterruptedException {
+        Path directory = Path.of(args.length > 0 ? args[0] : "./checkpoints/" + GROUP_ID);
+        Duration interval = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 10);
+
+        CheckpointStore store = new CheckpointStore(directory);
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_CONSUMERS);
+        List<CheckpointingConsumer<String, String, Map<String, Long>>> consumers = new ArrayList<>();
+        for (int i = 0; i < NUM_CONSUMERS; i++) {
+            CheckpointingConsumer<String, String, Map<String, Long>> consumer = new CheckpointingConsumer<>(
+                    createConsumer(i), TOPIC, store, new CountsCodec(), HashMap::new,
+                    (counts, record) -> {
+                        long count = counts.merge(String.valueOf(record.key()), 1L, Long::sum);
+                        if (record.offset() % 10_000 == 0) {
+                            log.info("partition = {}, offset = {}, key = {}, count = {}, keys = {}",
+                                    record.partition(), record.offset(), record.key(), count, counts.size());
+                        }
+                    }, interval);
+            consumers.add(consumer);
+            executor.submit(consumer);
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            // Cierre ordenado: cada consumidor escribe su último checkpoint antes de salir
+            consumers.forEach(CheckpointingConsumer::close);
+            executor.shutdown();
+            try {
+                executor.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            store.close();
+        }));
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    }
+
+    private static KafkaConsumer<String, String> createConsumer(int index) {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, BOOTSTRAP_SERVERS);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        // Con membresía estática, reiniciar el proceso no mueve las particiones ni sus checkpoints
+        GroupMembership.cooperativeStatic(props, GROUP_ID, index);
+        // La posición la fija el checkpoint; el reset solo aplica si no hay ninguno
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+
+        return new KafkaConsumer<>(props);
+    }
+
+    /**
+     * Recuentos como [int entradas]([int long. clave][clave UTF-8][long recuento])*
+     */
+    static class CountsCodec implements StateCodec<Map<String, Long>> {
+
+        @Override
+        public byte[] encode(Map<String, Long> counts) {
+            List<byte[]> keys = new ArrayList<>(counts.size());
+            List<Long> values = new ArrayList<>(counts.size());
+            int size = 4;
+            for (Map.Entry<String, Long> entry : counts.entrySet()) {
+                byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                keys.add(key);
+                values.add(entry.getValue());
+                size += 4 + key.length + 8;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            buffer.putInt(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                buffer.putInt(keys.get(i).length).put(keys.get(i)).putLong(values.get(i));
+            }
+            return buffer.array();
+        }
+
+        @Override
+        public Map<String, Long> decode(ByteBuffer bytes) {
+            int entries = bytes.getInt();
+            Map<String, Long> counts = new HashMap<>(Math.max(16, entries * 4 / 3 + 1));
+            for (int i = 0; i < entries; i++) {
+                byte[] key = new byte[bytes.getInt()];
+                bytes.get(key);
+                counts.put(new String(key, StandardCharsets.UTF_8), bytes.getLong());
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.helloworld.kafka.consumers.checkpoint;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Serialización del estado de una partición para {@link CheckpointStore}
+ */
+public interface StateCodec<S> {
+
+    byte[] encode(S state);
+
+    S decode(ByteBuffer bytes);
+}
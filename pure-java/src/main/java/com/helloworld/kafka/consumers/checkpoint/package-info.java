@@ -0,0 +1 @@
+package com.helloworld.kafka.consumers.checkpoint;
\ No newline at end of file
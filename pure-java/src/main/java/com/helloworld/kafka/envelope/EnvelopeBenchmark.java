@@ -0,0 +1,180 @@
+package com.helloworld.kafka.envelope;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helloworld.kafka.testdocker.Config;
+
+/**
+ * Compara registros normales con sobres para eventos como los de AsyncProducerBatches (clave
+ * de usuario corta y valor pequeño) a varios tamaños de evento: eventos/s al producir, bytes
+ * enviados por evento y eventos/s al consumir y desempaquetar.
+ *
+ * Uso: EnvelopeBenchmark [fichero config] [eventos por prueba]
+ */
+public class EnvelopeBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final String PLAIN_TOPIC = "envelope-benchmark-plain";
+    private static final String ENVELOPE_TOPIC = "envelope-benchmark-envelope";
+    private static final int PARTITIONS = 6;
+    private static final int[] EVENT_SIZES = {16, 64, 256, 1024};
+    private static final String[] USERS = {"eabara", "jsmith", "sgarcia", "jbernard", "htanaka", "awalther"};
+
+    public static void main(String[] args) throws Exception {
+        String configFile = args.length > 0 ? args[0] : "./config/default.properties";
+        int events = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        Properties config = Config.loadConfig(configFile);
+        createTopics(config);
+
+        StringBuilder table = new StringBuilder(String.format("%8s %-10s %14s %14s %14s%n", "bytes", "modo",
+                "prod. ev/s", "bytes red/ev", "cons. ev/s"));
+        for (int size : EVENT_SIZES) {
+            table.append(run(config, PLAIN_TOPIC, "normal", size, events));
+            table.append(run(config, ENVELOPE_TOPIC, "sobre", size, events));
+        }
+        log.info("Resultados con {} eventos por prueba:\n{}", events, table);
+    }
+
+    private static String run(Properties config, String topic, String mode, int size, int events) throws Exception {
+        Map<TopicPartition, Long> start = endOffsets(config, topic);
+        String payload = "x".repeat(size);
+        Random rnd = new Random(42);
+
+        long produceStart = System.nanoTime();
+        long networkBytes;
+        if (topic.equals(PLAIN_TOPIC)) {
+            AtomicLong acked = new AtomicLong();
+            try (KafkaProducer<String, String> producer = new KafkaProducer<>(producerProperties(config,
+                    StringSerializer.class))) {
+                for (int i = 0; i < events; i++) {
+                    producer.send(new ProducerRecord<>(topic, USERS[rnd.nextInt(USERS.length)], payload),
+                            (metadata, exception) -> acked.incrementAndGet());
+                }
+                producer.flush();
+                networkBytes = outgoingBytes(producer.metrics());
+            }
+        } else {
+            KafkaProducer<byte[], byte[]> producer = new KafkaProducer<>(producerProperties(config,
+                    ByteArraySerializer.class));
+            try (EnvelopeProducer<String, String> envelopes = new EnvelopeProducer<>(producer, topic,
+                    new StringSerializer(), new StringSerializer(), EnvelopeProducer.Grouping.KEY, 500, 64 * 1024,
+                    Duration.ofMillis(5))) {
+                for (int i = 0; i < events; i++) {
+                    envelopes.send(USERS[rnd.nextInt(USERS.length)], payload);
+                }
+                envelopes.flush();
+                networkBytes = outgoingBytes(producer.metrics());
+            }
+        }
+        double produceSeconds = (System.nanoTime() - produceStart) / 1e9;
+
+        double consumeSeconds = consume(config, start, events);
+        log.info("{} {} bytes: producción {} s, consumo {} s", mode, size, produceSeconds, consumeSeconds);
+        return String.format("%8d %-10s %14.0f %14.1f %14.0f%n", size, mode, events / produceSeconds,
+                (double) networkBytes / events, events / consumeSeconds);
+    }
+
+    private static double consume(Properties config, Map<TopicPartition, Long> start, int events) {
+        Properties props = new Properties();
+        props.putAll(config);
+        props.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        props.remove(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 5_000);
+
+        EnvelopeUnpacker<String, String> unpacker = new EnvelopeUnpacker<>(new StringDeserializer(),
+                new StringDeserializer());
+        long consumed = 0;
+        long begin = System.nanoTime();
+        try (KafkaConsumer<byte[], byte[]> consumer = new KafkaConsumer<>(props)) {
+            consumer.assign(start.keySet());
+            start.forEach(consumer::seek);
+            while (consumed < events) {
+                ConsumerRecords<byte[], byte[]> records = consumer.poll(Duration.ofMillis(500));
+                consumed += unpacker.unpack(records).size();
+            }
+        }
+        return (System.nanoTime() - begin) / 1e9;
+    }
+
+    private static Map<TopicPartition, Long> endOffsets(Properties config, String topic) {
+        Properties props = new Properties();
+        props.putAll(config);
+        props.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        try (KafkaConsumer<byte[], byte[]> consumer = new KafkaConsumer<>(props)) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (PartitionInfo info : consumer.partitionsFor(topic)) {
+                partitions.add(new TopicPartition(topic, info.partition()));
+            }
+            return consumer.endOffsets(partitions);
+        }
+    }
+
+    private static Properties producerProperties(Properties config, Class<?> serializer) {
+        Properties props = new Properties();
+        props.putAll(config);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, serializer);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, serializer);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, 256 * 1024);
+        return props;
+    }
+
+    private static long outgoingBytes(Map<MetricName, ? extends Metric> metrics) {
+        for (Map.Entry<MetricName, ? extends Metric> metric : metrics.entrySet()) {
+            if ("producer-metrics".equals(metric.getKey().group())
+                    && "outgoing-byte-total".equals(metric.getKey().name())) {
+                return (long) ((Number) metric.getValue().metricValue()).doubleValue();
+            }
+        }
+        return 0;
+    }
+
+    private static void createTopics(Properties config) throws InterruptedException, ExecutionException {
+        try (Admin admin = Admin.create(config)) {
+            for (String topic : List.of(PLAIN_TOPIC, ENVELOPE_TOPIC)) {
+                try {
+                    admin.createTopics(List.of(new NewTopic(topic, PARTITIONS, (short) 1))).all().get();
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof TopicExistsException)) {
+                        throw e;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.helloworld.kafka.envelope;
+
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * Evento individual extraído de un sobre. Se identifica por el offset del registro Kafka y
+ * su posición dentro del sobre (sub-offset); un registro normal es un sobre de un evento.
+ */
+public class EnvelopeEvent<K, V> {
+
+    static final String SUB_OFFSET_METADATA = "envelope-sub=";
+
+    private final TopicPartition partition;
+    private final long offset;
+    private final int subOffset;
+    private final int count;
+    private final long timestamp;
+    private final K key;
+    private final V value;
+
+    EnvelopeEvent(TopicPartition partition, long offset, int subOffset, int count, long timestamp, K key, V value) {
+        this.partition = partition;
+        this.offset = offset;
+        this.subOffset = subOffset;
+        this.count = count;
+        this.timestamp = timestamp;
+        this.key = key;
+        this.value = value;
+    }
+
+    public TopicPartition getPartition() {
+        return partition;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public int getSubOffset() {
+        return subOffset;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public K getKey() {
+        return key;
+    }
+
+    public V getValue() {
+        return value;
+    }
+
+    /**
+     * Posición a confirmar tras procesar este evento. Si quedan eventos del sobre, se confirma
+     * el propio sobre con el siguiente sub-offset en los metadatos, y
+     * {@link EnvelopeUnpacker#resume} salta los ya procesados al volver a leerlo.
+     */
+    public OffsetAndMetadata nextPosition() {
+        if (subOffset + 1 >= count) {
+            return new OffsetAndMetadata(offset + 1);
+        }
+        return new OffsetAndMetadata(offset, SUB_OFFSET_METADATA + (subOffset + 1));
+    }
+
+    @Override
+    public String toString() {
+        return partition + "@" + offset + "." + subOffset + " key=" + key + " value=" + value;
+    }
+}
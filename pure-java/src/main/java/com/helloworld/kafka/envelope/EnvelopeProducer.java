@@ -0,0 +1,186 @@
+package com.helloworld.kafka.envelope;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.utils.Utils;
+
+/**
+ * Agrupa eventos pequeños en sobres ({@link EnvelopeCodec}) antes de enviarlos a Kafka.
+ *
+ * Con {@link Grouping#KEY} cada sobre lleva eventos de una sola clave, que viaja como clave
+ * del registro y no se repite dentro. Con {@link Grouping#PARTITION} el sobre agrupa los
+ * eventos que irían a la misma partición con el particionador por defecto (murmur2), cada uno
+ * con su clave, y se envía a esa partición: sobres más grandes cuando hay muchas claves.
+ *
+ * Un sobre se envía al llegar a maxEvents eventos o maxBytes, o cuando su primer evento lleva
+ * linger esperando. Todos los eventos de un sobre comparten el mismo future.
+ */
+public class EnvelopeProducer<K, V> implements Closeable {
+
+    public enum Grouping {
+        KEY, PARTITION
+    }
+
+    private static final Header[] ENVELOPE_HEADERS = {
+            new RecordHeader(EnvelopeCodec.HEADER, new byte[] {EnvelopeCodec.VERSION})};
+
+    private final Producer<byte[], byte[]> producer;
+    private final String topic;
+    private final Serializer<K> keySerializer;
+    private final Serializer<V> valueSerializer;
+    private final Grouping grouping;
+    private final int maxEvents;
+    private final int maxBytes;
+    private final long lingerNanos;
+    private final int partitions;
+
+    private final Map<Object, Pending> pending = new HashMap<>();
+    private final ScheduledExecutorService lingerTimer;
+    private int nullKeyPartition;
+
+    public EnvelopeProducer(Producer<byte[], byte[]> producer, String topic, Serializer<K> keySerializer,
+            Serializer<V> valueSerializer, Grouping grouping, int maxEvents, int maxBytes, Duration linger) {
+        this.producer = producer;
+        this.topic = topic;
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+        this.grouping = grouping;
+        this.maxEvents = maxEvents;
+        this.maxBytes = maxBytes;
+        this.lingerNanos = linger.toNanos();
+        this.partitions = producer.partitionsFor(topic).size();
+        this.lingerTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "envelope-linger-" + topic);
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMicros = Math.max(100, TimeUnit.NANOSECONDS.toMicros(lingerNanos) / 2);
+        lingerTimer.scheduleAtFixedRate(this::sendExpired, periodMicros, periodMicros, TimeUnit.MICROSECONDS);
+    }
+
+    public synchronized CompletableFuture<RecordMetadata> send(K key, V value) {
+        byte[] keyBytes = keySerializer.serialize(topic, key);
+        byte[] valueBytes = valueSerializer.serialize(topic, value);
+        Object group = group(keyBytes);
+        Pending envelope = pending.get(group);
+        int eventBytes = (grouping == Grouping.PARTITION ? EnvelopeCodec.sizeOf(keyBytes) : 0)
+                + EnvelopeCodec.sizeOf(valueBytes);
+        if (envelope != null && envelope.bytes + eventBytes > maxBytes) {
+            pending.remove(group);
+            send(envelope);
+            envelope = null;
+        }
+        if (envelope == null) {
+            envelope = new Pending(keyBytes, group);
+            pending.put(group, envelope);
+        }
+        envelope.add(keyBytes, valueBytes, eventBytes);
+        CompletableFuture<RecordMetadata> future = envelope.future;
+        if (envelope.values.size() >= maxEvents || envelope.bytes >= maxBytes) {
+            pending.remove(group);
+            send(envelope);
+        }
+        return future;
+    }
+
+    /**
+     * Envía todos los sobres pendientes y espera a que el productor los confirme
+     */
+    public void flush() {
+        synchronized (this) {
+            pending.values().forEach(this::send);
+            pending.clear();
+        }
+        producer.flush();
+    }
+
+    private Object group(byte[] keyBytes) {
+        if (grouping == Grouping.KEY) {
+            return keyBytes == null ? "" : ByteBuffer.wrap(keyBytes);
+        }
+        if (keyBytes == null) {
+            // Sin clave el particionador reparte; aquí se reparte por sobres
+            nullKeyPartition = (nullKeyPartition + 1) % partitions;
+            return nullKeyPartition;
+        }
+        return Utils.toPositive(Utils.murmur2(keyBytes)) % partitions;
+    }
+
+    private synchronized void sendExpired() {
+        long now = System.nanoTime();
+        for (Iterator<Pending> it = pending.values().iterator(); it.hasNext();) {
+            Pending envelope = it.next();
+            if (now - envelope.createdNanos >= lingerNanos) {
+                it.remove();
+                send(envelope);
+            }
+        }
+    }
+
+    private void send(Pending envelope) {
+        ProducerRecord<byte[], byte[]> record;
+        if (grouping == Grouping.KEY) {
+            record = new ProducerRecord<>(topic, null, envelope.key,
+                    EnvelopeCodec.encode(null, envelope.values), List.of(ENVELOPE_HEADERS));
+        } else {
+            record = new ProducerRecord<>(topic, (Integer) envelope.group, null,
+                    EnvelopeCodec.encode(envelope.keys, envelope.values), List.of(ENVELOPE_HEADERS));
+        }
+        CompletableFuture<RecordMetadata> future = envelope.future;
+        producer.send(record, (metadata, exception) -> {
+            if (exception != null) {
+                future.completeExceptionally(exception);
+            } else {
+                future.complete(metadata);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        lingerTimer.shutdownNow();
+        flush();
+        producer.close();
+    }
+
+    private final class Pending {
+
+        private final byte[] key;
+        private final Object group;
+        private final List<byte[]> keys = grouping == Grouping.PARTITION ? new ArrayList<>() : null;
+        private final List<byte[]> values = new ArrayList<>();
+        private final CompletableFuture<RecordMetadata> future = new CompletableFuture<>();
+        private final long createdNanos = System.nanoTime();
+        private int bytes;
+
+        Pending(byte[] key, Object group) {
+            this.key = key;
+            this.group = group;
+        }
+
+        void add(byte[] eventKey, byte[] value, int eventBytes) {
+            if (keys != null) {
+                keys.add(eventKey);
+            }
+            values.add(value);
+            bytes += eventBytes;
+        }
+    }
+}
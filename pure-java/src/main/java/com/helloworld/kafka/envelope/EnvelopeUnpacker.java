@@ -0,0 +1,94 @@
+package com.helloworld.kafka.envelope;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Convierte los registros de un consumidor de bytes en eventos individuales: los sobres de
+ * {@link EnvelopeProducer} se desempaquetan y el resto de registros pasan como un evento.
+ *
+ * Para no reprocesar eventos tras un commit a mitad de sobre, al recibir particiones se llama
+ * a {@link #resume} con sus offsets confirmados:
+ *
+ * <pre>
+ * public void onPartitionsAssigned(Collection&lt;TopicPartition&gt; partitions) {
+ *     unpacker.resume(consumer.committed(new HashSet&lt;&gt;(partitions)));
+ * }
+ * </pre>
+ *
+ * No es thread-safe: se usa desde el hilo del consumidor.
+ */
+public class EnvelopeUnpacker<K, V> {
+
+    private final Deserializer<K> keyDeserializer;
+    private final Deserializer<V> valueDeserializer;
+    // Partición -> {offset del sobre, eventos a saltar}
+    private final Map<TopicPartition, long[]> skips = new HashMap<>();
+
+    public EnvelopeUnpacker(Deserializer<K> keyDeserializer, Deserializer<V> valueDeserializer) {
+        this.keyDeserializer = keyDeserializer;
+        this.valueDeserializer = valueDeserializer;
+    }
+
+    public void resume(Map<TopicPartition, OffsetAndMetadata> committed) {
+        committed.forEach((partition, position) -> {
+            skips.remove(partition);
+            if (position != null && position.metadata() != null
+                    && position.metadata().startsWith(EnvelopeEvent.SUB_OFFSET_METADATA)) {
+                int sub = Integer.parseInt(position.metadata().substring(EnvelopeEvent.SUB_OFFSET_METADATA.length()));
+                skips.put(partition, new long[] {position.offset(), sub});
+            }
+        });
+    }
+
+    public List<EnvelopeEvent<K, V>> unpack(ConsumerRecords<byte[], byte[]> records) {
+        List<EnvelopeEvent<K, V>> events = new ArrayList<>(records.count());
+        for (ConsumerRecord<byte[], byte[]> record : records) {
+            unpack(record, events);
+        }
+        return events;
+    }
+
+    public void unpack(ConsumerRecord<byte[], byte[]> record, List<EnvelopeEvent<K, V>> events) {
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        int skip = skip(partition, record.offset());
+        Header header = record.headers().lastHeader(EnvelopeCodec.HEADER);
+        if (header == null || record.value() == null) {
+            if (skip == 0) {
+                events.add(new EnvelopeEvent<>(partition, record.offset(), 0, 1, record.timestamp(),
+                        keyDeserializer.deserialize(record.topic(), record.headers(), record.key()),
+                        valueDeserializer.deserialize(record.topic(), record.headers(), record.value())));
+            }
+            return;
+        }
+        List<byte[][]> packed = EnvelopeCodec.decode(record.value());
+        // Agrupados por clave, los eventos no llevan clave propia y usan la del registro
+        K recordKey = keyDeserializer.deserialize(record.topic(), record.key());
+        for (int i = skip; i < packed.size(); i++) {
+            byte[][] event = packed.get(i);
+            K key = event[0] != null ? keyDeserializer.deserialize(record.topic(), event[0]) : recordKey;
+            events.add(new EnvelopeEvent<>(partition, record.offset(), i, packed.size(), record.timestamp(), key,
+                    valueDeserializer.deserialize(record.topic(), event[1])));
+        }
+    }
+
+    private int skip(TopicPartition partition, long offset) {
+        long[] rule = skips.get(partition);
+        if (rule == null) {
+            return 0;
+        }
+        if (offset >= rule[0]) {
+            skips.remove(partition);
+        }
+        return offset == rule[0] ? (int) rule[1] : 0;
+    }
+}
@@ -0,0 +1,27 @@
+package com.helloworld.kafka.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Commit de offsets: en commitSync la llamada completa, en commitAsync hasta el callback
+ */
+@Name(KafkaEvents.PREFIX + "Commit")
+@Label("Kafka commit")
+@Description("Confirmación de offsets en el grupo")
+@Category({"Kafka", "Consumer"})
+@StackTrace(false)
+public class CommitEvent extends jdk.jfr.Event {
+
+    @Label("Asíncrono")
+    public boolean async;
+
+    @Label("Particiones")
+    public int partitions;
+
+    @Label("Error")
+    public String error;
+}
@@ -0,0 +1,97 @@
+package com.helloworld.kafka.jfr;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Resume una grabación JFR en una tabla de latencias por etapa (send, ack, poll, hueco entre
+ * polls, procesamiento, commit y rebalanceo).
+ *
+ * Uso: JfrSummary grabacion.jfr [by-partition]
+ */
+public class JfrSummary {
+
+    private static final List<String> STAGES = List.of("Send", "ProduceAck", "Poll", "PollGap", "ProcessBatch",
+            "Commit", "Rebalance");
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Uso: JfrSummary grabacion.jfr [by-partition]");
+            System.exit(1);
+        }
+        boolean byPartition = args.length > 1 && "by-partition".equals(args[1]);
+
+        Map<String, Stage> stages = new TreeMap<>((a, b) -> {
+            int order = Integer.compare(STAGES.indexOf(stageOf(a)), STAGES.indexOf(stageOf(b)));
+            return order != 0 ? order : a.compareTo(b);
+        });
+        try (RecordingFile recording = new RecordingFile(Path.of(args[0]))) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                String name = event.getEventType().getName();
+                if (!name.startsWith(KafkaEvents.PREFIX)) {
+                    continue;
+                }
+                String key = name.substring(KafkaEvents.PREFIX.length());
+                if (byPartition && event.hasField("topic") && event.getString("topic") != null
+                        && event.hasField("partition")) {
+                    key += " " + event.getString("topic") + "-" + event.getInt("partition");
+                }
+                stages.computeIfAbsent(key, k -> new Stage()).add(event);
+            }
+        }
+
+        if (stages.isEmpty()) {
+            System.out.println("La grabación no tiene eventos " + KafkaEvents.PREFIX + "*");
+            return;
+        }
+        System.out.printf("%-36s %10s %12s %10s %10s %10s %10s %10s %12s %12s%n", "etapa", "eventos", "total ms",
+                "media us", "p50 us", "p90 us", "p99 us", "max us", "registros", "MB");
+        stages.forEach((key, stage) -> stage.print(key));
+    }
+
+    private static String stageOf(String key) {
+        int space = key.indexOf(' ');
+        return space < 0 ? key : key.substring(0, space);
+    }
+
+    private static final class Stage {
+
+        private final List<Long> nanos = new ArrayList<>();
+        private long records;
+        private long bytes;
+
+        void add(RecordedEvent event) {
+            nanos.add(event.getDuration().toNanos());
+            if (event.hasField("records")) {
+                records += event.getInt("records");
+            }
+            if (event.hasField("bytes")) {
+                bytes += event.getLong("bytes");
+            }
+        }
+
+        void print(String key) {
+            long[] sorted = nanos.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            long total = Arrays.stream(sorted).sum();
+            System.out.printf("%-36s %10d %12.1f %10.1f %10.1f %10.1f %10.1f %10.1f %12s %12s%n", key, sorted.length,
+                    total / 1e6, total / 1e3 / sorted.length, percentile(sorted, 50), percentile(sorted, 90),
+                    percentile(sorted, 99), sorted[sorted.length - 1] / 1e3, records > 0 ? Long.toString(records) : "-",
+                    bytes > 0 ? String.format("%.1f", bytes / (1024.0 * 1024)) : "-");
+        }
+
+        private static double percentile(long[] sorted, int percentile) {
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e3;
+        }
+    }
+}
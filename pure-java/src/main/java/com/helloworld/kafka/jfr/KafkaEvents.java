@@ -0,0 +1,22 @@
+package com.helloworld.kafka.jfr;
+
+import jdk.jfr.EventType;
+
+/**
+ * Eventos JFR de los clientes Kafka.
+ *
+ * Los eventos de una sola llamada siguen el patrón habitual de JFR (begin, end y
+ * shouldCommit antes de rellenar campos), que el JIT reduce a casi nada con el evento
+ * desactivado. Los que empiezan en un hilo y terminan en otro (acks, commits asíncronos)
+ * consultan antes {@link EventType#isEnabled()} para no capturar nada si nadie los graba.
+ */
+final class KafkaEvents {
+
+    static final String PREFIX = "com.helloworld.kafka.";
+
+    static final EventType PRODUCE_ACK = EventType.getEventType(ProduceAckEvent.class);
+    static final EventType COMMIT = EventType.getEventType(CommitEvent.class);
+
+    private KafkaEvents() {
+    }
+}
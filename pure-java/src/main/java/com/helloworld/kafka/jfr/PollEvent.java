@@ -0,0 +1,29 @@
+package com.helloworld.kafka.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Llamada a consumer.poll (incluye los callbacks de rebalanceo que se ejecuten dentro)
+ */
+@Name(KafkaEvents.PREFIX + "Poll")
+@Label("Kafka poll")
+@Description("Tiempo dentro de consumer.poll")
+@Category({"Kafka", "Consumer"})
+@StackTrace(false)
+public class PollEvent extends jdk.jfr.Event {
+
+    @Label("Registros")
+    public int records;
+
+    @Label("Particiones")
+    public int partitions;
+
+    @Label("Tamaño serializado")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,22 @@
+package com.helloworld.kafka.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Tiempo entre la vuelta de un poll y la siguiente llamada: lo que cuenta para
+ * max.poll.interval.ms
+ */
+@Name(KafkaEvents.PREFIX + "PollGap")
+@Label("Kafka poll gap")
+@Description("Tiempo fuera de poll entre dos llamadas consecutivas")
+@Category({"Kafka", "Consumer"})
+@StackTrace(false)
+public class PollGapEvent extends jdk.jfr.Event {
+
+    @Label("Registros del poll anterior")
+    public int records;
+}
@@ -0,0 +1,33 @@
+package com.helloworld.kafka.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Procesamiento de los registros de un poll, o de una partición si se procesa por partición
+ */
+@Name(KafkaEvents.PREFIX + "ProcessBatch")
+@Label("Kafka process batch")
+@Description("Procesamiento de un lote de registros")
+@Category({"Kafka", "Consumer"})
+@StackTrace(false)
+public class ProcessBatchEvent extends jdk.jfr.Event {
+
+    @Label("Topic")
+    public String topic;
+
+    @Label("Partición")
+    @Description("-1 si el lote incluye varias particiones")
+    public int partition;
+
+    @Label("Registros")
+    public int records;
+
+    @Label("Tamaño serializado")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,37 @@
+package com.helloworld.kafka.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Desde la llamada a send hasta el callback: espera en el acumulador (linger.ms), envío del
+ * lote y acks del broker. Todos los registros de un mismo lote terminan a la vez, así que los
+ * eventos con el mismo final y partición corresponden a un lote.
+ */
+@Name(KafkaEvents.PREFIX + "ProduceAck")
+@Label("Kafka produce ack")
+@Description("Latencia desde send hasta la confirmación del broker")
+@Category({"Kafka", "Producer"})
+@StackTrace(false)
+public class ProduceAckEvent extends jdk.jfr.Event {
+
+    @Label("Topic")
+    public String topic;
+
+    @Label("Partición")
+    public int partition;
+
+    @Label("Offset")
+    public long offset;
+
+    @Label("Tamaño serializado")
+    @DataAmount
+    public long bytes;
+
+    @Label("Error")
+    public String error;
+}
@@ -0,0 +1,28 @@
+package com.helloworld.kafka.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Ejecución de un callback del ConsumerRebalanceListener
+ */
+@Name(KafkaEvents.PREFIX + "Rebalance")
+@Label("Kafka rebalance")
+@Description("Callback de asignación, revocación o pérdida de particiones")
+@Category({"Kafka", "Consumer"})
+@StackTrace(false)
+public class RebalanceEvent extends jdk.jfr.Event {
+
+    @Label("Fase")
+    @Description("assigned, revoked o lost")
+    public String phase;
+
+    @Label("Particiones")
+    public int partitions;
+
+    @Label("Detalle")
+    public String detail;
+}
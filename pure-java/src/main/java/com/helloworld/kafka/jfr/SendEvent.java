@@ -0,0 +1,27 @@
+package com.helloworld.kafka.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Llamada a producer.send: serialización, partición y espera de metadatos o de hueco en el
+ * buffer (max.block.ms). No incluye el envío al broker; el tamaño se conoce en
+ * {@link ProduceAckEvent}.
+ */
+@Name(KafkaEvents.PREFIX + "Send")
+@Label("Kafka send")
+@Description("Tiempo bloqueado dentro de producer.send")
+@Category({"Kafka", "Producer"})
+@StackTrace(false)
+public class SendEvent extends jdk.jfr.Event {
+
+    @Label("Topic")
+    public String topic;
+
+    @Label("Partición")
+    @Description("-1 si la elige el particionador")
+    public int partition;
+}
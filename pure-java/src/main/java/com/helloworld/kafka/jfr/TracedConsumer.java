@@ -0,0 +1,214 @@
+package com.helloworld.kafka.jfr;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * Envoltorio de KafkaConsumer para el bucle de consumo que emite {@link PollEvent},
+ * {@link PollGapEvent}, {@link ProcessBatchEvent}, {@link CommitEvent} y
+ * {@link RebalanceEvent}.
+ *
+ * Solo cubre las llamadas del camino caliente; para el resto se usa {@link #delegate()}.
+ * Como el propio KafkaConsumer, no es thread-safe.
+ */
+public class TracedConsumer<K, V> implements Closeable {
+
+    private final KafkaConsumer<K, V> delegate;
+    private PollGapEvent gap;
+
+    public TracedConsumer(KafkaConsumer<K, V> delegate) {
+        this.delegate = delegate;
+    }
+
+    public KafkaConsumer<K, V> delegate() {
+        return delegate;
+    }
+
+    public void subscribe(Collection<String> topics, ConsumerRebalanceListener listener) {
+        delegate.subscribe(topics, new TracedListener(listener));
+    }
+
+    public ConsumerRecords<K, V> poll(Duration timeout) {
+        if (gap != null) {
+            gap.end();
+            if (gap.shouldCommit()) {
+                gap.commit();
+            }
+            gap = null;
+        }
+
+        PollEvent event = new PollEvent();
+        event.begin();
+        ConsumerRecords<K, V> records = delegate.poll(timeout);
+        event.end();
+        if (event.shouldCommit()) {
+            event.records = records.count();
+            event.partitions = records.partitions().size();
+            event.bytes = bytes(records);
+            event.commit();
+        }
+
+        PollGapEvent next = new PollGapEvent();
+        if (next.isEnabled()) {
+            next.records = records.count();
+            next.begin();
+            gap = next;
+        }
+        return records;
+    }
+
+    /**
+     * Ejecuta el procesamiento del lote dentro de un {@link ProcessBatchEvent}
+     */
+    public void process(ConsumerRecords<K, V> records, Consumer<ConsumerRecords<K, V>> processor) {
+        ProcessBatchEvent event = new ProcessBatchEvent();
+        event.begin();
+        try {
+            processor.accept(records);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                if (records.partitions().size() == 1) {
+                    TopicPartition partition = records.partitions().iterator().next();
+                    event.topic = partition.topic();
+                    event.partition = partition.partition();
+                } else {
+                    event.partition = -1;
+                }
+                event.records = records.count();
+                event.bytes = bytes(records);
+                event.commit();
+            }
+        }
+    }
+
+    public void commitSync() {
+        CommitEvent event = new CommitEvent();
+        event.begin();
+        try {
+            delegate.commitSync();
+        } catch (RuntimeException e) {
+            event.error = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.partitions = delegate.assignment().size();
+                event.commit();
+            }
+        }
+    }
+
+    public void commitSync(Map<TopicPartition, OffsetAndMetadata> offsets) {
+        CommitEvent event = new CommitEvent();
+        event.begin();
+        try {
+            delegate.commitSync(offsets);
+        } catch (RuntimeException e) {
+            event.error = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.partitions = offsets.size();
+                event.commit();
+            }
+        }
+    }
+
+    public void commitAsync(OffsetCommitCallback callback) {
+        delegate.commitAsync(traced(callback));
+    }
+
+    public void commitAsync(Map<TopicPartition, OffsetAndMetadata> offsets, OffsetCommitCallback callback) {
+        delegate.commitAsync(offsets, traced(callback));
+    }
+
+    public void wakeup() {
+        delegate.wakeup();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private OffsetCommitCallback traced(OffsetCommitCallback callback) {
+        if (!KafkaEvents.COMMIT.isEnabled()) {
+            return callback;
+        }
+        CommitEvent event = new CommitEvent();
+        event.begin();
+        return (offsets, exception) -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.async = true;
+                event.partitions = offsets == null ? 0 : offsets.size();
+                event.error = exception == null ? null : exception.getClass().getSimpleName();
+                event.commit();
+            }
+            if (callback != null) {
+                callback.onComplete(offsets, exception);
+            }
+        };
+    }
+
+    private static long bytes(ConsumerRecords<?, ?> records) {
+        long bytes = 0;
+        for (ConsumerRecord<?, ?> record : records) {
+            bytes += Math.max(0, record.serializedKeySize()) + Math.max(0, record.serializedValueSize());
+        }
+        return bytes;
+    }
+
+    private static final class TracedListener implements ConsumerRebalanceListener {
+
+        private final ConsumerRebalanceListener listener;
+
+        TracedListener(ConsumerRebalanceListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+            traced("revoked", partitions, () -> listener.onPartitionsRevoked(partitions));
+        }
+
+        @Override
+        public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+            traced("assigned", partitions, () -> listener.onPartitionsAssigned(partitions));
+        }
+
+        @Override
+        public void onPartitionsLost(Collection<TopicPartition> partitions) {
+            traced("lost", partitions, () -> listener.onPartitionsLost(partitions));
+        }
+
+        private static void traced(String phase, Collection<TopicPartition> partitions, Runnable callback) {
+            RebalanceEvent event = new RebalanceEvent();
+            event.begin();
+            try {
+                callback.run();
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.phase = phase;
+                    event.partitions = partitions.size();
+                    event.detail = partitions.toString();
+                    event.commit();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.helloworld.kafka.jfr;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.ProducerFencedException;
+
+/**
+ * Productor que emite {@link SendEvent} y {@link ProduceAckEvent}; el resto de llamadas se
+ * delegan sin cambios. Sustituye a cualquier Producer:
+ * {@code new TracedProducer<>(new KafkaProducer<>(props))}.
+ */
+public class TracedProducer<K, V> implements Producer<K, V> {
+
+    private final Producer<K, V> delegate;
+
+    public TracedProducer(Producer<K, V> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Future<RecordMetadata> send(ProducerRecord<K, V> record) {
+        return send(record, null);
+    }
+
+    @Override
+    public Future<RecordMetadata> send(ProducerRecord<K, V> record, Callback callback) {
+        Callback traced = callback;
+        if (KafkaEvents.PRODUCE_ACK.isEnabled()) {
+            ProduceAckEvent ack = new ProduceAckEvent();
+            ack.begin();
+            traced = (metadata, exception) -> {
+                ack.end();
+                if (ack.shouldCommit()) {
+                    ack.topic = record.topic();
+                    if (metadata != null) {
+                        ack.partition = metadata.partition();
+                        ack.offset = metadata.offset();
+                        ack.bytes = Math.max(0, metadata.serializedKeySize()) + Math.max(0, metadata.serializedValueSize());
+                    }
+                    ack.error = exception == null ? null : exception.getClass().getSimpleName();
+                    ack.commit();
+                }
+                if (callback != null) {
+                    callback.onCompletion(metadata, exception);
+                }
+            };
+        }
+
+        SendEvent event = new SendEvent();
+        event.begin();
+        try {
+            return delegate.send(record, traced);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.topic = record.topic();
+                event.partition = record.partition() == null ? -1 : record.partition();
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public void initTransactions() {
+        delegate.initTransactions();
+    }
+
+    @Override
+    public void beginTransaction() throws ProducerFencedException {
+        delegate.beginTransaction();
+    }
+
+    @Override
+    @Deprecated
+    public void sendOffsetsToTransaction(Map<TopicPartition, OffsetAndMetadata> offsets, String consumerGroupId)
+            throws ProducerFencedException {
+        delegate.sendOffsetsToTransaction(offsets, consumerGroupId);
+    }
+
+    @Override
+    public void sendOffsetsToTransaction(Map<TopicPartition, OffsetAndMetadata> offsets,
+            ConsumerGroupMetadata groupMetadata) throws ProducerFencedException {
+        delegate.sendOffsetsToTransaction(offsets, groupMetadata);
+    }
+
+    @Override
+    public void commitTransaction() throws ProducerFencedException {
+        delegate.commitTransaction();
+    }
+
+    @Override
+    public void abortTransaction() throws ProducerFencedException {
+        delegate.abortTransaction();
+    }
+
+    @Override
+    public void flush() {
+        delegate.flush();
+    }
+
+    @Override
+    public List<PartitionInfo> partitionsFor(String topic) {
+        return delegate.partitionsFor(topic);
+    }
+
+    @Override
+    public Map<MetricName, ? extends Metric> metrics() {
+        return delegate.metrics();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    @Override
+    public void close(Duration timeout) {
+        delegate.close(timeout);
+    }
+}
@@ -10,6 +10,8 @@ import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.serialization.StringSerializer;
 
+import com.helloworld.kafka.jfr.TracedProducer;
+
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -32,7 +34,8 @@ public class AsyncProducerBatches {
 
         String[] users = {"eabara", "jsmith", "sgarcia", "jbernard", "htanaka", "awalther"};
         String[] items = {"book", "alarm clock", "t-shirts", "gift card", "batteries"};
-        final Producer<String, String> producer = new KafkaProducer<>(props);
+        // Con JFR activo se graba cada send y su ack (ver jfr/kafka-clients.jfc)
+        final Producer<String, String> producer = new TracedProducer<>(new KafkaProducer<>(props));
             
         final Random rnd = new Random();
         final Long numMessages = 10L;
@@ -0,0 +1,149 @@
+package com.helloworld.kafka.producers;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helloworld.kafka.testdocker.Config;
+
+/**
+ * Compara tres formas de producir con confirmación: síncrono por registro (como SyncProducer),
+ * síncrono por lotes de varios tamaños ({@link SyncBatchProducer}) y asíncrono con un flush
+ * al final. Para cada una da registros/s y la latencia p50/p99 de cada espera (un registro o
+ * un lote); en el modo asíncrono, la de cada registro desde send hasta su confirmación.
+ *
+ * Uso: SyncBatchBenchmark [fichero config] [registros por prueba]
+ */
+public class SyncBatchBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final String TOPIC = "sync-batch-benchmark";
+    private static final int PARTITIONS = 6;
+    private static final int[] BATCH_SIZES = {10, 100, 1_000};
+    private static final Duration BATCH_TIMEOUT = Duration.ofSeconds(30);
+
+    public static void main(String[] args) throws Exception {
+        String configFile = args.length > 0 ? args[0] : "./config/default.properties";
+        int records = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        Properties config = Config.loadConfig(configFile);
+        createTopic(config);
+        String payload = "x".repeat(100);
+
+        StringBuilder table = new StringBuilder(String.format("%-16s %12s %12s %12s %8s%n", "modo", "reg/s",
+                "p50 ms", "p99 ms", "fallos"));
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(producerProperties(config))) {
+            // Calentamiento: metadatos y conexiones
+            runBatches(producer, payload, 100, 1_000);
+
+            table.append(runPerRecord(producer, payload, records));
+            for (int batchSize : BATCH_SIZES) {
+                table.append(runBatches(producer, payload, batchSize, records));
+            }
+            table.append(runAsync(producer, payload, records));
+        }
+        log.info("Resultados con {} registros por prueba:\n{}", records, table);
+    }
+
+    private static String runPerRecord(KafkaProducer<String, String> producer, String payload, int records)
+            throws InterruptedException {
+        long[] waits = new long[records];
+        int failures = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < records; i++) {
+            long begin = System.nanoTime();
+            try {
+                producer.send(new ProducerRecord<>(TOPIC, Integer.toString(i), payload)).get();
+            } catch (ExecutionException e) {
+                failures++;
+            }
+            waits[i] = System.nanoTime() - begin;
+        }
+        return row("sync registro", records, System.nanoTime() - start, waits, failures);
+    }
+
+    private static String runBatches(KafkaProducer<String, String> producer, String payload, int batchSize,
+            int records) throws InterruptedException {
+        SyncBatchProducer<String, String> batches = new SyncBatchProducer<>(producer, BATCH_TIMEOUT);
+        long[] waits = new long[(records + batchSize - 1) / batchSize];
+        int failures = 0;
+        long start = System.nanoTime();
+        for (int sent = 0, n = 0; sent < records; n++) {
+            List<ProducerRecord<String, String>> batch = new ArrayList<>(batchSize);
+            for (int i = 0; i < batchSize && sent < records; i++, sent++) {
+                batch.add(new ProducerRecord<>(TOPIC, Integer.toString(sent), payload));
+            }
+            long begin = System.nanoTime();
+            failures += batches.sendBatch(batch).failedCount();
+            waits[n] = System.nanoTime() - begin;
+        }
+        return row("sync lote " + batchSize, records, System.nanoTime() - start, waits, failures);
+    }
+
+    private static String runAsync(KafkaProducer<String, String> producer, String payload, int records) {
+        long[] acks = new long[records];
+        AtomicLong failures = new AtomicLong();
+        long start = System.nanoTime();
+        for (int i = 0; i < records; i++) {
+            int index = i;
+            long begin = System.nanoTime();
+            producer.send(new ProducerRecord<>(TOPIC, Integer.toString(i), payload), (metadata, exception) -> {
+                acks[index] = System.nanoTime() - begin;
+                if (exception != null) {
+                    failures.incrementAndGet();
+                }
+            });
+        }
+        // flush no vuelve hasta que se han ejecutado todos los callbacks
+        producer.flush();
+        return row("async + flush", records, System.nanoTime() - start, acks, (int) failures.get());
+    }
+
+    private static String row(String mode, int records, long elapsedNanos, long[] waits, int failures) {
+        Arrays.sort(waits);
+        double p50 = waits[waits.length / 2] / 1e6;
+        double p99 = waits[Math.min(waits.length - 1, (int) (waits.length * 0.99))] / 1e6;
+        double perSecond = records / (elapsedNanos / 1e9);
+        log.info("{}: {} reg/s, p50 {} ms, p99 {} ms", mode, String.format("%.0f", perSecond),
+                String.format("%.2f", p50), String.format("%.2f", p99));
+        return String.format("%-16s %12.0f %12.2f %12.2f %8d%n", mode, perSecond, p50, p99, failures);
+    }
+
+    private static Properties producerProperties(Properties config) {
+        Properties props = new Properties();
+        props.putAll(config);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        // Orden por partición dentro de cada lote aunque haya reintentos
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 1);
+        return props;
+    }
+
+    private static void createTopic(Properties config) throws InterruptedException, ExecutionException {
+        try (Admin admin = Admin.create(config)) {
+            admin.createTopics(List.of(new NewTopic(TOPIC, PARTITIONS, (short) 1))).all().get();
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof TopicExistsException)) {
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.helloworld.kafka.producers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.errors.TimeoutException;
+
+/**
+ * Envío síncrono por lotes: manda todos los registros del lote sin esperar y bloquea una sola
+ * vez hasta que el broker los confirma. Con SyncProducer cada registro espera su propio viaje
+ * de ida y vuelta; aquí el lote entero cuesta aproximadamente uno.
+ *
+ * Garantías:
+ * - El resultado de cada registro (metadatos o excepción) se devuelve en el orden del lote.
+ * - Los registros de una misma partición se escriben en el orden del lote solo si el
+ *   productor tiene enable.idempotence=true o max.in.flight.requests.per.connection=1; si no,
+ *   un reintento interno puede adelantar un registro posterior.
+ * - El lote no es atómico: unos registros pueden confirmarse y otros fallar. Si hace falta
+ *   todo o nada, hay que usar transacciones.
+ * - Un registro sin confirmar al vencer el plazo se marca con TimeoutException, pero puede
+ *   acabar escribiéndose después (el productor sigue reintentando hasta delivery.timeout.ms).
+ *
+ * No se llama a flush: con linger.ms alto el último lote de red espera ese tiempo, pero los
+ * envíos de otros hilos que comparten el productor no se ven afectados.
+ */
+public class SyncBatchProducer<K, V> {
+
+    private final Producer<K, V> producer;
+    private final Duration timeout;
+
+    public SyncBatchProducer(Producer<K, V> producer, Duration timeout) {
+        this.producer = producer;
+        this.timeout = timeout;
+    }
+
+    public BatchResult sendBatch(List<ProducerRecord<K, V>> records) throws InterruptedException {
+        int size = records.size();
+        AtomicReferenceArray<RecordMetadata> metadata = new AtomicReferenceArray<>(size);
+        AtomicReferenceArray<Exception> errors = new AtomicReferenceArray<>(size);
+        CountDownLatch pending = new CountDownLatch(size);
+        for (int i = 0; i < size; i++) {
+            int index = i;
+            try {
+                producer.send(records.get(i), (recordMetadata, exception) -> {
+                    if (exception != null) {
+                        errors.set(index, exception);
+                    } else {
+                        metadata.set(index, recordMetadata);
+                    }
+                    pending.countDown();
+                });
+            } catch (RuntimeException e) {
+                // Serialización, tamaño máximo o buffer lleno más allá de max.block.ms
+                errors.set(index, e);
+                pending.countDown();
+            }
+        }
+        if (!pending.await(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            for (int i = 0; i < size; i++) {
+                errors.compareAndSet(i, null, new TimeoutException("Sin confirmar tras " + timeout.toMillis() + " ms"));
+            }
+        }
+
+        List<RecordMetadata> results = new ArrayList<>(size);
+        List<Exception> failures = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // Una confirmación que llega justo después del plazo gana al TimeoutException
+            RecordMetadata recordMetadata = metadata.get(i);
+            results.add(recordMetadata);
+            failures.add(recordMetadata == null ? errors.get(i) : null);
+        }
+        return new BatchResult(results, failures);
+    }
+
+    /**
+     * Resultado de un lote; la posición i corresponde al registro i del lote
+     */
+    public static class BatchResult {
+
+        private final List<RecordMetadata> metadata;
+        private final List<Exception> errors;
+        private final int failed;
+
+        BatchResult(List<RecordMetadata> metadata, List<Exception> errors) {
+            this.metadata = Collections.unmodifiableList(metadata);
+            this.errors = Collections.unmodifiableList(errors);
+            this.failed = (int) errors.stream().filter(e -> e != null).count();
+        }
+
+        public boolean allSucceeded() {
+            return failed == 0;
+        }
+
+        public int size() {
+            return metadata.size();
+        }
+
+        public int failedCount() {
+            return failed;
+        }
+
+        public boolean succeeded(int index) {
+            return metadata.get(index) != null;
+        }
+
+        /**
+         * Metadatos del registro confirmado, o null si falló
+         */
+        public RecordMetadata metadata(int index) {
+            return metadata.get(index);
+        }
+
+        /**
+         * Error del registro, o null si se confirmó
+         */
+        public Exception error(int index) {
+            return errors.get(index);
+        }
+
+        /**
+         * Registros fallidos para reenviarlos, en el orden del lote
+         */
+        public <K, V> List<ProducerRecord<K, V>> failedRecords(List<ProducerRecord<K, V>> records) {
+            List<ProducerRecord<K, V>> retry = new ArrayList<>(failed);
+            for (int i = 0; i < records.size(); i++) {
+                if (errors.get(i) != null) {
+                    retry.add(records.get(i));
+                }
+            }
+            return retry;
+        }
+    }
+}
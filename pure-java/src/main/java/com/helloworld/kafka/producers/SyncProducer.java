@@ -1,5 +1,8 @@
 package com.helloworld.kafka.producers;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -32,6 +35,15 @@ public class SyncProducer {
         } catch (InterruptedException | ExecutionException e) {
             System.err.println("Error al enviar el mensaje: " + e.getMessage());
         }
+
+        // Enviar un lote: una sola espera para todos los registros (ver SyncBatchProducer)
+        List<ProducerRecord<String, String>> batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            batch.add(new ProducerRecord<>(topic, key, "Write sync batch message " + i));
+        }
+        SyncBatchProducer.BatchResult result = new SyncBatchProducer<>(producer, Duration.ofSeconds(30))
+                .sendBatch(batch);
+        System.out.printf("Lote enviado: %d registros, %d fallidos%n", result.size(), result.failedCount());
         // Cerrar el productor
         producer.close();
     }
@@ -28,5 +28,13 @@ public class Config {
         return cfg;
     }
 
+    /**
+     * Carga el fichero y lo vigila: los cambios se notifican a los suscriptores del
+     * {@link WatchedConfig} (por ejemplo {@link ReloadableProducer} o {@link ReloadableConsumer})
+     */
+    public static WatchedConfig watchConfig(final String configFile) throws IOException {
+        return new WatchedConfig(configFile);
+    }
+
 
 }
@@ -0,0 +1,24 @@
+package com.helloworld.kafka.testdocker;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registro de auditoría de los cambios de configuración aplicados en caliente.
+ * Usa el logger "config-audit" para poder enviarlo a un appender propio.
+ */
+public final class ConfigAudit {
+
+    private static final Logger audit = LoggerFactory.getLogger("config-audit");
+
+    private ConfigAudit() {
+    }
+
+    public static void record(String component, ConfigChange change, String action) {
+        for (String key : change.changedKeys()) {
+            audit.info("component={} key={} old={} new={} action={}", component, key,
+                    change.previous().getProperty(key), change.current().getProperty(key),
+                    change.requiresRestart(key) ? "REQUIRES_RESTART" : action);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.helloworld.kafka.testdocker;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+/**
+ * Diferencia entre dos versiones del fichero de configuración
+ */
+public class ConfigChange {
+
+    /**
+     * Claves que identifican al miembro del grupo: cambiarlas en caliente provocaría
+     * justo el rebalanceo que se quiere evitar, así que requieren reinicio
+     */
+    private static final Set<String> RESTART_ONLY_KEYS = Set.of(
+            ConsumerConfig.GROUP_ID_CONFIG, ConsumerConfig.GROUP_INSTANCE_ID_CONFIG);
+
+    private final Properties previous;
+    private final Properties current;
+    private final Set<String> changedKeys;
+
+    ConfigChange(Properties previous, Properties current) {
+        this.previous = previous;
+        this.current = current;
+        Set<String> keys = new HashSet<>(previous.stringPropertyNames());
+        keys.addAll(current.stringPropertyNames());
+        keys.removeIf(key -> equalsNullable(previous.getProperty(key), current.getProperty(key)));
+        this.changedKeys = Collections.unmodifiableSet(keys);
+    }
+
+    public Properties previous() {
+        return previous;
+    }
+
+    public Properties current() {
+        return current;
+    }
+
+    public Set<String> changedKeys() {
+        return changedKeys;
+    }
+
+    public boolean isEmpty() {
+        return changedKeys.isEmpty();
+    }
+
+    public boolean affectsProducer() {
+        return changedKeys.stream().anyMatch(ProducerConfig.configNames()::contains);
+    }
+
+    public boolean affectsConsumer() {
+        return changedKeys.stream().anyMatch(key -> ConsumerConfig.configNames().contains(key)
+                && !RESTART_ONLY_KEYS.contains(key));
+    }
+
+    public boolean requiresRestart(String key) {
+        return RESTART_ONLY_KEYS.contains(key);
+    }
+
+    private static boolean equalsNullable(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,142 @@
+package com.helloworld.kafka.testdocker;
+
+import java.io.Closeable;
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Function;
+
+import org.apache.kafka.clients.consumer.CommitFailedException;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.errors.RebalanceInProgressException;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bucle de consumo que recrea el consumidor cuando cambia su configuración
+ * (max.poll.records, fetch.min.bytes...).
+ *
+ * Requiere group.instance.id (membresía estática): al cerrar un miembro estático no se envía
+ * LeaveGroup y el nuevo consumidor vuelve a unirse con el mismo identificador antes de que
+ * expire session.timeout.ms, así que el coordinador no rebalancea el grupo.
+ *
+ * El consumidor nuevo se construye antes de cerrar el anterior: si la configuración recargada
+ * no es válida (deserializador inexistente, bootstrap sin resolver...) se descarta y se sigue
+ * con el consumidor y la configuración que había.
+ */
+public class ReloadableConsumer<K, V> implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private final Properties overrides;
+    private final Collection<String> topics;
+    private final Function<Properties, Consumer<K, V>> consumerFactory;
+
+    private volatile Consumer<K, V> consumer;
+    private volatile ConfigChange pendingChange;
+    private volatile boolean closed;
+
+    /**
+     * @param overrides propiedades fijas que se aplican sobre cada versión del fichero
+     *                  (group.id, group.instance.id...)
+     */
+    public ReloadableConsumer(WatchedConfig config, Properties overrides, Collection<String> topics) {
+        this(config, overrides, topics, KafkaConsumer::new);
+    }
+
+    public ReloadableConsumer(WatchedConfig config, Properties overrides, Collection<String> topics,
+            Function<Properties, Consumer<K, V>> consumerFactory) {
+        this.overrides = overrides;
+        this.topics = List.copyOf(topics);
+        this.consumerFactory = consumerFactory;
+        Properties props = withOverrides(config.current());
+        if (props.getProperty(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG) == null) {
+            throw new IllegalArgumentException(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG
+                    + " es obligatorio para recrear el consumidor sin rebalancear el grupo");
+        }
+        this.consumer = create(props);
+        config.addListener(this::onChange);
+    }
+
+    /**
+     * Ejecuta el bucle de poll en el hilo actual hasta llamar a {@link #close()}
+     */
+    public void run(java.util.function.Consumer<ConsumerRecords<K, V>> handler) {
+        try {
+            while (!closed) {
+                try {
+                    ConsumerRecords<K, V> records = consumer.poll(Duration.ofMillis(100));
+                    handler.accept(records);
+                } catch (WakeupException e) {
+                    ConfigChange change = pendingChange;
+                    if (change != null && !closed) {
+                        pendingChange = null;
+                        recreate(change);
+                    }
+                }
+            }
+        } finally {
+            consumer.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        consumer.wakeup();
+    }
+
+    private void onChange(ConfigChange change) {
+        if (!change.affectsConsumer()) {
+            return;
+        }
+        // El consumidor no es thread-safe: el bucle de poll lo recrea en su propio hilo
+        pendingChange = change;
+        consumer.wakeup();
+    }
+
+    private void recreate(ConfigChange change) {
+        Properties props = withOverrides(change.current());
+        Consumer<K, V> replacement;
+        try {
+            // El constructor valida la configuración; aún no se suscribe ni se une al grupo
+            replacement = consumerFactory.apply(props);
+        } catch (RuntimeException e) {
+            log.error("Configuración de consumidor no válida, se mantiene el consumidor actual: {}", e.toString());
+            ConfigAudit.record("consumer", change, "CONSUMER_RECREATE_REJECTED");
+            return;
+        }
+        try {
+            // Los registros ya entregados al handler están procesados: confirmamos antes de cerrar
+            consumer.commitSync();
+        } catch (CommitFailedException | RebalanceInProgressException e) {
+            // Sin commit, el consumidor nuevo vuelve a recibir esos registros (al menos una vez)
+            log.warn("No se pudo confirmar antes de recrear el consumidor: {}", e.toString());
+        }
+        consumer.close();
+        replacement.subscribe(topics);
+        consumer = replacement;
+        log.info("Consumidor recreado con membresía estática {}",
+                props.getProperty(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG));
+        ConfigAudit.record("consumer", change, "CONSUMER_RECREATE");
+    }
+
+    private Properties withOverrides(Properties fileConfig) {
+        Properties props = new Properties();
+        props.putAll(fileConfig);
+        props.putAll(overrides);
+        return props;
+    }
+
+    private Consumer<K, V> create(Properties props) {
+        Consumer<K, V> created = consumerFactory.apply(props);
+        created.subscribe(topics);
+        return created;
+    }
+}
@@ -0,0 +1,101 @@
+package com.helloworld.kafka.testdocker;
+
+import java.io.Closeable;
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fachada estable sobre un productor que se sustituye cuando cambia su configuración.
+ *
+ * Al detectar cambios en claves de productor (linger.ms, batch.size, acks...) se crea un
+ * productor nuevo y se intercambia bajo el cerrojo de escritura, que solo se retiene lo que
+ * dura el cambio de referencia. El anterior se drena (flush) y se cierra fuera del cerrojo,
+ * así que los envíos no esperan a delivery.timeout.ms. A cambio, durante el drenaje un
+ * registro nuevo puede escribirse antes que otro de la misma partición que seguía en vuelo en
+ * el productor anterior: el orden por partición no se garantiza justo en la sustitución.
+ */
+public class ReloadableProducer<K, V> implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Function<Properties, Producer<K, V>> producerFactory;
+    private Producer<K, V> delegate;
+
+    public ReloadableProducer(WatchedConfig config) {
+        this(config, KafkaProducer::new);
+    }
+
+    public ReloadableProducer(WatchedConfig config, Function<Properties, Producer<K, V>> producerFactory) {
+        this.producerFactory = producerFactory;
+        this.delegate = producerFactory.apply(config.current());
+        config.addListener(this::onChange);
+    }
+
+    public Future<RecordMetadata> send(ProducerRecord<K, V> producerRecord) {
+        return send(producerRecord, null);
+    }
+
+    public Future<RecordMetadata> send(ProducerRecord<K, V> producerRecord, Callback callback) {
+        lock.readLock().lock();
+        try {
+            return delegate.send(producerRecord, callback);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void flush() {
+        lock.readLock().lock();
+        try {
+            delegate.flush();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            delegate.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void onChange(ConfigChange change) {
+        if (!change.affectsProducer()) {
+            return;
+        }
+        Producer<K, V> replacement = producerFactory.apply(change.current());
+        Producer<K, V> previous;
+        lock.writeLock().lock();
+        try {
+            previous = delegate;
+            delegate = replacement;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Ningún envío nuevo llega ya al anterior: se drena y se cierra sin bloquear a nadie
+        previous.flush();
+        previous.close(DRAIN_TIMEOUT);
+        log.info("Productor sustituido por cambios de configuración");
+        ConfigAudit.record("producer", change, "PRODUCER_SWAP");
+    }
+}
@@ -3,7 +3,7 @@ package com.helloworld.kafka.testdocker;
 import org.apache.kafka.clients.consumer.*;
 
 import java.lang.invoke.MethodHandles;
-import java.time.Duration;
+import java.net.InetAddress;
 import java.util.Arrays;
 import java.util.Properties;
 
@@ -26,24 +26,30 @@ public class TestConsumer {
             log.info("Customized config file "+configFile);
         }
 
-        final Properties props = Config.loadConfig(configFile);
+        // La configuración se vigila: los cambios en el fichero se aplican sin reiniciar
+        final WatchedConfig config = Config.watchConfig(configFile);
 
         // Define grupo y offset
-        props.put(ConsumerConfig.GROUP_ID_CONFIG, "kafka-java-getting-started");
-        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-
-        try (final Consumer<String, String> consumer = new KafkaConsumer<>(props)) {
-            consumer.subscribe(Arrays.asList(topic));
-            while (true) {
-                ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(100));
+        final Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.GROUP_ID_CONFIG, "kafka-java-getting-started");
+        overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        // Membresía estática: recrear el consumidor no provoca un rebalanceo del grupo
+        overrides.put(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG,
+                "test-consumer-" + InetAddress.getLocalHost().getHostName());
+        // Asignación cooperativa: si otro miembro entra o sale, solo se mueven sus particiones
+        overrides.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, CooperativeStickyAssignor.class.getName());
+
+        try (final ReloadableConsumer<String, String> consumer =
+                new ReloadableConsumer<>(config, overrides, Arrays.asList(topic))) {
+            consumer.run(records -> {
                 for (ConsumerRecord<String, String> record : records) {
                     String key = record.key();
                     String value = record.value();
                     System.out.println(
                             String.format("Consumed event from topic %s: key = %-10s value = %s", topic, key, value));
                 }
-            }
+            });
         }
     }
 
-}
\ No newline at end of file
+}
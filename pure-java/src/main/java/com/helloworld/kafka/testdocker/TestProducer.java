@@ -24,7 +24,7 @@ public class TestProducer {
         }
         
         final Properties props = Config.loadConfig(configFile);
-        final String topic = "test-topic";
+        final String topic = "purchases";
 
         String[] users = {"eabara", "jsmith", "sgarcia", "jbernard", "htanaka", "awalther"};
         String[] items = {"book", "alarm clock", "t-shirts", "gift card", "batteries"};
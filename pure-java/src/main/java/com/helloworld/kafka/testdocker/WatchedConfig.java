@@ -0,0 +1,113 @@
+package com.helloworld.kafka.testdocker;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fichero de configuración vigilado con WatchService.
+ * Cada vez que el fichero cambia se vuelve a cargar y, si hay claves distintas,
+ * se notifica a los suscriptores con un {@link ConfigChange}.
+ */
+public class WatchedConfig implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    // Los editores suelen generar varios eventos por guardado; esperamos a que el fichero se asiente
+    private static final long SETTLE_MS = 200;
+
+    private final Path file;
+    private final WatchService watchService;
+    private final List<Consumer<ConfigChange>> listeners = new CopyOnWriteArrayList<>();
+    private final Thread watcher;
+    private volatile Properties current;
+
+    WatchedConfig(String configFile) throws IOException {
+        this.file = Paths.get(configFile).toAbsolutePath();
+        this.current = Config.loadConfig(configFile);
+        this.watchService = FileSystems.getDefault().newWatchService();
+        file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+        this.watcher = new Thread(this::watch, "config-watcher");
+        this.watcher.setDaemon(true);
+        this.watcher.start();
+    }
+
+    /**
+     * Copia de la configuración vigente
+     */
+    public Properties current() {
+        Properties copy = new Properties();
+        copy.putAll(current);
+        return copy;
+    }
+
+    public void addListener(Consumer<ConfigChange> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Object context = event.context();
+                    if (context instanceof Path && file.getFileName().equals(context)) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    Thread.sleep(SETTLE_MS);
+                    reload();
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Fin de la vigilancia
+        }
+    }
+
+    private void reload() {
+        Properties reloaded;
+        try {
+            reloaded = Config.loadConfig(file.toString());
+        } catch (IOException e) {
+            log.warn("No se pudo recargar {}: {}", file, e.getMessage());
+            return;
+        }
+        ConfigChange change = new ConfigChange(current, reloaded);
+        if (change.isEmpty()) {
+            return;
+        }
+        current = reloaded;
+        log.info("Cambios en {}: {}", file, change.changedKeys());
+        for (Consumer<ConfigChange> listener : listeners) {
+            try {
+                listener.accept(change);
+            } catch (RuntimeException e) {
+                log.error("Error aplicando cambios de configuración", e);
+            }
+        }
+    }
+}
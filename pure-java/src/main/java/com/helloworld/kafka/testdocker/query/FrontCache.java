@@ -0,0 +1,74 @@
+package com.helloworld.kafka.testdocker.query;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché de lectura delante del estado agregado.
+ *
+ * Las entradas se invalidan cuando el changelog trae un nuevo total del usuario.
+ * Como un lector puede cachear un total leído justo antes de que llegue su invalidación,
+ * cada entrada tiene además un TTL que acota ese desfase. El tamaño es aproximado: al
+ * superar el máximo se desalojan entradas arbitrarias.
+ */
+public class FrontCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    public FrontCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis * 1_000_000;
+    }
+
+    /**
+     * Total cacheado y vigente, o null
+     */
+    public Long get(String user) {
+        Entry entry = entries.get(user);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.cachedAt > ttlNanos) {
+            entries.remove(user, entry);
+            return null;
+        }
+        return entry.total;
+    }
+
+    public void put(String user, long total) {
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        entries.put(user, new Entry(total, System.nanoTime()));
+    }
+
+    public void invalidate(String user) {
+        entries.remove(user);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        // Desalojo aproximado de ~1/16 de las entradas para amortizar el coste
+        int toEvict = Math.max(1, maxEntries / 16);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (toEvict-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static final class Entry {
+        private final long total;
+        private final long cachedAt;
+
+        private Entry(long total, long cachedAt) {
+            this.total = total;
+            this.cachedAt = cachedAt;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.helloworld.kafka.testdocker.query;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * {@link RemoteQuery} sobre HTTP contra el {@link QueryServer} de la instancia propietaria.
+ * El endpoint es el "host:puerto" que cada instancia publica en su client.id.
+ */
+public class HttpRemoteQuery implements RemoteQuery {
+
+    private final HttpClient client;
+    private final Duration timeout;
+
+    public HttpRemoteQuery(Duration timeout) {
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Long totalFor(String endpoint, String user) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://" + endpoint + QueryServer.PATH
+                + URLEncoder.encode(user, StandardCharsets.UTF_8))).timeout(timeout).GET().build();
+        HttpResponse<String> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo consultar a la instancia " + endpoint + ": " + e, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta a la instancia " + endpoint + " interrumpida", e);
+        }
+        switch (response.statusCode()) {
+            case 200:
+                return Long.parseLong(response.body());
+            case 404:
+                return null;
+            case QueryServer.RESTORING:
+                throw new IllegalStateException("La instancia " + endpoint
+                        + " está restaurando la partición del usuario " + user);
+            case QueryServer.MISDIRECTED:
+                throw new IllegalStateException("La instancia " + endpoint + " ya no tiene la partición del usuario "
+                        + user + "; el enrutado se actualizará en el próximo rebalanceo");
+            default:
+                throw new IllegalStateException("La instancia " + endpoint + " respondió " + response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.helloworld.kafka.testdocker.query;
+
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.ConsumerGroupDescription;
+import org.apache.kafka.clients.admin.MemberDescription;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Metadatos de enrutado para despliegues con varias instancias del agregador.
+ *
+ * La partición de un usuario se calcula igual que el particionador por defecto del productor
+ * (murmur2 de la clave), y el propietario de cada partición se obtiene de la asignación del
+ * grupo. Cada instancia publica su endpoint de consulta en el client.id con el formato
+ * "&lt;prefijo&gt;@host:puerto".
+ */
+public class PartitionRouting {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    public static final char ENDPOINT_SEPARATOR = '@';
+
+    private final String topic;
+    private final int numPartitions;
+    private final String localEndpoint;
+    private volatile Map<Integer, String> owners = Map.of();
+
+    public PartitionRouting(String topic, int numPartitions, String localEndpoint) {
+        this.topic = topic;
+        this.numPartitions = numPartitions;
+        this.localEndpoint = localEndpoint;
+    }
+
+    public int partitionFor(String user) {
+        return partitionFor(user, numPartitions);
+    }
+
+    public static int partitionFor(String user, int numPartitions) {
+        return Utils.toPositive(Utils.murmur2(user.getBytes(StandardCharsets.UTF_8))) % numPartitions;
+    }
+
+    /**
+     * Endpoint de la instancia propietaria, o null si la partición no está asignada
+     */
+    public String ownerOf(String user) {
+        return owners.get(partitionFor(user));
+    }
+
+    public boolean isLocal(String user) {
+        return localEndpoint.equals(ownerOf(user));
+    }
+
+    public String getLocalEndpoint() {
+        return localEndpoint;
+    }
+
+    public static String clientId(String prefix, String endpoint) {
+        return prefix + ENDPOINT_SEPARATOR + endpoint;
+    }
+
+    /**
+     * Vuelve a leer la asignación del grupo para conocer las particiones de las demás
+     * instancias. El agregador la llama tras cada rebalanceo.
+     */
+    public void refresh(Admin admin, String groupId) throws InterruptedException {
+        try {
+            ConsumerGroupDescription group = admin.describeConsumerGroups(List.of(groupId))
+                    .describedGroups().get(groupId).get();
+            Map<Integer, String> updated = new HashMap<>();
+            for (MemberDescription member : group.members()) {
+                int separator = member.clientId().lastIndexOf(ENDPOINT_SEPARATOR);
+                if (separator < 0) {
+                    continue;
+                }
+                String endpoint = member.clientId().substring(separator + 1);
+                for (TopicPartition partition : member.assignment().topicPartitions()) {
+                    if (partition.topic().equals(topic)) {
+                        updated.put(partition.partition(), endpoint);
+                    }
+                }
+            }
+            owners = Map.copyOf(updated);
+            log.info("Enrutado actualizado: {} particiones asignadas de {}", updated.size(), numPartitions);
+        } catch (ExecutionException e) {
+            log.warn("No se pudo leer la asignación del grupo {}: {}", groupId, e.getCause().toString());
+        }
+    }
+
+    /**
+     * Fija la asignación local sin consultar al coordinador (despliegue de una sola instancia)
+     */
+    void assignLocal(Iterable<Integer> partitions) {
+        Map<Integer, String> updated = new HashMap<>(owners);
+        partitions.forEach(p -> updated.put(p, localEndpoint));
+        owners = Map.copyOf(updated);
+    }
+
+    void revokeLocal(Iterable<Integer> partitions) {
+        Map<Integer, String> updated = new HashMap<>(owners);
+        partitions.forEach(p -> updated.remove(p, localEndpoint));
+        owners = Map.copyOf(updated);
+    }
+}
@@ -0,0 +1,217 @@
+package com.helloworld.kafka.testdocker.query;
+
+import java.io.Closeable;
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Agrega el topic purchases (clave = usuario) en un total de compras por usuario.
+ *
+ * Cada lote de poll actualiza {@link UserTotalsStore} y publica el último total de cada
+ * usuario modificado en el changelog compactado, en la misma partición que el registro de
+ * origen. El changelog sirve para restaurar el estado al recibir una partición y para
+ * invalidar las cachés de consulta ({@link ChangelogInvalidator}).
+ *
+ * Garantía at-least-once: tras un fallo entre la publicación y el commit, un mismo registro
+ * puede sumarse dos veces.
+ */
+public class PurchaseAggregator implements Runnable, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    public static final String SOURCE_TOPIC = "purchases";
+    public static final String CHANGELOG_TOPIC = "purchases-user-totals-changelog";
+    public static final String GROUP_ID = "purchase-aggregator";
+
+    private final Properties config;
+    private final UserTotalsStore store;
+    private final PartitionRouting routing;
+    private final Admin admin;
+    private final KafkaConsumer<String, String> consumer;
+    private final KafkaProducer<String, String> producer;
+    private volatile boolean closed;
+
+    public PurchaseAggregator(Properties config, UserTotalsStore store, PartitionRouting routing, Admin admin) {
+        this.config = config;
+        this.store = store;
+        this.routing = routing;
+        this.admin = admin;
+
+        Properties consumerProps = new Properties();
+        consumerProps.putAll(config);
+        consumerProps.put(ConsumerConfig.GROUP_ID_CONFIG, GROUP_ID);
+        consumerProps.put(ConsumerConfig.CLIENT_ID_CONFIG, PartitionRouting.clientId(GROUP_ID, routing.getLocalEndpoint()));
+        consumerProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        consumerProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        consumerProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        this.consumer = new KafkaConsumer<>(consumerProps);
+
+        Properties producerProps = new Properties();
+        producerProps.putAll(config);
+        producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerProps.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        this.producer = new KafkaProducer<>(producerProps);
+    }
+
+    /**
+     * Crea el changelog compactado con las mismas particiones que el topic de origen
+     *
+     * @return número de particiones del topic de origen
+     */
+    public static int ensureChangelog(Admin admin) throws InterruptedException, ExecutionException {
+        TopicDescription source = admin.describeTopics(List.of(SOURCE_TOPIC)).all().get().get(SOURCE_TOPIC);
+        int partitions = source.partitions().size();
+        short replicas = (short) source.partitions().get(0).replicas().size();
+        NewTopic changelog = new NewTopic(CHANGELOG_TOPIC, partitions, replicas)
+                .configs(Map.of(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT));
+        try {
+            admin.createTopics(List.of(changelog)).all().get();
+            log.info("Changelog {} creado con {} particiones", CHANGELOG_TOPIC, partitions);
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof TopicExistsException)) {
+                throw e;
+            }
+        }
+        return partitions;
+    }
+
+    @Override
+    public void run() {
+        try {
+            consumer.subscribe(List.of(SOURCE_TOPIC), new ConsumerRebalanceListener() {
+                @Override
+                public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                    consumer.commitSync();
+                    List<Integer> revoked = numbers(partitions);
+                    revoked.forEach(store::drop);
+                    routing.revokeLocal(revoked);
+                }
+
+                @Override
+                public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+                    List<Integer> assigned = numbers(partitions);
+                    restore(assigned);
+                    routing.assignLocal(assigned);
+                    refreshRouting();
+                }
+            });
+            while (!closed) {
+                ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(100));
+                if (!records.isEmpty()) {
+                    aggregate(records);
+                }
+            }
+        } catch (WakeupException e) {
+            if (!closed) {
+                throw e;
+            }
+        } finally {
+            consumer.close();
+            producer.close();
+        }
+    }
+
+    private void aggregate(ConsumerRecords<String, String> records) {
+        // Como la caché de Kafka Streams: solo se publica el último total de cada usuario del lote
+        Map<String, Long> lastTotal = new HashMap<>();
+        Map<String, Integer> partitionOf = new HashMap<>();
+        for (ConsumerRecord<String, String> record : records) {
+            if (record.key() == null) {
+                continue;
+            }
+            lastTotal.put(record.key(), store.increment(record.partition(), record.key()));
+            partitionOf.put(record.key(), record.partition());
+        }
+        lastTotal.forEach((user, total) -> producer.send(
+                new ProducerRecord<>(CHANGELOG_TOPIC, partitionOf.get(user), user, Long.toString(total))));
+        // El changelog debe estar escrito antes de confirmar los offsets de origen
+        producer.flush();
+        consumer.commitSync();
+    }
+
+    private void restore(List<Integer> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        List<TopicPartition> changelogPartitions = new ArrayList<>();
+        partitions.forEach(p -> changelogPartitions.add(new TopicPartition(CHANGELOG_TOPIC, p)));
+
+        Properties restoreProps = new Properties();
+        restoreProps.putAll(config);
+        restoreProps.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        restoreProps.remove(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG);
+        restoreProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        restoreProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        restoreProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+
+        long start = System.nanoTime();
+        long restored = 0;
+        try (KafkaConsumer<String, String> restoreConsumer = new KafkaConsumer<>(restoreProps)) {
+            restoreConsumer.assign(changelogPartitions);
+            restoreConsumer.seekToBeginning(changelogPartitions);
+            Map<TopicPartition, Long> endOffsets = restoreConsumer.endOffsets(changelogPartitions);
+            // Las consultas de estas particiones responden "restaurando" hasta el final del bucle
+            partitions.forEach(store::beginRestore);
+            while (changelogPartitions.stream().anyMatch(tp -> restoreConsumer.position(tp) < endOffsets.get(tp))) {
+                for (ConsumerRecord<String, String> record : restoreConsumer.poll(Duration.ofMillis(100))) {
+                    if (record.value() != null) {
+                        store.restore(record.partition(), record.key(), Long.parseLong(record.value()));
+                        restored++;
+                    }
+                }
+            }
+        }
+        partitions.forEach(store::completeRestore);
+        log.info("Restauradas particiones {} desde {}: {} registros en {} ms", partitions, CHANGELOG_TOPIC,
+                restored, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void refreshRouting() {
+        try {
+            routing.refresh(admin, GROUP_ID);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<Integer> numbers(Collection<TopicPartition> partitions) {
+        List<Integer> numbers = new ArrayList<>();
+        partitions.forEach(tp -> numbers.add(tp.partition()));
+        return numbers;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        consumer.wakeup();
+    }
+}
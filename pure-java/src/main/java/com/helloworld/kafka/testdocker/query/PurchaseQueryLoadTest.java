@@ -0,0 +1,157 @@
+package com.helloworld.kafka.testdocker.query;
+
+import java.lang.invoke.MethodHandles;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helloworld.kafka.testdocker.Config;
+
+/**
+ * Prueba de carga local del camino de lectura: arranca el agregador, el invalidador de la
+ * caché y un productor de compras, y lanza lectores concurrentes contra
+ * {@link PurchaseQueryService}.
+ *
+ * Uso: PurchaseQueryLoadTest [fichero config] [lectores] [segundos] [usuarios] [compras/s]
+ *
+ * Para probar varias instancias basta con lanzar el proceso más de una vez: el grupo reparte
+ * las particiones y las consultas de usuarios de otra instancia se hacen por HTTP
+ * ({@link QueryServer} y {@link HttpRemoteQuery}) y se cuentan como remotas. Cada instancia
+ * escucha en un puerto libre y lo publica en su client.id.
+ */
+public class PurchaseQueryLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final int SOURCE_PARTITIONS = 6;
+    private static final int QUERY_SERVER_THREADS = 4;
+    private static final Duration REMOTE_TIMEOUT = Duration.ofSeconds(2);
+
+    public static void main(String[] args) throws Exception {
+        String configFile = args.length > 0 ? args[0] : "./config/default.properties";
+        int readers = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int users = args.length > 3 ? Integer.parseInt(args[3]) : 10_000;
+        int purchasesPerSec = args.length > 4 ? Integer.parseInt(args[4]) : 5_000;
+
+        Properties config = Config.loadConfig(configFile);
+
+        try (Admin admin = Admin.create(config)) {
+            createSourceTopic(admin);
+            int partitions = PurchaseAggregator.ensureChangelog(admin);
+
+            UserTotalsStore store = new UserTotalsStore();
+            QueryServer server = new QueryServer(store, partitions, 0, QUERY_SERVER_THREADS);
+            String endpoint = InetAddress.getLocalHost().getHostName() + ":" + server.getPort();
+            PartitionRouting routing = new PartitionRouting(PurchaseAggregator.SOURCE_TOPIC, partitions, endpoint);
+            FrontCache cache = new FrontCache(users, 1_000);
+            PurchaseQueryService service = new PurchaseQueryService(store, routing, cache,
+                    new HttpRemoteQuery(REMOTE_TIMEOUT));
+
+            PurchaseAggregator aggregator = new PurchaseAggregator(config, store, routing, admin);
+            ChangelogInvalidator invalidator = new ChangelogInvalidator(config, cache);
+            ExecutorService background = Executors.newFixedThreadPool(3);
+            background.submit(aggregator);
+            background.submit(invalidator);
+            background.submit(() -> producePurchases(config, users, purchasesPerSec));
+
+            waitForAssignment(store, partitions);
+            log.info("Instancia {}: {} usuarios en estado local, lanzando {} lectores durante {} s",
+                    endpoint, store.size(), readers, seconds);
+
+            LongAdder queries = new LongAdder();
+            LongAdder failed = new LongAdder();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            ExecutorService readerPool = Executors.newFixedThreadPool(readers);
+            for (int i = 0; i < readers; i++) {
+                readerPool.submit(() -> {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            service.totalFor("user-" + rnd.nextInt(users));
+                        } catch (IllegalStateException e) {
+                            // Partición sin asignar o instancia remota que ya no la tiene (rebalanceo)
+                            failed.increment();
+                        }
+                        queries.increment();
+                    }
+                });
+            }
+            readerPool.shutdown();
+            while (!readerPool.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.info("Métricas parciales:\n{}", service.getMetrics().summary());
+            }
+
+            log.info("Resultado: {} consultas en {} s ({} consultas/s), {} de otras instancias, {} fallidas, "
+                    + "caché {} entradas\n{}", queries.sum(), seconds, queries.sum() / seconds,
+                    service.getMetrics().count(QueryMetrics.Source.REMOTE), failed.sum(), cache.size(),
+                    service.getMetrics().summary());
+
+            aggregator.close();
+            invalidator.close();
+            server.close();
+            background.shutdownNow();
+            background.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void producePurchases(Properties config, int users, int purchasesPerSec) {
+        String[] items = {"book", "alarm clock", "t-shirts", "gift card", "batteries"};
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, purchasesPerSec);
+        try (Producer<String, String> producer = new KafkaProducer<>(config)) {
+            long next = System.nanoTime();
+            while (!Thread.currentThread().isInterrupted()) {
+                producer.send(new ProducerRecord<>(PurchaseAggregator.SOURCE_TOPIC,
+                        "user-" + rnd.nextInt(users), items[rnd.nextInt(items.length)]));
+                next += intervalNanos;
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void createSourceTopic(Admin admin) throws InterruptedException, ExecutionException {
+        try {
+            admin.createTopics(List.of(new NewTopic(PurchaseAggregator.SOURCE_TOPIC, SOURCE_PARTITIONS, (short) 1)))
+                    .all().get();
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof TopicExistsException)) {
+                throw e;
+            }
+        }
+    }
+
+    private static void waitForAssignment(UserTotalsStore store, int partitions) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (System.nanoTime() < deadline) {
+            for (int p = 0; p < partitions; p++) {
+                if (store.owns(p)) {
+                    return;
+                }
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException("El agregador no recibió particiones en 1 minuto");
+    }
+}
@@ -0,0 +1,69 @@
+package com.helloworld.kafka.testdocker.query;
+
+/**
+ * API de consulta en proceso de los totales por usuario.
+ *
+ * Orden de resolución: {@link FrontCache}, estado local si la partición del usuario es de
+ * esta instancia, y si no la instancia propietaria según {@link PartitionRouting}. Los
+ * resultados locales y remotos se cachean; el changelog los invalida. Mientras la partición
+ * del usuario se restaura en esta instancia la consulta falla en lugar de dar un total parcial.
+ */
+public class PurchaseQueryService {
+
+    private final UserTotalsStore store;
+    private final PartitionRouting routing;
+    private final FrontCache cache;
+    private final RemoteQuery remote;
+    private final QueryMetrics metrics = new QueryMetrics();
+
+    public PurchaseQueryService(UserTotalsStore store, PartitionRouting routing, FrontCache cache,
+            RemoteQuery remote) {
+        this.store = store;
+        this.routing = routing;
+        this.cache = cache;
+        this.remote = remote;
+    }
+
+    /**
+     * Total de compras del usuario (0 si no tiene ninguna)
+     */
+    public long totalFor(String user) {
+        long start = System.nanoTime();
+        Long total = cache.get(user);
+        if (total != null) {
+            metrics.record(QueryMetrics.Source.CACHE, System.nanoTime() - start);
+            return total;
+        }
+
+        int partition = routing.partitionFor(user);
+        QueryMetrics.Source source;
+        if (store.isRestoring(partition)) {
+            throw new IllegalStateException("La partición " + partition + " del usuario " + user
+                    + " se está restaurando en esta instancia");
+        }
+        if (store.owns(partition)) {
+            total = store.get(partition, user);
+            source = QueryMetrics.Source.LOCAL_STORE;
+        } else {
+            String owner = routing.ownerOf(user);
+            if (owner == null) {
+                throw new IllegalStateException("La partición " + partition + " del usuario " + user
+                        + " no está asignada a ninguna instancia");
+            }
+            total = remote.totalFor(owner, user);
+            source = QueryMetrics.Source.REMOTE;
+        }
+
+        if (total == null) {
+            metrics.record(QueryMetrics.Source.NOT_FOUND, System.nanoTime() - start);
+            return 0;
+        }
+        cache.put(user, total);
+        metrics.record(source, System.nanoTime() - start);
+        return total;
+    }
+
+    public QueryMetrics getMetrics() {
+        return metrics;
+    }
+}
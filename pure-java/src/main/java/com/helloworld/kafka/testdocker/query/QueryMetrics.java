@@ -0,0 +1,75 @@
+package com.helloworld.kafka.testdocker.query;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencia de las consultas por origen de la respuesta, en un histograma de cubos
+ * potencia de 2 en nanosegundos (sin bloqueo, apto para muchos lectores concurrentes).
+ * Los percentiles devuelven el límite superior del cubo.
+ */
+public class QueryMetrics {
+
+    public enum Source { CACHE, LOCAL_STORE, REMOTE, NOT_FOUND }
+
+    private static final int BUCKETS = 40;
+
+    private final Map<Source, LongAdder[]> histograms = new EnumMap<>(Source.class);
+
+    public QueryMetrics() {
+        for (Source source : Source.values()) {
+            LongAdder[] buckets = new LongAdder[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+            histograms.put(source, buckets);
+        }
+    }
+
+    public void record(Source source, long nanos) {
+        int bucket = nanos <= 1 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos - 1));
+        histograms.get(source)[bucket].increment();
+    }
+
+    public long count(Source source) {
+        long count = 0;
+        for (LongAdder bucket : histograms.get(source)) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Percentil aproximado en nanosegundos (0 si no hay muestras)
+     */
+    public long percentileNanos(Source source, double percentile) {
+        LongAdder[] buckets = histograms.get(source);
+        long total = count(source);
+        if (total == 0) {
+            return 0;
+        }
+        long threshold = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i].sum();
+            if (seen >= threshold) {
+                return 1L << i;
+            }
+        }
+        return 1L << (BUCKETS - 1);
+    }
+
+    public String summary() {
+        StringBuilder summary = new StringBuilder();
+        for (Source source : Source.values()) {
+            long count = count(source);
+            if (count > 0) {
+                summary.append(String.format("%s: %d consultas, p50 <= %.1f µs, p99 <= %.1f µs, p99.9 <= %.1f µs%n",
+                        source, count, percentileNanos(source, 0.50) / 1_000.0,
+                        percentileNanos(source, 0.99) / 1_000.0, percentileNanos(source, 0.999) / 1_000.0));
+            }
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,102 @@
+package com.helloworld.kafka.testdocker.query;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Servidor HTTP mínimo (el del JDK) con el que las demás instancias consultan el estado local.
+ *
+ * GET /totals/{usuario} responde solo desde {@link UserTotalsStore}, sin reenviar:
+ * - 200 con el total en texto plano.
+ * - 404 si el usuario no tiene compras.
+ * - 503 si la partición se está restaurando desde el changelog y aún no hay total completo.
+ * - 421 (Misdirected Request) si la partición del usuario no es de esta instancia, p. ej. tras
+ *   un rebalanceo que quien pregunta aún no ha visto.
+ */
+public class QueryServer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    static final String PATH = "/totals/";
+    static final int MISDIRECTED = 421;
+    static final int RESTORING = 503;
+
+    private final UserTotalsStore store;
+    private final int numPartitions;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * @param port puerto de escucha; 0 para uno libre cualquiera
+     */
+    public QueryServer(UserTotalsStore store, int numPartitions, int port, int threads) throws IOException {
+        this.store = store;
+        this.numPartitions = numPartitions;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = Executors.newFixedThreadPool(threads);
+        server.createContext(PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+        log.info("Consultas remotas en el puerto {}", getPort());
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "");
+                return;
+            }
+            String user = URLDecoder.decode(exchange.getRequestURI().getRawPath().substring(PATH.length()),
+                    StandardCharsets.UTF_8);
+            int partition = PartitionRouting.partitionFor(user, numPartitions);
+            if (store.isRestoring(partition)) {
+                respond(exchange, RESTORING, "");
+                return;
+            }
+            if (!store.owns(partition)) {
+                respond(exchange, MISDIRECTED, "");
+                return;
+            }
+            Long total = store.get(partition, user);
+            if (total == null) {
+                respond(exchange, 404, "");
+            } else {
+                respond(exchange, 200, total.toString());
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdownNow();
+    }
+}
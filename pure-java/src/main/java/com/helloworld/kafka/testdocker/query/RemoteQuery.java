@@ -0,0 +1,14 @@
+package com.helloworld.kafka.testdocker.query;
+
+/**
+ * Consulta del total de un usuario a la instancia que tiene su partición.
+ * {@link HttpRemoteQuery} es el transporte del ejemplo.
+ */
+@FunctionalInterface
+public interface RemoteQuery {
+
+    /**
+     * @return total del usuario en la instancia remota, o null si no existe
+     */
+    Long totalFor(String endpoint, String user);
+}
@@ -0,0 +1,63 @@
+package com.helloworld.kafka.testdocker.query;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estado agregado local: total de compras por usuario, separado por partición de origen
+ * para poder soltar o restaurar una partición completa en cada rebalanceo.
+ *
+ * Solo escribe el hilo del agregador; las lecturas son concurrentes y sin bloqueo.
+ *
+ * Una partición que se está restaurando desde el changelog no es de esta instancia todavía:
+ * sus totales se acumulan aparte y solo se publican, de una vez, al terminar la restauración.
+ * Así nunca se sirve (ni se cachea) un total parcial.
+ */
+public class UserTotalsStore {
+
+    private final Map<Integer, Map<String, Long>> partitions = new ConcurrentHashMap<>();
+    private final Map<Integer, Map<String, Long>> restoring = new ConcurrentHashMap<>();
+
+    public Long get(int partition, String user) {
+        Map<String, Long> totals = partitions.get(partition);
+        return totals == null ? null : totals.get(user);
+    }
+
+    public boolean owns(int partition) {
+        return partitions.containsKey(partition);
+    }
+
+    public boolean isRestoring(int partition) {
+        return restoring.containsKey(partition);
+    }
+
+    long increment(int partition, String user) {
+        return partitions.computeIfAbsent(partition, p -> new ConcurrentHashMap<>()).merge(user, 1L, Long::sum);
+    }
+
+    void beginRestore(int partition) {
+        restoring.put(partition, new ConcurrentHashMap<>());
+    }
+
+    void restore(int partition, String user, long total) {
+        restoring.get(partition).put(user, total);
+    }
+
+    /**
+     * Publica la partición restaurada; desde aquí owns(partition) es true
+     */
+    void completeRestore(int partition) {
+        Map<String, Long> totals = restoring.get(partition);
+        partitions.put(partition, totals == null ? new ConcurrentHashMap<>() : totals);
+        restoring.remove(partition);
+    }
+
+    void drop(int partition) {
+        restoring.remove(partition);
+        partitions.remove(partition);
+    }
+
+    public int size() {
+        return partitions.values().stream().mapToInt(Map::size).sum();
+    }
+}
@@ -0,0 +1,113 @@
+package com.helloworld.kafka.tools;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+
+/**
+ * Lee un fichero escrito por {@link SegmentWriter}, mapeándolo por ventanas igual que al escribir
+ */
+final class SegmentReader implements Closeable {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long size;
+    private final String topic;
+    private final int partition;
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    SegmentReader(Path path) {
+        this.path = path;
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.size = channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir " + path, e);
+        }
+        map(0, 0);
+        if (size < 16 || window.getInt() != SegmentWriter.MAGIC || window.getInt() != SegmentWriter.VERSION) {
+            throw new IllegalArgumentException(path + " no es un fichero de segmento exportado");
+        }
+        this.partition = window.getInt();
+        byte[] topicBytes = new byte[window.getInt()];
+        window.get(topicBytes);
+        this.topic = new String(topicBytes, StandardCharsets.UTF_8);
+    }
+
+    String topic() {
+        return topic;
+    }
+
+    int partition() {
+        return partition;
+    }
+
+    /**
+     * Siguiente registro, o null al final del fichero
+     */
+    SegmentRecord next() {
+        long position = windowStart + window.position();
+        if (position >= size) {
+            return null;
+        }
+        if (window.remaining() < 4) {
+            map(position, 4);
+        }
+        int length = window.getInt(window.position());
+        if (length <= 0) {
+            // Exportación interrumpida: el resto del fichero no llegó a escribirse
+            return null;
+        }
+        if (window.remaining() < 4 + length) {
+            map(position, 4 + length);
+        }
+        window.getInt();
+        long offset = window.getLong();
+        long timestamp = window.getLong();
+        byte[] key = getBytes();
+        byte[] value = getBytes();
+        Header[] headers = new Header[window.getInt()];
+        for (int i = 0; i < headers.length; i++) {
+            headers[i] = new RecordHeader(new String(getBytes(), StandardCharsets.UTF_8), getBytes());
+        }
+        return new SegmentRecord(offset, timestamp, key, value, headers);
+    }
+
+    private byte[] getBytes() {
+        int length = window.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        window.get(bytes);
+        return bytes;
+    }
+
+    private void map(long start, int minBytes) {
+        try {
+            long bytes = Math.min(size - start, Math.max(SegmentWriter.WINDOW_BYTES, minBytes));
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, bytes);
+            windowStart = start;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo mapear " + path, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.helloworld.kafka.tools;
+
+import org.apache.kafka.common.header.Header;
+
+/**
+ * Registro exportado a un fichero de segmento
+ */
+final class SegmentRecord {
+
+    final long offset;
+    final long timestamp;
+    final byte[] key;
+    final byte[] value;
+    final Header[] headers;
+
+    SegmentRecord(long offset, long timestamp, byte[] key, byte[] value, Header[] headers) {
+        this.offset = offset;
+        this.timestamp = timestamp;
+        this.key = key;
+        this.value = value;
+        this.headers = headers;
+    }
+}
@@ -0,0 +1,112 @@
+package com.helloworld.kafka.tools;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+
+/**
+ * Escribe los registros de una partición en un fichero mapeado en memoria.
+ *
+ * Formato: cabecera [int magic][int versión][int partición][int long. topic][topic UTF-8] y
+ * después, por registro, [int longitud][long offset][long timestamp][bytes clave][bytes valor]
+ * [int número de headers]([bytes clave header][bytes valor header])*, donde cada "bytes" es
+ * [int longitud o -1 si es null][contenido]. La longitud inicial cubre el resto del registro.
+ *
+ * El fichero se mapea por ventanas de {@link #WINDOW_BYTES}; un registro que no cabe en la
+ * ventana actual abre una nueva a partir de su posición. Al cerrar se trunca al tamaño real.
+ */
+final class SegmentWriter implements Closeable {
+
+    static final int MAGIC = 0x4B534547;
+    static final int VERSION = 1;
+    static final int WINDOW_BYTES = 64 * 1024 * 1024;
+
+    private final Path path;
+    private final FileChannel channel;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long records;
+
+    SegmentWriter(Path path, String topic, int partition) {
+        this.path = path;
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear " + path, e);
+        }
+        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+        map(0, 16 + topicBytes.length);
+        window.putInt(MAGIC).putInt(VERSION).putInt(partition).putInt(topicBytes.length).put(topicBytes);
+    }
+
+    void append(ConsumerRecord<byte[], byte[]> record) {
+        Header[] headers = record.headers().toArray();
+        int length = 8 + 8 + bytesLength(record.key()) + bytesLength(record.value()) + 4;
+        byte[][] headerKeys = new byte[headers.length][];
+        for (int i = 0; i < headers.length; i++) {
+            headerKeys[i] = headers[i].key().getBytes(StandardCharsets.UTF_8);
+            length += bytesLength(headerKeys[i]) + bytesLength(headers[i].value());
+        }
+        if (window.remaining() < 4 + length) {
+            map(windowStart + window.position(), 4 + length);
+        }
+        window.putInt(length).putLong(record.offset()).putLong(record.timestamp());
+        putBytes(record.key());
+        putBytes(record.value());
+        window.putInt(headers.length);
+        for (int i = 0; i < headers.length; i++) {
+            putBytes(headerKeys[i]);
+            putBytes(headers[i].value());
+        }
+        records++;
+    }
+
+    long records() {
+        return records;
+    }
+
+    long bytes() {
+        return windowStart + window.position();
+    }
+
+    private void putBytes(byte[] bytes) {
+        if (bytes == null) {
+            window.putInt(-1);
+        } else {
+            window.putInt(bytes.length).put(bytes);
+        }
+    }
+
+    private static int bytesLength(byte[] bytes) {
+        return 4 + (bytes == null ? 0 : bytes.length);
+    }
+
+    private void map(long start, int minBytes) {
+        try {
+            window = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.max(WINDOW_BYTES, minBytes));
+            windowStart = start;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo mapear " + path, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            window.force();
+            channel.truncate(bytes());
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo cerrar " + path, e);
+        }
+    }
+}
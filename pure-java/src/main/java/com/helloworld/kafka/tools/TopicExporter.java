@@ -0,0 +1,173 @@
+package com.helloworld.kafka.tools;
+
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helloworld.kafka.testdocker.Config;
+
+/**
+ * Exporta los registros de un topic entre dos instantes a ficheros locales, uno por partición
+ * (formato en {@link SegmentWriter}).
+ *
+ * Los límites se buscan con offsetsForTimes: desde el primer offset con timestamp &gt;= desde
+ * hasta el primero con timestamp &gt;= hasta (o el final actual de la partición). Cada partición
+ * la lee un consumidor asignado, sin grupo, en su propio hilo. Claves, valores y headers se
+ * copian como bytes, sin deserializar.
+ *
+ * Los instantes se aceptan en ISO-8601 con zona (2024-05-01T10:00:00Z) o en hora local
+ * (2024-05-01T10:00).
+ *
+ * Uso: TopicExporter fichero-config topic desde hasta directorio-salida [hilos]
+ */
+public class TopicExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 5) {
+            System.err.println("Uso: TopicExporter fichero-config topic desde hasta directorio-salida [hilos]");
+            System.exit(1);
+        }
+        Properties config = Config.loadConfig(args[0]);
+        String topic = args[1];
+        Instant from = parseInstant(args[2]);
+        Instant to = parseInstant(args[3]);
+        Path directory = Path.of(args[4]);
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("El inicio " + from + " no es anterior al final " + to);
+        }
+        Files.createDirectories(directory);
+
+        Map<TopicPartition, long[]> ranges = ranges(config, topic, from, to);
+        log.info("Exportando {} de {} a {}: {}", topic, from, to, describe(ranges));
+
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, ranges.size())));
+        List<Future<Long>> exports = new ArrayList<>();
+        ranges.forEach((partition, range) -> exports.add(pool.submit(
+                () -> export(config, partition, range[0], range[1], directory.resolve(fileName(partition))))));
+        pool.shutdown();
+        long records = 0;
+        for (Future<Long> export : exports) {
+            records += export.get();
+        }
+        long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Exportados {} registros de {} particiones en {} ms ({} registros/s) en {}", records,
+                ranges.size(), millis, records * 1000 / millis, directory);
+    }
+
+    /**
+     * Rango [inicio, fin) de offsets de cada partición con registros en el intervalo
+     */
+    private static Map<TopicPartition, long[]> ranges(Properties config, String topic, Instant from, Instant to) {
+        try (KafkaConsumer<byte[], byte[]> consumer = new KafkaConsumer<>(consumerProperties(config))) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (PartitionInfo info : consumer.partitionsFor(topic)) {
+                partitions.add(new TopicPartition(topic, info.partition()));
+            }
+            Map<TopicPartition, Long> fromQuery = new HashMap<>();
+            Map<TopicPartition, Long> toQuery = new HashMap<>();
+            partitions.forEach(tp -> {
+                fromQuery.put(tp, from.toEpochMilli());
+                toQuery.put(tp, to.toEpochMilli());
+            });
+            Map<TopicPartition, OffsetAndTimestamp> starts = consumer.offsetsForTimes(fromQuery);
+            Map<TopicPartition, OffsetAndTimestamp> ends = consumer.offsetsForTimes(toQuery);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            Map<TopicPartition, long[]> ranges = new HashMap<>();
+            for (TopicPartition partition : partitions) {
+                OffsetAndTimestamp startOffset = starts.get(partition);
+                if (startOffset == null) {
+                    // Ningún registro con timestamp posterior al inicio
+                    continue;
+                }
+                OffsetAndTimestamp endOffset = ends.get(partition);
+                long end = endOffset != null ? endOffset.offset() : endOffsets.get(partition);
+                if (startOffset.offset() < end) {
+                    ranges.put(partition, new long[] {startOffset.offset(), end});
+                }
+            }
+            return ranges;
+        }
+    }
+
+    private static long export(Properties config, TopicPartition partition, long startOffset, long endOffset,
+            Path file) {
+        long start = System.nanoTime();
+        try (KafkaConsumer<byte[], byte[]> consumer = new KafkaConsumer<>(consumerProperties(config));
+                SegmentWriter writer = new SegmentWriter(file, partition.topic(), partition.partition())) {
+            consumer.assign(List.of(partition));
+            consumer.seek(partition, startOffset);
+            while (consumer.position(partition) < endOffset) {
+                for (ConsumerRecord<byte[], byte[]> record : consumer.poll(Duration.ofMillis(500))) {
+                    if (record.offset() < endOffset) {
+                        writer.append(record);
+                    }
+                }
+            }
+            log.info("{}: {} registros ({} MB) en {} ms", partition, writer.records(),
+                    writer.bytes() / (1024 * 1024), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return writer.records();
+        }
+    }
+
+    static Properties consumerProperties(Properties config) {
+        Properties props = new Properties();
+        props.putAll(config);
+        props.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        props.remove(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.putIfAbsent(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 5_000);
+        props.putIfAbsent(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, 8 * 1024 * 1024);
+        props.putIfAbsent(ConsumerConfig.FETCH_MAX_BYTES_CONFIG, 64 * 1024 * 1024);
+        return props;
+    }
+
+    static Instant parseInstant(String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            return LocalDateTime.parse(value).atZone(ZoneId.systemDefault()).toInstant();
+        }
+    }
+
+    static String fileName(TopicPartition partition) {
+        return partition.topic() + "-" + partition.partition() + ".seg";
+    }
+
+    private static String describe(Map<TopicPartition, long[]> ranges) {
+        StringBuilder description = new StringBuilder();
+        ranges.forEach((partition, range) -> description.append(partition).append(" [").append(range[0])
+                .append(", ").append(range[1]).append(") "));
+        return description.length() == 0 ? "sin registros en el intervalo" : description.toString().trim();
+    }
+}
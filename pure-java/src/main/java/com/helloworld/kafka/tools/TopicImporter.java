@@ -0,0 +1,111 @@
+package com.helloworld.kafka.tools;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helloworld.kafka.testdocker.Config;
+
+/**
+ * Vuelve a producir los ficheros de {@link TopicExporter} a un ritmo controlado.
+ *
+ * Cada registro conserva clave, valor, headers y timestamp original y va a la misma partición
+ * de la que se exportó (si el topic destino tiene menos particiones, se deja elegir al
+ * particionador). Los ficheros se importan uno tras otro; el ritmo es global.
+ *
+ * Uso: TopicImporter fichero-config directorio-entrada [topic destino] [registros/s, 0 = sin límite]
+ */
+public class TopicImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Uso: TopicImporter fichero-config directorio-entrada [topic destino] [registros/s]");
+            System.exit(1);
+        }
+        Properties config = Config.loadConfig(args[0]);
+        Path directory = Path.of(args[1]);
+        String targetTopic = args.length > 2 ? args[2] : null;
+        long recordsPerSec = args.length > 3 ? Long.parseLong(args[3]) : 0;
+
+        List<Path> files = segmentFiles(directory);
+        if (files.isEmpty()) {
+            log.warn("No hay ficheros .seg en {}", directory);
+            return;
+        }
+
+        Properties props = new Properties();
+        props.putAll(config);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.putIfAbsent(ProducerConfig.LINGER_MS_CONFIG, 20);
+        props.putIfAbsent(ProducerConfig.BATCH_SIZE_CONFIG, 256 * 1024);
+
+        long intervalNanos = recordsPerSec > 0 ? TimeUnit.SECONDS.toNanos(1) / recordsPerSec : 0;
+        AtomicLong failed = new AtomicLong();
+        AtomicReference<Exception> firstError = new AtomicReference<>();
+        long sent = 0;
+        long start = System.nanoTime();
+        try (KafkaProducer<byte[], byte[]> producer = new KafkaProducer<>(props)) {
+            long next = System.nanoTime();
+            for (Path file : files) {
+                try (SegmentReader reader = new SegmentReader(file)) {
+                    String topic = targetTopic != null ? targetTopic : reader.topic();
+                    Integer partition = reader.partition() < producer.partitionsFor(topic).size()
+                            ? reader.partition() : null;
+                    long fileRecords = 0;
+                    for (SegmentRecord record = reader.next(); record != null; record = reader.next()) {
+                        producer.send(new ProducerRecord<>(topic, partition, record.timestamp, record.key,
+                                record.value, List.of(record.headers)), (metadata, exception) -> {
+                                    if (exception != null) {
+                                        failed.incrementAndGet();
+                                        firstError.compareAndSet(null, exception);
+                                    }
+                                });
+                        fileRecords++;
+                        if (intervalNanos > 0) {
+                            next += intervalNanos;
+                            long wait = next - System.nanoTime();
+                            if (wait > 0) {
+                                TimeUnit.NANOSECONDS.sleep(wait);
+                            }
+                        }
+                    }
+                    sent += fileRecords;
+                    log.info("{}: {} registros enviados a {}{}", file.getFileName(), fileRecords, topic,
+                            partition != null ? "-" + partition : "");
+                }
+            }
+            producer.flush();
+        }
+        long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Importados {} registros de {} ficheros en {} ms ({} registros/s), {} fallidos", sent - failed.get(),
+                files.size(), millis, sent * 1000 / millis, failed.get());
+        if (firstError.get() != null) {
+            log.error("Primer error de envío", firstError.get());
+        }
+    }
+
+    private static List<Path> segmentFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".seg")).sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
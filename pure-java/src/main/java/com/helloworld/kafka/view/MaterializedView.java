@@ -0,0 +1,233 @@
+package com.helloworld.kafka.view;
+
+import java.io.Closeable;
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.utils.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Vista materializada de un topic compactado en memoria fuera del heap.
+ *
+ * Hay un fragmento ({@link OffHeapTable}) por partición y cada partición la escribe siempre
+ * el mismo hilo cargador, así que cada fragmento tiene un único escritor y las lecturas no
+ * necesitan bloqueos. Para localizar el fragmento de una clave se usa murmur2, igual que el
+ * particionador por defecto del productor: el topic debe escribirse con ese particionador.
+ *
+ * Arranque: se capturan los offsets finales de todas las particiones y los hilos cargadores
+ * leen en paralelo desde el principio hasta ellos. Al llegar todos, {@link #awaitBootstrap}
+ * termina y los mismos hilos siguen aplicando actualizaciones y tombstones en vivo.
+ */
+public class MaterializedView implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private final String topic;
+    private final Properties config;
+    private final int loaderThreads;
+    private final int initialCapacityPerPartition;
+
+    private volatile OffHeapTable[] shards;
+    private final List<KafkaConsumer<byte[], byte[]>> consumers = new ArrayList<>();
+    private final List<Thread> loaders = new ArrayList<>();
+    private final LongAdder applied = new LongAdder();
+    private CountDownLatch bootstrapped;
+    private long bootstrapStartNanos;
+    private volatile boolean closed;
+
+    public MaterializedView(String topic, Properties config, int loaderThreads, int initialCapacityPerPartition) {
+        this.topic = topic;
+        this.config = config;
+        this.loaderThreads = loaderThreads;
+        this.initialCapacityPerPartition = initialCapacityPerPartition;
+    }
+
+    public void start() {
+        List<TopicPartition> partitions = new ArrayList<>();
+        Map<TopicPartition, Long> endOffsets;
+        try (KafkaConsumer<byte[], byte[]> metadata = new KafkaConsumer<>(consumerProperties())) {
+            for (PartitionInfo info : metadata.partitionsFor(topic)) {
+                partitions.add(new TopicPartition(topic, info.partition()));
+            }
+            endOffsets = metadata.endOffsets(partitions);
+        }
+
+        OffHeapTable[] tables = new OffHeapTable[partitions.size()];
+        for (int i = 0; i < tables.length; i++) {
+            tables[i] = new OffHeapTable(initialCapacityPerPartition);
+        }
+        shards = tables;
+        bootstrapped = new CountDownLatch(partitions.size());
+        bootstrapStartNanos = System.nanoTime();
+        log.info("Cargando {} ({} particiones) hasta los offsets {}", topic, partitions.size(), endOffsets);
+
+        int threads = Math.min(loaderThreads, partitions.size());
+        for (int t = 0; t < threads; t++) {
+            List<TopicPartition> assigned = new ArrayList<>();
+            for (int p = t; p < partitions.size(); p += threads) {
+                assigned.add(partitions.get(p));
+            }
+            KafkaConsumer<byte[], byte[]> consumer = new KafkaConsumer<>(consumerProperties());
+            consumers.add(consumer);
+            Thread loader = new Thread(() -> load(consumer, assigned, endOffsets), "view-loader-" + t);
+            loader.setDaemon(true);
+            loaders.add(loader);
+            loader.start();
+        }
+    }
+
+    public boolean awaitBootstrap(long timeout, TimeUnit unit) throws InterruptedException {
+        return bootstrapped.await(timeout, unit);
+    }
+
+    /**
+     * Valor actual de la clave (copia), o null si no existe o se borró con un tombstone
+     */
+    public byte[] get(byte[] key) {
+        int hash = Utils.murmur2(key);
+        OffHeapTable[] tables = shards;
+        return tables[Utils.toPositive(hash) % tables.length].get(key, mix(hash));
+    }
+
+    public long size() {
+        long size = 0;
+        for (OffHeapTable table : shards) {
+            size += table.size();
+        }
+        return size;
+    }
+
+    public long offHeapBytes() {
+        long bytes = 0;
+        for (OffHeapTable table : shards) {
+            bytes += table.offHeapBytes();
+        }
+        return bytes;
+    }
+
+    public long appliedRecords() {
+        return applied.sum();
+    }
+
+    private void load(KafkaConsumer<byte[], byte[]> consumer, List<TopicPartition> assigned,
+            Map<TopicPartition, Long> endOffsets) {
+        Set<TopicPartition> pending = new HashSet<>(assigned);
+        try {
+            consumer.assign(assigned);
+            consumer.seekToBeginning(assigned);
+            markBootstrapped(consumer, pending, endOffsets);
+            while (!closed) {
+                for (ConsumerRecord<byte[], byte[]> record : consumer.poll(Duration.ofMillis(100))) {
+                    apply(record);
+                }
+                if (!pending.isEmpty()) {
+                    markBootstrapped(consumer, pending, endOffsets);
+                }
+            }
+        } catch (WakeupException e) {
+            if (!closed) {
+                throw e;
+            }
+        } finally {
+            consumer.close();
+        }
+    }
+
+    private void apply(ConsumerRecord<byte[], byte[]> record) {
+        if (record.key() == null) {
+            return;
+        }
+        int partition = record.partition();
+        OffHeapTable table = shards[partition];
+        int hash = mix(Utils.murmur2(record.key()));
+        if (record.value() == null) {
+            table.remove(record.key(), hash);
+        } else {
+            table.put(record.key(), hash, record.value());
+        }
+        if (table.needsRebuild()) {
+            // Solo este hilo escribe en la partición: se publica la tabla nueva y la antigua
+            // queda intacta para los lectores que aún la usen
+            publish(partition, table.rebuild());
+        }
+        applied.increment();
+    }
+
+    private synchronized void publish(int partition, OffHeapTable rebuilt) {
+        // Varios cargadores pueden sustituir fragmentos a la vez: la copia del array se serializa
+        OffHeapTable[] tables = shards.clone();
+        tables[partition] = rebuilt;
+        shards = tables;
+    }
+
+    private void markBootstrapped(KafkaConsumer<byte[], byte[]> consumer, Set<TopicPartition> pending,
+            Map<TopicPartition, Long> endOffsets) {
+        pending.removeIf(partition -> {
+            if (consumer.position(partition) >= endOffsets.get(partition)) {
+                bootstrapped.countDown();
+                if (bootstrapped.getCount() == 0) {
+                    long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - bootstrapStartNanos);
+                    log.info("Vista {} cargada: {} claves, {} registros en {} ms, {} MB fuera del heap", topic,
+                            size(), applied.sum(), millis, offHeapBytes() / (1024 * 1024));
+                }
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * El hash de la partición (murmur2 % particiones) deja correlados los bits bajos de todas
+     * las claves de un fragmento; se mezclan antes de usarlos para el slot
+     */
+    private static int mix(int hash) {
+        long h = hash * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private Properties consumerProperties() {
+        Properties props = new Properties();
+        props.putAll(config);
+        props.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        props.remove(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        // Lotes grandes durante la carga inicial
+        props.putIfAbsent(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 5_000);
+        props.putIfAbsent(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, 8 * 1024 * 1024);
+        props.putIfAbsent(ConsumerConfig.FETCH_MAX_BYTES_CONFIG, 64 * 1024 * 1024);
+        return props;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        consumers.forEach(KafkaConsumer::wakeup);
+        for (Thread loader : loaders) {
+            try {
+                loader.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
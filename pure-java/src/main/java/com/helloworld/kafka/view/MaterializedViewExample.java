@@ -0,0 +1,127 @@
+package com.helloworld.kafka.view;
+
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helloworld.kafka.testdocker.Config;
+
+/**
+ * Ejemplo de {@link MaterializedView} sobre un topic compactado de datos de referencia.
+ *
+ * Opcionalmente carga N claves (y borra una de cada diez con un tombstone), arranca la vista,
+ * mide el tiempo de carga inicial y lanza lectores concurrentes contra ella.
+ *
+ * Uso: MaterializedViewExample [fichero config] [claves a cargar] [lectores] [segundos]
+ */
+public class MaterializedViewExample {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final String TOPIC = "reference-data";
+    private static final int PARTITIONS = 12;
+
+    public static void main(String[] args) throws Exception {
+        String configFile = args.length > 0 ? args[0] : "./config/default.properties";
+        int keys = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int readers = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+
+        Properties config = Config.loadConfig(configFile);
+        createCompactedTopic(config);
+        if (keys > 0) {
+            loadReferenceData(config, keys);
+        }
+
+        try (MaterializedView view = new MaterializedView(TOPIC, config,
+                Runtime.getRuntime().availableProcessors(), Math.max(1024, keys / PARTITIONS))) {
+            view.start();
+            if (!view.awaitBootstrap(10, TimeUnit.MINUTES)) {
+                throw new IllegalStateException("La vista no terminó la carga inicial en 10 minutos");
+            }
+
+            LongAdder reads = new LongAdder();
+            LongAdder hits = new LongAdder();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            ExecutorService pool = Executors.newFixedThreadPool(readers);
+            for (int i = 0; i < readers; i++) {
+                pool.submit(() -> {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    int bound = Math.max(1, keys);
+                    while (System.nanoTime() < deadline) {
+                        byte[] value = view.get(key(rnd.nextInt(bound)));
+                        if (value != null) {
+                            hits.increment();
+                        }
+                        reads.increment();
+                    }
+                });
+            }
+            pool.shutdown();
+            pool.awaitTermination(seconds + 10L, TimeUnit.SECONDS);
+
+            log.info("{} lecturas en {} s ({} lecturas/s, {} con valor) con {} lectores; {} claves, {} MB fuera del heap",
+                    reads.sum(), seconds, reads.sum() / seconds, hits.sum(), readers, view.size(),
+                    view.offHeapBytes() / (1024 * 1024));
+        }
+    }
+
+    private static void loadReferenceData(Properties config, int keys) {
+        Properties props = new Properties();
+        props.putAll(config);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 20);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, 256 * 1024);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+
+        long start = System.nanoTime();
+        try (KafkaProducer<byte[], byte[]> producer = new KafkaProducer<>(props)) {
+            for (int i = 0; i < keys; i++) {
+                byte[] value = ("{\"id\":" + i + ",\"description\":\"referencia " + i + "\"}")
+                        .getBytes(StandardCharsets.UTF_8);
+                producer.send(new ProducerRecord<>(TOPIC, key(i), value));
+                if (i % 10 == 0) {
+                    producer.send(new ProducerRecord<>(TOPIC, key(i), null));
+                }
+            }
+        }
+        log.info("Cargadas {} claves en {} en {} ms", keys, TOPIC,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static void createCompactedTopic(Properties config) throws InterruptedException, ExecutionException {
+        try (Admin admin = Admin.create(config)) {
+            admin.createTopics(List.of(new NewTopic(TOPIC, PARTITIONS, (short) 1)
+                    .configs(Map.of(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT))))
+                    .all().get();
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof TopicExistsException)) {
+                throw e;
+            }
+        }
+    }
+
+    private static byte[] key(int i) {
+        return ("ref-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,221 @@
+package com.helloworld.kafka.view;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tabla hash clave → valor fuera del heap, con un único escritor y lectores sin bloqueo.
+ *
+ * Índice: direccionamiento abierto con sondeo lineal sobre un ByteBuffer directo de slots de
+ * 16 bytes [hash][dirección]. Datos: entradas inmutables [int long. clave][int long. valor][clave][valor]
+ * añadidas al final de bloques directos. Actualizar o borrar una clave escribe una entrada
+ * nueva (o una marca de borrado) y cambia la dirección del slot; las entradas antiguas quedan
+ * como basura hasta la siguiente reconstrucción.
+ *
+ * El escritor escribe los bytes de la entrada y publica la dirección del slot con
+ * setRelease; el lector la lee con getAcquire, así que siempre ve la entrada completa. La
+ * tabla nunca se modifica después de ser sustituida por una reconstruida, por lo que un
+ * lector que aún la tenga sigue leyendo un estado coherente.
+ */
+final class OffHeapTable {
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class,
+            ByteOrder.nativeOrder());
+
+    // Los bloques empiezan en 1 MB y doblan hasta 64 MB: una partición pequeña no reserva 64 MB
+    private static final int FIRST_CHUNK_BYTES = 1024 * 1024;
+    static final int CHUNK_BYTES = 64 * 1024 * 1024;
+    private static final int SLOT_BYTES = 16;
+    private static final int HEADER_BYTES = 8;
+
+    private static final long EMPTY = 0L;
+    private static final long TOMBSTONE = -1L;
+
+    private final ByteBuffer index;
+    private final int mask;
+    // Solo crece: un bloque se añade antes del setRelease de cualquier dirección que apunte a él
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private ByteBuffer current;
+    private int nextChunkBytes = FIRST_CHUNK_BYTES;
+
+    // Contadores del escritor (los lectores solo los consultan de forma aproximada)
+    private volatile int live;
+    private int tombstones;
+    private long liveBytes;
+    private long garbageBytes;
+    private long allocatedBytes;
+
+    OffHeapTable(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+        this.index = ByteBuffer.allocateDirect(slots * SLOT_BYTES + SLOT_BYTES).alignedSlice(SLOT_BYTES)
+                .order(ByteOrder.nativeOrder());
+        this.mask = slots - 1;
+        this.allocatedBytes = (long) slots * SLOT_BYTES;
+        newChunk(0);
+    }
+
+    // ---------------------------------------------------------------- lectura
+
+    byte[] get(byte[] key, int hash) {
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            long address = (long) LONGS.getAcquire(index, slot * SLOT_BYTES + 8);
+            if (address == EMPTY) {
+                return null;
+            }
+            if (address != TOMBSTONE && (int) (long) LONGS.get(index, slot * SLOT_BYTES) == hash
+                    && keyEquals(address, key)) {
+                return value(address);
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- escritura (un solo hilo)
+
+    void put(byte[] key, int hash, byte[] value) {
+        long address = append(key, value);
+        int free = -1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            long existing = (long) LONGS.get(index, slot * SLOT_BYTES + 8);
+            if (existing == EMPTY) {
+                int target = free >= 0 ? free : slot;
+                if (free >= 0) {
+                    tombstones--;
+                }
+                LONGS.set(index, target * SLOT_BYTES, (long) hash);
+                LONGS.setRelease(index, target * SLOT_BYTES + 8, address);
+                live++;
+                liveBytes += entryBytes(address);
+                return;
+            }
+            if (existing == TOMBSTONE) {
+                if (free < 0) {
+                    free = slot;
+                }
+                continue;
+            }
+            if ((int) (long) LONGS.get(index, slot * SLOT_BYTES) == hash && keyEquals(existing, key)) {
+                long oldBytes = entryBytes(existing);
+                LONGS.setRelease(index, slot * SLOT_BYTES + 8, address);
+                liveBytes += entryBytes(address) - oldBytes;
+                garbageBytes += oldBytes;
+                return;
+            }
+        }
+    }
+
+    boolean remove(byte[] key, int hash) {
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            long existing = (long) LONGS.get(index, slot * SLOT_BYTES + 8);
+            if (existing == EMPTY) {
+                return false;
+            }
+            if (existing != TOMBSTONE && (int) (long) LONGS.get(index, slot * SLOT_BYTES) == hash
+                    && keyEquals(existing, key)) {
+                long oldBytes = entryBytes(existing);
+                LONGS.setRelease(index, slot * SLOT_BYTES + 8, TOMBSTONE);
+                live--;
+                tombstones++;
+                liveBytes -= oldBytes;
+                garbageBytes += oldBytes;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * La tabla necesita reconstruirse: índice demasiado lleno o más basura que datos vivos
+     */
+    boolean needsRebuild() {
+        return (live + tombstones) > (mask + 1) * 3L / 4
+                || (garbageBytes > CHUNK_BYTES && garbageBytes > liveBytes);
+    }
+
+    /**
+     * Copia las entradas vivas a una tabla nueva dimensionada para el doble de claves
+     */
+    OffHeapTable rebuild() {
+        OffHeapTable rebuilt = new OffHeapTable(Math.max(16, live * 2));
+        for (int slot = 0; slot <= mask; slot++) {
+            long address = (long) LONGS.get(index, slot * SLOT_BYTES + 8);
+            if (address != EMPTY && address != TOMBSTONE) {
+                int hash = (int) (long) LONGS.get(index, slot * SLOT_BYTES);
+                rebuilt.put(key(address), hash, value(address));
+            }
+        }
+        return rebuilt;
+    }
+
+    int size() {
+        return live;
+    }
+
+    long offHeapBytes() {
+        return allocatedBytes;
+    }
+
+    // ---------------------------------------------------------------- entradas
+
+    private long append(byte[] key, byte[] value) {
+        int bytes = HEADER_BYTES + key.length + value.length;
+        if (current.remaining() < bytes) {
+            newChunk(bytes);
+        }
+        int position = current.position();
+        current.putInt(key.length).putInt(value.length).put(key).put(value);
+        // Dirección: (número de bloque + 1) << 32 | posición, para que nunca valga 0 ni -1
+        return ((long) chunks.size() << 32) | position;
+    }
+
+    private void newChunk(int minBytes) {
+        int bytes = Math.max(nextChunkBytes, minBytes);
+        nextChunkBytes = Math.min(CHUNK_BYTES, nextChunkBytes * 2);
+        current = ByteBuffer.allocateDirect(bytes);
+        chunks.add(current);
+        allocatedBytes += bytes;
+    }
+
+    private ByteBuffer chunk(long address) {
+        return chunks.get((int) (address >>> 32) - 1);
+    }
+
+    private static int position(long address) {
+        return (int) address;
+    }
+
+    private long entryBytes(long address) {
+        ByteBuffer chunk = chunk(address);
+        int position = position(address);
+        return HEADER_BYTES + chunk.getInt(position) + chunk.getInt(position + 4);
+    }
+
+    private boolean keyEquals(long address, byte[] key) {
+        ByteBuffer chunk = chunk(address);
+        int position = position(address);
+        if (chunk.getInt(position) != key.length) {
+            return false;
+        }
+        return Arrays.equals(key(address), key);
+    }
+
+    private byte[] key(long address) {
+        ByteBuffer chunk = chunk(address);
+        int position = position(address);
+        byte[] key = new byte[chunk.getInt(position)];
+        chunk.get(position + HEADER_BYTES, key);
+        return key;
+    }
+
+    private byte[] value(long address) {
+        ByteBuffer chunk = chunk(address);
+        int position = position(address);
+        int keyLength = chunk.getInt(position);
+        byte[] value = new byte[chunk.getInt(position + 4)];
+        chunk.get(position + HEADER_BYTES + keyLength, value);
+        return value;
+    }
+}
@@ -0,0 +1 @@
+package com.helloworld.kafka.view;
@@ -35,13 +35,17 @@ public class AsyncProducerApp {
         return args -> {
             Scanner scanner = new Scanner(System.in);
             while (true) {
-                System.out.println("Enter key:value to send to Kafka (type 'exit' to quit):");
+                System.out.println("Enter [tenant:]key:value to send to Kafka (type 'exit' to quit):");
                 String input = scanner.nextLine();
                 if ("exit".equalsIgnoreCase(input)) {
                     break; // Salir del bucle si el usuario escribe "exit"
                 }
                 String[] data = input.split(":");
-                service.sendMessage("test-topic", data[0], data[1]);
+                if (data.length == 3) {
+                    service.sendMessage(data[0], "test-topic", data[1], data[2]);
+                } else {
+                    service.sendMessage("test-topic", data[0], data[1]);
+                }
             }
             scanner.close();
         };
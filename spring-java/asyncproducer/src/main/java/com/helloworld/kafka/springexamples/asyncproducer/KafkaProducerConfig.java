@@ -5,6 +5,7 @@ import java.util.Map;
 
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
@@ -12,6 +13,7 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 
 @Configuration
+@EnableConfigurationProperties(TenantRateLimitSettings.class)
 public class KafkaProducerConfig {
 
     @Bean
@@ -27,4 +29,14 @@ public class KafkaProducerConfig {
     public KafkaTemplate<String, String> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
+
+    @Bean
+    public TenantRateLimiter tenantRateLimiter(TenantRateLimitSettings settings) {
+        return new TenantRateLimiter(settings);
+    }
+
+    @Bean
+    public TenantMetrics tenantMetrics(TenantRateLimitSettings settings) {
+        return new TenantMetrics(settings.getMetricsIntervalMs());
+    }
 }
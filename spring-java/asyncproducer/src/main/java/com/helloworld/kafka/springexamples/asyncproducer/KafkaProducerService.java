@@ -1,7 +1,12 @@
 package com.helloworld.kafka.springexamples.asyncproducer;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
@@ -10,19 +15,64 @@ import org.springframework.stereotype.Service;
 @Service
 public class KafkaProducerService {
 
+    public static final String DEFAULT_TENANT = "default";
+    public static final String TENANT_HEADER = "tenant";
+
     @Autowired
     private KafkaTemplate<String, String> kafkaTemplate;
 
+    @Autowired
+    private TenantRateLimiter rateLimiter;
+
+    @Autowired
+    private TenantMetrics tenantMetrics;
+
     public void sendMessage(String topic, String key, String message) {
-        CompletableFuture<SendResult<String, String>> future = kafkaTemplate.send(topic, key, message);
+        sendMessage(DEFAULT_TENANT, topic, key, message);
+    }
+
+    /**
+     * Envía el mensaje con la cuota del tenant: si la supera, el envío se retrasa o el future
+     * termina con {@link TenantThrottledException}
+     */
+    public CompletableFuture<SendResult<String, String>> sendMessage(String tenant, String topic, String key,
+            String message) {
+        long bytes = sizeOf(key) + sizeOf(message);
+        long waitNanos;
+        try {
+            waitNanos = rateLimiter.acquire(tenant, bytes);
+        } catch (TenantThrottledException e) {
+            tenantMetrics.recordRejected(tenant);
+            System.out.println("Unable to send message=[" + message + "] due to : " + e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+
+        ProducerRecord<String, String> record = new ProducerRecord<>(topic, null, key, message,
+                List.of(new RecordHeader(TENANT_HEADER, tenant.getBytes(StandardCharsets.UTF_8))));
+        CompletableFuture<SendResult<String, String>> future;
+        if (waitNanos == 0) {
+            future = kafkaTemplate.send(record);
+        } else {
+            tenantMetrics.recordDelayed(tenant);
+            future = CompletableFuture.runAsync(() -> { },
+                    CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS))
+                    .thenCompose(ignored -> kafkaTemplate.send(record));
+        }
         future.whenComplete((result, ex) -> {
             if (ex == null) {
+                tenantMetrics.recordSent(tenant, bytes);
                 System.out.println("Sent message=[" + message + 
                     "] with offset=[" + result.getRecordMetadata().offset() + "]");
             } else {
+                tenantMetrics.recordFailed(tenant);
                 System.out.println("Unable to send message=[" + 
                     message + "] due to : " + ex.getMessage());
             }
         });
+        return future;
+    }
+
+    private static long sizeOf(String value) {
+        return value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
     }
 }
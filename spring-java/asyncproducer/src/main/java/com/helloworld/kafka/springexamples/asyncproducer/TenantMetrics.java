@@ -0,0 +1,81 @@
+package com.helloworld.kafka.springexamples.asyncproducer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caudal por tenant: registros y bytes confirmados, envíos retrasados, rechazados y fallidos.
+ * Se registran en el log y se reinician cada kafka.tenants.metrics-interval-ms.
+ */
+@Slf4j
+public class TenantMetrics {
+
+    private final long intervalMs;
+    private final Map<String, TenantCounters> counters = new ConcurrentHashMap<>();
+    private final AtomicLong lastLog = new AtomicLong(System.currentTimeMillis());
+
+    public TenantMetrics(long intervalMs) {
+        this.intervalMs = intervalMs;
+    }
+
+    void recordSent(String tenant, long bytes) {
+        TenantCounters tenantCounters = tenant(tenant);
+        tenantCounters.records.increment();
+        tenantCounters.bytes.add(bytes);
+        logIfDue();
+    }
+
+    void recordDelayed(String tenant) {
+        tenant(tenant).delayed.increment();
+    }
+
+    void recordRejected(String tenant) {
+        tenant(tenant).rejected.increment();
+        logIfDue();
+    }
+
+    void recordFailed(String tenant) {
+        tenant(tenant).failed.increment();
+    }
+
+    public void logMetrics() {
+        long now = System.currentTimeMillis();
+        logMetrics(now - lastLog.getAndSet(now));
+    }
+
+    private void logIfDue() {
+        long now = System.currentTimeMillis();
+        long last = lastLog.get();
+        if (now - last >= intervalMs && lastLog.compareAndSet(last, now)) {
+            logMetrics(now - last);
+        }
+    }
+
+    private void logMetrics(long elapsedMs) {
+        double seconds = Math.max(1, elapsedMs) / 1000.0;
+        counters.forEach((tenant, c) -> {
+            long records = c.records.sumThenReset();
+            long bytes = c.bytes.sumThenReset();
+            log.info("MÉTRICA - Tenant: {}, registros/s: {}, bytes/s: {}, retrasados: {}, rechazados: {}, "
+                    + "fallidos: {}", tenant, String.format("%.1f", records / seconds),
+                    String.format("%.0f", bytes / seconds), c.delayed.sumThenReset(), c.rejected.sumThenReset(),
+                    c.failed.sumThenReset());
+        });
+    }
+
+    private TenantCounters tenant(String tenant) {
+        return counters.computeIfAbsent(tenant, t -> new TenantCounters());
+    }
+
+    private static class TenantCounters {
+        private final LongAdder records = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder delayed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+    }
+}
@@ -0,0 +1,52 @@
+package com.helloworld.kafka.springexamples.asyncproducer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Propiedades kafka.tenants.*
+ */
+@Data
+@ConfigurationProperties(prefix = "kafka.tenants")
+public class TenantRateLimitSettings {
+
+    public enum Mode {
+        /** Se rechaza el envío en cuanto el tenant supera su cuota */
+        REJECT,
+        /** Se retrasa el envío hasta max-delay-ms; si hace falta más, se rechaza */
+        DELAY
+    }
+
+    /** Límite por defecto para tenants sin límite propio */
+    private Limit defaults = new Limit();
+
+    /** Límites por tenant: kafka.tenants.limits[equipo].records-per-sec=... */
+    private Map<String, Limit> limits = new HashMap<>();
+
+    private Mode mode = Mode.DELAY;
+
+    /** Retraso máximo de un envío en modo DELAY */
+    private long maxDelayMs = 1_000;
+
+    /** Intervalo entre registros de métricas por tenant */
+    private long metricsIntervalMs = 60_000;
+
+    public Limit limitFor(String tenant) {
+        return limits.getOrDefault(tenant, defaults);
+    }
+
+    @Data
+    public static class Limit {
+
+        private long recordsPerSec = 1_000;
+
+        private long bytesPerSec = 1024 * 1024;
+
+        /** Segundos de tasa que se admiten de golpe tras un periodo sin envíos */
+        private double burstSeconds = 1.0;
+    }
+}
@@ -0,0 +1,60 @@
+package com.helloworld.kafka.springexamples.asyncproducer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cuotas de registros/s y bytes/s por tenant, cada una con su {@link TokenBucket}.
+ *
+ * Un tenant que envía por encima de su cuota se retrasa o se rechaza (kafka.tenants.mode)
+ * antes de llegar al productor, así que no puede llenar buffer.memory y bloquear los envíos
+ * del resto. La ráfaga de bytes tiene que cubrir el registro más grande de cada tenant: un
+ * registro mayor que ella nunca se admite en modo REJECT.
+ */
+public class TenantRateLimiter {
+
+    private final TenantRateLimitSettings settings;
+    private final Map<String, Quota> quotas = new ConcurrentHashMap<>();
+
+    public TenantRateLimiter(TenantRateLimitSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Reserva cuota para un registro del tenant.
+     *
+     * @return nanosegundos que hay que esperar antes de enviarlo (0 para enviarlo ya)
+     * @throws TenantThrottledException si el tenant no tiene cuota dentro del retraso permitido
+     */
+    public long acquire(String tenant, long bytes) {
+        Quota quota = quotas.computeIfAbsent(tenant, this::newQuota);
+        long maxWaitNanos = settings.getMode() == TenantRateLimitSettings.Mode.REJECT ? 0
+                : TimeUnit.MILLISECONDS.toNanos(settings.getMaxDelayMs());
+
+        long recordsWait = quota.records.tryAcquire(1, maxWaitNanos);
+        if (recordsWait < 0) {
+            throw new TenantThrottledException(tenant, "registros/s");
+        }
+        long bytesWait = quota.bytes.tryAcquire(bytes, maxWaitNanos);
+        if (bytesWait < 0) {
+            quota.records.release(1);
+            throw new TenantThrottledException(tenant, "bytes/s");
+        }
+        return Math.max(recordsWait, bytesWait);
+    }
+
+    private Quota newQuota(String tenant) {
+        TenantRateLimitSettings.Limit limit = settings.limitFor(tenant);
+        return new Quota(
+                new TokenBucket(limit.getRecordsPerSec(), burst(limit.getRecordsPerSec(), limit.getBurstSeconds())),
+                new TokenBucket(limit.getBytesPerSec(), burst(limit.getBytesPerSec(), limit.getBurstSeconds())));
+    }
+
+    private static long burst(long ratePerSecond, double burstSeconds) {
+        return Math.max(1, (long) (ratePerSecond * burstSeconds));
+    }
+
+    private record Quota(TokenBucket records, TokenBucket bytes) {
+    }
+}
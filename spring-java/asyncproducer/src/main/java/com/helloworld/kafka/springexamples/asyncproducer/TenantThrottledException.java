@@ -0,0 +1,18 @@
+package com.helloworld.kafka.springexamples.asyncproducer;
+
+/**
+ * El tenant ha superado su cuota de registros o bytes por segundo
+ */
+public class TenantThrottledException extends RuntimeException {
+
+    private final String tenant;
+
+    public TenantThrottledException(String tenant, String quota) {
+        super("Tenant " + tenant + " supera su cuota de " + quota);
+        this.tenant = tenant;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+}
@@ -0,0 +1,61 @@
+package com.helloworld.kafka.springexamples.asyncproducer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sin bloqueos, implementado como GCRA (generic cell rate algorithm).
+ *
+ * En lugar de guardar los tokens disponibles y rellenarlos, guarda un único instante teórico
+ * (tat): cuándo quedaría el bucket vacío de deuda si no llegase nada más. Consumir n tokens
+ * es avanzarlo n / tasa segundos con un compareAndSet; se admite mientras el tat no quede más
+ * de burst por delante de ahora. Con contención solo se reintenta el CAS, sin locks ni hilos
+ * de relleno.
+ */
+class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong tat = new AtomicLong(System.nanoTime());
+
+    /**
+     * @param ratePerSecond tokens por segundo
+     * @param burst         tokens que se pueden consumir de golpe con el bucket lleno
+     */
+    TokenBucket(long ratePerSecond, long burst) {
+        if (ratePerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("La tasa y la ráfaga deben ser positivas");
+        }
+        this.nanosPerToken = Math.max(1, TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        this.burstNanos = burst * nanosPerToken;
+    }
+
+    /**
+     * Reserva tokens si la espera necesaria no pasa de maxWaitNanos.
+     *
+     * @return nanosegundos que hay que esperar antes de usar los tokens (0 si están
+     *         disponibles ya), o -1 si no se han reservado
+     */
+    long tryAcquire(long tokens, long maxWaitNanos) {
+        long cost = tokens * nanosPerToken;
+        while (true) {
+            long now = System.nanoTime();
+            long current = tat.get();
+            long next = Math.max(current, now) + cost;
+            long wait = next - now - burstNanos;
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return Math.max(0, wait);
+            }
+        }
+    }
+
+    /**
+     * Devuelve tokens reservados que al final no se usan
+     */
+    void release(long tokens) {
+        tat.addAndGet(-tokens * nanosPerToken);
+    }
+}
@@ -1,16 +1,17 @@
 package com.helloworld.kafka.springexamples.additional;
 
-import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.listener.DefaultErrorHandler;
-import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.util.backoff.FixedBackOff;
 
+import com.helloworld.kafka.springexamples.additional.dlq.DlqPublisher;
+import com.helloworld.kafka.springexamples.additional.filter.PreDeserializationFilter;
+import com.helloworld.kafka.springexamples.circuitbreaker.CircuitBreakerErrorHandler;
+
 @Configuration
 public class AdvancedErrorHandlingConfig {
 
@@ -20,7 +21,9 @@ public class AdvancedErrorHandlingConfig {
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory(
             ConsumerFactory<String, String> consumerFactory,
-            KafkaTemplate<String, String> kafkaTemplate) {
+            DlqPublisher dlqPublisher,
+            PreDeserializationFilter preDeserializationFilter,
+            @Value("${kafka.async.concurrency:3}") int concurrency) {
 
         ConcurrentKafkaListenerContainerFactory<String, String> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
@@ -29,23 +32,23 @@ public class AdvancedErrorHandlingConfig {
         // Configurar modo de confirmación manual
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
 
-        // Configurar manejador de errores con reintentos y DLQ
-        // Se intenta 3 veces con 1 segundo entre intentos, luego se envía a DLQ
-        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
-                (record, exception) -> {
-                    // Determinar el topic de DLQ basado en el topic original
-                    String dlqTopic = record.topic() + "-dlq";
-                    return new TopicPartition(dlqTopic, record.partition());
-                });
+        // Descartar los registros marcados por el filtro previo a la deserialización
+        // antes de convertirlos en mensajes, y confirmar sus offsets
+        factory.setRecordFilterStrategy(preDeserializationFilter.recordFilterStrategy());
+        factory.setAckDiscarded(true);
 
-        // Configurar reintentos con backoff fijo: intervalo de 1000ms y máximo 3 intentos
-        DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, new FixedBackOff(1000L, 3));
+        // Configurar manejador de errores con reintentos y DLQ
+        // Se intenta 3 veces con 1 segundo entre intentos, luego se envía a <topic>-dlq.
+        // DlqPublisher envía sin bloquear el listener y elige una partición que exista en la DLQ.
+        // Los registros rechazados con el circuito abierto se reentregan sin gastar intentos
+        CircuitBreakerErrorHandler errorHandler =
+                new CircuitBreakerErrorHandler(dlqPublisher, new FixedBackOff(1000L, 3));
 
         // En versiones modernas se utiliza setCommonErrorHandler en lugar de setErrorHandler
         factory.setCommonErrorHandler(errorHandler);
 
-        // Configurar concurrencia para procesamiento paralelo
-        factory.setConcurrency(3);
+        // Configurar concurrencia para procesamiento paralelo; AsyncListenerConfig dimensiona su cola con ella
+        factory.setConcurrency(concurrency);
 
         return factory;
     }
@@ -1,16 +1,28 @@
 package com.helloworld.kafka.springexamples.additional;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.TopicBuilder;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.springframework.kafka.core.KafkaAdmin;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.helloworld.kafka.springexamples.additional.capacity.CapacityPlan;
+import com.helloworld.kafka.springexamples.additional.capacity.CapacityPlanner;
+import com.helloworld.kafka.springexamples.additional.capacity.CapacityRequirements;
+import com.helloworld.kafka.springexamples.additional.capacity.PartitionThroughput;
+
+import lombok.extern.slf4j.Slf4j;
+
 /**
  * Ejemplo de configuración avanzada de tópicos Kafka
  * Este ejemplo muestra cómo configurar tópicos con diferentes configuraciones
@@ -18,6 +30,7 @@ import java.util.Map;
  */
 @SpringBootApplication
 @EnableKafka
+@Slf4j
 public class AdvancedTopicConfiguration {
 
     public static void main(String[] args) {
@@ -97,4 +110,25 @@ public class AdvancedTopicConfiguration {
                 .config("compression.type", "zstd") // Compresión agresiva
                 .build();
     }
+
+    /**
+     * Tópico dimensionado con el planificador de capacidad en lugar de fijar las particiones a mano.
+     * Usa la medida de una partición guardada por CapacityPlannerTool
+     */
+    @Bean
+    @ConditionalOnProperty("kafka.capacity.measurement-file")
+    public NewTopic plannedTopic(@Value("${kafka.capacity.measurement-file}") String measurementFile,
+            @Value("${kafka.capacity.topic:planned-topic}") String topic,
+            @Value("${kafka.capacity.target-rps}") double targetRecordsPerSec,
+            @Value("${kafka.capacity.record-bytes:1024}") int recordBytes,
+            @Value("${kafka.capacity.processing-ms:0}") double processingMillis,
+            @Value("${kafka.capacity.retention-hours:168}") long retentionHours,
+            @Value("${kafka.capacity.replicas:1}") short replicas) throws IOException {
+        CapacityRequirements requirements = new CapacityRequirements(topic, targetRecordsPerSec, recordBytes,
+                processingMillis, Duration.ofHours(retentionHours), replicas);
+        CapacityPlan plan = new CapacityPlanner()
+                .plan(requirements, PartitionThroughput.load(Paths.get(measurementFile)));
+        log.info("Plan de capacidad:\n{}", plan.describe());
+        return plan.toNewTopic();
+    }
 }
@@ -0,0 +1,43 @@
+package com.helloworld.kafka.springexamples.additional;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuración para listeners asíncronos (métodos que devuelven CompletableFuture).
+ *
+ * Cuando un @KafkaListener devuelve un CompletableFuture, Spring Kafka pasa el contenedor a
+ * confirmación MANUAL con commits fuera de orden: cada registro se confirma al completarse su
+ * future, pero el offset de una partición solo se envía al broker cuando todos los registros
+ * anteriores de esa partición han terminado.
+ *
+ * El número de registros en vuelo está acotado por kafka.async.max-in-flight, que los listeners
+ * aplican como max.poll.records: el contenedor no entrega un nuevo poll hasta completar el anterior.
+ * Ese límite es por consumidor; la fábrica arranca kafka.async.concurrency consumidores que
+ * comparten este executor, así que la cola admite concurrency * max-in-flight tareas.
+ */
+@Configuration
+public class AsyncListenerConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor asyncListenerExecutor(
+            @Value("${kafka.async.worker-threads:32}") int workerThreads,
+            @Value("${kafka.async.max-in-flight:256}") int maxInFlight,
+            @Value("${kafka.async.concurrency:3}") int concurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("async-listener-");
+        executor.setCorePoolSize(workerThreads);
+        executor.setMaxPoolSize(workerThreads);
+        // Caben a la vez un poll completo de cada consumidor de la fábrica
+        executor.setQueueCapacity(concurrency * maxInFlight);
+        // Si aun así se llena (p. ej. otro listener comparte el executor), el hilo del contenedor procesa
+        // el registro él mismo en lugar de fallar con TaskRejectedException
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -1,30 +1,55 @@
 package com.helloworld.kafka.springexamples.additional;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.config.TopicBuilder;
-import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Headers;
 import org.springframework.messaging.handler.annotation.Payload;
 
+import com.helloworld.kafka.springexamples.additional.dlq.DlqPublisher;
+import com.helloworld.kafka.springexamples.circuitbreaker.CircuitBreakerConfig;
+import com.helloworld.kafka.springexamples.circuitbreaker.DownstreamCircuitBreaker;
+
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Ejemplo de consumidor con manejo de errores mejorado y DLQ (Dead Letter Queue)
  * Este ejemplo muestra cómo implementar un consumidor con mejor manejo de errores,
  * reintentos personalizados y envío a cola de mensajes muertos (DLQ).
+ *
+ * El listener principal es asíncrono: devuelve un CompletableFuture y el procesamiento se
+ * ejecuta en el executor de {@link AsyncListenerConfig}, liberando el hilo del contenedor.
+ * El procesamiento pasa por el circuit breaker de {@link CircuitBreakerConfig}: si la
+ * dependencia cae, se pausa el consumo en lugar de reintentar cada registro.
  */
 @SpringBootApplication
+@Import(CircuitBreakerConfig.class)
 @Slf4j
 public class EnhancedConsumer {
 
+    private final Executor asyncListenerExecutor;
+    private final DownstreamCircuitBreaker circuitBreaker;
+    private final DlqPublisher dlqPublisher;
+
+    public EnhancedConsumer(@Qualifier("asyncListenerExecutor") Executor asyncListenerExecutor,
+            DownstreamCircuitBreaker circuitBreaker, DlqPublisher dlqPublisher) {
+        this.asyncListenerExecutor = asyncListenerExecutor;
+        this.circuitBreaker = circuitBreaker;
+        this.dlqPublisher = dlqPublisher;
+    }
+
     public static void main(String[] args) {
         SpringApplication.run(EnhancedConsumer.class, args);
     }
@@ -49,57 +74,36 @@ public class EnhancedConsumer {
         return topic;
     }
     
-    @KafkaListener(id = "enhancedListener", topics = "enhanced-topic")
-    public void listen(
+    @KafkaListener(id = "enhancedListener", topics = "enhanced-topic",
+            properties = "max.poll.records=${kafka.async.max-in-flight:256}")
+    public CompletableFuture<Void> listen(
         @Payload String message,
         @Header(KafkaHeaders.RECEIVED_KEY) String key,
+        @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
         @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
         @Header(KafkaHeaders.OFFSET) long offset,
-        @Headers Map<String, Object> headers,
-        Acknowledgment acknowledgment) {
+        @Headers Map<String, Object> headers) {
         
-        try {
-            log.info("Recibido mensaje: clave={}, valor={}, partición={}, offset={}", 
-                    key, message, partition, offset);
-            
+        log.info("Recibido mensaje: clave={}, valor={}, partición={}, offset={}", 
+                key, message, partition, offset);
+        
+        // El hilo del contenedor vuelve a hacer poll mientras el mensaje se procesa.
+        // Spring confirma el offset cuando el future termina y todos los anteriores de la partición también.
+        return CompletableFuture.runAsync(() -> {
             // Simulamos procesamiento del mensaje con validación
             if (!isValidMessage(message)) {
-                throw new IllegalArgumentException("Mensaje inválido: " + message);
+                // Error de validación - enviar a DLQ y confirmar para no reprocesar
+                log.warn("Error de validación, enviando a DLQ: Mensaje inválido: {}", message);
+                sendToDLQ(topic, partition, offset, key, message, "VALIDATION_ERROR", "Mensaje inválido: " + message);
+                return;
             }
             
-            // Procesamiento normal
-            processMessage(message);
-            
-            // Confirmamos manualmente el mensaje después de procesarlo correctamente
-            acknowledgment.acknowledge();
-            log.info("Mensaje procesado y confirmado correctamente");
-            
-        } catch (IllegalArgumentException e) {
-            // Error de validación - enviar a DLQ y confirmar para no reprocesar
-            log.warn("Error de validación, enviando a DLQ: {}", e.getMessage());
-            sendToDLQ(key, message, headers, "VALIDATION_ERROR", e.getMessage());
-            acknowledgment.acknowledge();
-            
-        } catch (Exception e) {
-            // Error de procesamiento - implementar lógica de reintentos
-            log.error("Error al procesar el mensaje: {}", e.getMessage());
-            
-            // Obtener contador de reintentos de los headers o inicializar
-            Integer retryCount = getRetryCount(headers);
-            
-            if (retryCount < 3) {
-                // No confirmar para que se reprocese
-                log.info("Reintento {}/3 para mensaje: clave={}, valor={}", 
-                        retryCount + 1, key, message);
-                // En una implementación real, podríamos usar un retraso exponencial
-                // o enviar a un topic de reintentos con un retraso programado
-            } else {
-                // Máximo de reintentos alcanzado - enviar a DLQ y confirmar
-                log.warn("Máximo de reintentos alcanzado, enviando a DLQ");
-                sendToDLQ(key, message, headers, "MAX_RETRIES", e.getMessage());
-                acknowledgment.acknowledge();
-            }
-        }
+            // Procesamiento normal. Si falla, el future termina con error y el DefaultErrorHandler
+            // de AdvancedErrorHandlingConfig reintenta y finalmente envía el mensaje a la DLQ.
+            // Con el circuito abierto falla con CircuitOpenException y se reentrega al reanudar
+            circuitBreaker.run(new TopicPartition(topic, partition), () -> processMessage(message));
+            log.info("Mensaje procesado y confirmado correctamente: partición={}, offset={}", partition, offset);
+        }, asyncListenerExecutor);
     }
     
     @KafkaListener(id = "dlqListener", topics = "enhanced-topic-dlq")
@@ -134,36 +138,15 @@ public class EnhancedConsumer {
         log.info("Procesamiento completado para el mensaje");
     }
     
-    private Integer getRetryCount(Map<String, Object> headers) {
-        // Obtener contador de reintentos de los headers o inicializar
-        Object retryHeader = headers.get("retry_count");
-        Integer retryCount = 0;
-        
-        if (retryHeader != null) {
-            try {
-                retryCount = Integer.parseInt(retryHeader.toString());
-            } catch (NumberFormatException e) {
-                log.warn("No se pudo parsear el contador de reintentos: {}", retryHeader);
-            }
-        }
-        
-        // Incrementar para el próximo reintento
-        headers.put("retry_count", retryCount + 1);
-        
-        return retryCount;
-    }
-    
-    private void sendToDLQ(String key, String message, Map<String, Object> headers, 
+    private void sendToDLQ(String topic, int partition, long offset, String key, String message,
                           String errorReason, String errorDescription) {
-        // En una implementación real, aquí enviaríamos el mensaje a la DLQ
-        // usando un KafkaTemplate
         log.info("Enviando a DLQ: clave={}, valor={}, error={}, descripción={}", 
                 key, message, errorReason, errorDescription);
         
-        // Agregar información de error a los headers
-        headers.put("error_reason", errorReason);
-        headers.put("error_description", errorDescription);
-        
-        // Aquí iría el código para enviar a la DLQ usando KafkaTemplate
+        // Envío asíncrono: el future del listener termina sin esperar a la DLQ, pero el offset
+        // no se confirma hasta que la DLQ lo confirme (DlqCommitGuard).
+        // Los headers del mensaje recibido son inmutables; la información de error viaja
+        // en headers nuevos del registro de la DLQ
+        dlqPublisher.publish(topic, partition, offset, key, message, errorReason, errorDescription);
     }
 }
@@ -5,10 +5,13 @@ import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.kafka.config.TopicBuilder;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 
+import com.helloworld.kafka.springexamples.additional.retry.RetryConfig;
+import com.helloworld.kafka.springexamples.additional.retry.RetryingSender;
+
 import java.util.Scanner;
 import java.util.concurrent.CompletableFuture;
 
@@ -18,8 +21,12 @@ import lombok.extern.slf4j.Slf4j;
  * Ejemplo de productor con manejo de errores mejorado y monitorización
  * Este ejemplo muestra cómo implementar un productor con mejor manejo de errores,
  * reintentos personalizados y monitorización de métricas.
+ *
+ * Los reintentos los hace {@link RetryingSender}: backoff con jitter en un planificador
+ * compartido, plazo por registro y presupuesto global (kafka.retry.*).
  */
 @SpringBootApplication
+@Import(RetryConfig.class)
 @Slf4j
 public class EnhancedProducer {
 
@@ -38,12 +45,12 @@ public class EnhancedProducer {
     }
 
     @Bean
-    public ApplicationRunner runner(KafkaTemplate<String, String> template) {
+    public ApplicationRunner runner(RetryingSender<String, String> sender) {
         return args -> {
             Scanner scanner = new Scanner(System.in);
             log.info("Productor mejorado con manejo de errores y monitorización");
             log.info("Características:");
-            log.info("- Manejo de errores mejorado con reintentos personalizados");
+            log.info("- Reintentos con backoff y jitter, plazo por registro y presupuesto global");
             log.info("- Monitorización de métricas de envío");
             log.info("- Registro detallado de eventos");
             
@@ -60,9 +67,9 @@ public class EnhancedProducer {
                     continue;
                 }
                 
-                // Envío con manejo de errores mejorado
+                // Envío con reintentos: el future se completa tras el último intento
                 long startTime = System.currentTimeMillis();
-                CompletableFuture<SendResult<String, String>> future = template.send("enhanced-topic", data[0], data[1]);
+                CompletableFuture<SendResult<String, String>> future = sender.send("enhanced-topic", data[0], data[1]);
                 
                 future.whenComplete((result, ex) -> {
                     long latency = System.currentTimeMillis() - startTime;
@@ -78,9 +85,7 @@ public class EnhancedProducer {
                         
                         // Métricas de envío fallido
                         logMetrics("failure", latency, -1);
-                        
-                        // Implementación de reintentos personalizados
-                        retryMessage(template, data[0], data[1], 3);
+                        // En un caso real, aquí se podría enviar a una cola de mensajes muertos (DLQ)
                     }
                 });
             }
@@ -93,39 +98,4 @@ public class EnhancedProducer {
         log.info("MÉTRICA - Status: {}, Latencia: {}ms, Partición: {}", 
                 status, latency, partition >= 0 ? partition : "N/A");
     }
-    
-    private void retryMessage(KafkaTemplate<String, String> template, String key, String value, int maxRetries) {
-        // Implementación de reintentos personalizados con backoff exponencial
-        new Thread(() -> {
-            int retries = 0;
-            boolean sent = false;
-            
-            while (!sent && retries < maxRetries) {
-                try {
-                    // Backoff exponencial
-                    long backoffTime = (long) Math.pow(2, retries) * 100;
-                    Thread.sleep(backoffTime);
-                    
-                    retries++;
-                    log.info("Reintentando envío (intento {}/{}): clave={}, valor={}", 
-                            retries, maxRetries, key, value);
-                    
-                    CompletableFuture<SendResult<String, String>> future = template.send("enhanced-topic", key, value);
-                    future.get(); // Esperar a que se complete el envío
-                    
-                    log.info("Reintento exitoso en el intento {}: clave={}, valor={}", retries, key, value);
-                    sent = true;
-                    
-                } catch (Exception e) {
-                    log.error("Error en reintento {}: clave={}, valor={}, error={}", 
-                            retries, key, value, e.getMessage());
-                    
-                    if (retries >= maxRetries) {
-                        log.error("Se agotaron los reintentos para: clave={}, valor={}", key, value);
-                        // En un caso real, aquí se podría enviar a una cola de mensajes muertos (DLQ)
-                    }
-                }
-            }
-        }).start();
-    }
 }
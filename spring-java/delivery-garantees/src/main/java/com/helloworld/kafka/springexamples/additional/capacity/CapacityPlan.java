@@ -0,0 +1,126 @@
+package com.helloworld.kafka.springexamples.additional.capacity;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * Recomendación de {@link CapacityPlanner} para un topic.
+ */
+public class CapacityPlan {
+
+    private final CapacityRequirements requirements;
+    private final PartitionThroughput measured;
+    private final int partitions;
+    private final int consumers;
+    private final int producerBound;
+    private final int fetchBound;
+    private final long segmentBytes;
+    private final long segmentMs;
+    private final long retentionMs;
+    private final long retentionBytes;
+
+    CapacityPlan(CapacityRequirements requirements, PartitionThroughput measured, int partitions, int consumers,
+            int producerBound, int fetchBound, long segmentBytes, long segmentMs, long retentionMs,
+            long retentionBytes) {
+        this.requirements = requirements;
+        this.measured = measured;
+        this.partitions = partitions;
+        this.consumers = consumers;
+        this.producerBound = producerBound;
+        this.fetchBound = fetchBound;
+        this.segmentBytes = segmentBytes;
+        this.segmentMs = segmentMs;
+        this.retentionMs = retentionMs;
+        this.retentionBytes = retentionBytes;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * Instancias (o hilos de concurrencia del listener) necesarias para el tiempo de procesamiento
+     */
+    public int getConsumers() {
+        return consumers;
+    }
+
+    public long getSegmentBytes() {
+        return segmentBytes;
+    }
+
+    public long getSegmentMs() {
+        return segmentMs;
+    }
+
+    public long getRetentionMs() {
+        return retentionMs;
+    }
+
+    public long getRetentionBytes() {
+        return retentionBytes;
+    }
+
+    /**
+     * Disco máximo en el cluster: retention.bytes por partición y réplica
+     */
+    public long estimatedDiskBytes() {
+        return retentionBytes * partitions * requirements.getReplicas();
+    }
+
+    public NewTopic toNewTopic() {
+        return TopicBuilder.name(requirements.getTopic())
+                .partitions(partitions)
+                .replicas(requirements.getReplicas())
+                .config("retention.ms", Long.toString(retentionMs))
+                .config("retention.bytes", Long.toString(retentionBytes))
+                .config("segment.bytes", Long.toString(segmentBytes))
+                .config("segment.ms", Long.toString(segmentMs))
+                .build();
+    }
+
+    /**
+     * Definición del bean equivalente a {@link #toNewTopic()}, para pegar en una configuración
+     */
+    public String toTopicBuilderSource() {
+        return "    @Bean\n"
+                + "    public NewTopic " + beanName() + "() {\n"
+                + "        return TopicBuilder.name(\"" + requirements.getTopic() + "\")\n"
+                + "                .partitions(" + partitions + ") // " + consumers + " consumidores\n"
+                + "                .replicas(" + requirements.getReplicas() + ")\n"
+                + "                .config(\"retention.ms\", \"" + retentionMs + "\")\n"
+                + "                .config(\"retention.bytes\", \"" + retentionBytes + "\")\n"
+                + "                .config(\"segment.bytes\", \"" + segmentBytes + "\")\n"
+                + "                .config(\"segment.ms\", \"" + segmentMs + "\")\n"
+                + "                .build();\n"
+                + "    }\n";
+    }
+
+    public String describe() {
+        return String.format("Topic %s: %.0f reg/s de %d bytes, %.2f ms/registro, retención %s%n"
+                + "  Medido: %s%n"
+                + "  Particiones por productor: %d, por fetch del consumidor: %d, consumidores por procesamiento: %d%n"
+                + "  Recomendado: %d particiones, %d consumidores%n"
+                + "  segment.bytes=%d segment.ms=%d retention.ms=%d retention.bytes=%d%n"
+                + "  Disco máximo con %d réplicas: %d MB",
+                requirements.getTopic(), requirements.getTargetRecordsPerSec(), requirements.getRecordBytes(),
+                requirements.getProcessingMillisPerRecord(), requirements.getRetention(), measured,
+                producerBound, fetchBound, consumers, partitions, consumers,
+                segmentBytes, segmentMs, retentionMs, retentionBytes,
+                requirements.getReplicas(), estimatedDiskBytes() / (1024 * 1024));
+    }
+
+    private String beanName() {
+        StringBuilder name = new StringBuilder();
+        boolean upper = false;
+        for (char c : requirements.getTopic().toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                name.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            } else {
+                upper = name.length() > 0;
+            }
+        }
+        return name.append("Topic").toString();
+    }
+}
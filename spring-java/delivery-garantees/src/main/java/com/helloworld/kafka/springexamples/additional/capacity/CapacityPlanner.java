@@ -0,0 +1,73 @@
+package com.helloworld.kafka.springexamples.additional.capacity;
+
+import java.time.Duration;
+
+/**
+ * Calcula particiones, consumidores y configuración de segmentos/retención a partir de los
+ * requisitos de un topic y del caudal medido en una partición.
+ *
+ * Las particiones necesarias son el máximo de tres límites, cada uno con el margen de
+ * {@code headroom}: lo que admite el productor por partición, lo que admite el fetch del
+ * consumidor por partición y el número de consumidores que exige el tiempo de procesamiento
+ * (cada partición la procesa un único hilo). El resultado se redondea a un múltiplo del
+ * número de consumidores para que el reparto sea uniforme.
+ */
+public class CapacityPlanner {
+
+    public static final double DEFAULT_HEADROOM = 1.5;
+
+    /** Un segmento cubre 1/24 de la retención: como mucho ~4% de datos por encima de retention.ms */
+    private static final int SEGMENTS_PER_RETENTION = 24;
+    private static final long MIN_SEGMENT_BYTES = 16L * 1024 * 1024;
+    private static final long MAX_SEGMENT_BYTES = 1024L * 1024 * 1024;
+    private static final Duration MIN_SEGMENT_MS = Duration.ofMinutes(10);
+    private static final Duration MAX_SEGMENT_MS = Duration.ofDays(7);
+
+    private final double headroom;
+
+    public CapacityPlanner() {
+        this(DEFAULT_HEADROOM);
+    }
+
+    public CapacityPlanner(double headroom) {
+        if (headroom < 1.0) {
+            throw new IllegalArgumentException("El margen debe ser >= 1.0");
+        }
+        this.headroom = headroom;
+    }
+
+    public CapacityPlan plan(CapacityRequirements requirements, PartitionThroughput measured) {
+        double target = requirements.getTargetRecordsPerSec() * headroom;
+        // Si el registro real es distinto del medido, se escala el caudal por bytes
+        double sizeFactor = (double) measured.getRecordBytes() / requirements.getRecordBytes();
+
+        int producerBound = ceil(target / (measured.getProducerRecordsPerSec() * sizeFactor));
+        int fetchBound = ceil(target / (measured.getConsumerRecordsPerSec() * sizeFactor));
+        int consumers = requirements.getProcessingMillisPerRecord() > 0
+                ? ceil(target * requirements.getProcessingMillisPerRecord() / 1000.0)
+                : fetchBound;
+
+        int partitions = Math.max(Math.max(producerBound, fetchBound), consumers);
+        partitions = ceil((double) partitions / consumers) * consumers;
+
+        long retentionMs = requirements.getRetention().toMillis();
+        long bytesPerPartition = (long) Math.ceil(requirements.targetBytesPerSec()
+                * requirements.getRetention().toSeconds() / partitions);
+        long segmentBytes = clamp(bytesPerPartition / SEGMENTS_PER_RETENTION, MIN_SEGMENT_BYTES, MAX_SEGMENT_BYTES);
+        long segmentMs = clamp(retentionMs / SEGMENTS_PER_RETENTION,
+                MIN_SEGMENT_MS.toMillis(), MAX_SEGMENT_MS.toMillis());
+        // retention.bytes es un tope de seguridad por partición, no el criterio principal
+        long retentionBytes = (long) (bytesPerPartition * headroom) + segmentBytes;
+
+        return new CapacityPlan(requirements, measured, partitions, consumers, producerBound, fetchBound,
+                segmentBytes, segmentMs, retentionMs, retentionBytes);
+    }
+
+    private static int ceil(double value) {
+        return Math.max(1, (int) Math.ceil(value));
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,93 @@
+package com.helloworld.kafka.springexamples.additional.capacity;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+
+import com.helloworld.kafka.springexamples.profiles.PerformanceProfile;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Herramienta de línea de comandos del planificador de capacidad.
+ *
+ * Mide (o recarga de --measurement-file) el caudal de una partición, calcula el plan y lo
+ * muestra junto con la definición del bean NewTopic. Con --create=true crea el topic.
+ *
+ * Ejemplo:
+ * <pre>
+ * CapacityPlannerTool --topic=orders --target-rps=50000 --record-bytes=1024 \
+ *     --processing-ms=2 --retention-hours=72 --replicas=3
+ * </pre>
+ */
+@Slf4j
+public class CapacityPlannerTool {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String bootstrap = options.getOrDefault("bootstrap", "localhost:29092");
+        int recordBytes = Integer.parseInt(options.getOrDefault("record-bytes", "1024"));
+
+        CapacityRequirements requirements = new CapacityRequirements(
+                require(options, "topic"),
+                Double.parseDouble(require(options, "target-rps")),
+                recordBytes,
+                Double.parseDouble(options.getOrDefault("processing-ms", "0")),
+                Duration.ofHours(Long.parseLong(options.getOrDefault("retention-hours", "168"))),
+                Short.parseShort(options.getOrDefault("replicas", "1")));
+
+        Path measurementFile = Paths.get(options.getOrDefault("measurement-file",
+                "benchmarks/capacity/partition-" + recordBytes + "b.properties"));
+        PartitionThroughput measured;
+        if (Files.exists(measurementFile) && !Boolean.parseBoolean(options.get("remeasure"))) {
+            measured = PartitionThroughput.load(measurementFile);
+            log.info("Usando medida guardada en {}: {}", measurementFile, measured);
+        } else {
+            PerformanceProfile profile = PerformanceProfile.fromExternalName(
+                    options.getOrDefault("profile", PerformanceProfile.DURABLE.externalName()));
+            measured = new PartitionThroughputProbe(bootstrap, profile)
+                    .measure(recordBytes, Integer.parseInt(options.getOrDefault("probe-records", "200000")));
+            measured.store(measurementFile);
+        }
+
+        CapacityPlan plan = new CapacityPlanner(Double.parseDouble(
+                options.getOrDefault("headroom", Double.toString(CapacityPlanner.DEFAULT_HEADROOM))))
+                .plan(requirements, measured);
+        log.info("Plan de capacidad:\n{}", plan.describe());
+        log.info("Definición para AdvancedTopicConfiguration:\n{}", plan.toTopicBuilderSource());
+
+        if (Boolean.parseBoolean(options.get("create"))) {
+            try (AdminClient admin = AdminClient.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap))) {
+                admin.createTopics(List.of(plan.toNewTopic())).all().get();
+                log.info("Topic {} creado con {} particiones", requirements.getTopic(), plan.getPartitions());
+            }
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento no válido, se espera --clave=valor: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    private static String require(Map<String, String> options, String key) {
+        String value = options.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Falta el argumento --" + key);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,59 @@
+package com.helloworld.kafka.springexamples.additional.capacity;
+
+import java.time.Duration;
+
+/**
+ * Requisitos de un topic a dimensionar: caudal objetivo, tamaño de registro,
+ * coste de procesamiento por registro y retención.
+ */
+public class CapacityRequirements {
+
+    private final String topic;
+    private final double targetRecordsPerSec;
+    private final int recordBytes;
+    private final double processingMillisPerRecord;
+    private final Duration retention;
+    private final short replicas;
+
+    public CapacityRequirements(String topic, double targetRecordsPerSec, int recordBytes,
+            double processingMillisPerRecord, Duration retention, short replicas) {
+        if (targetRecordsPerSec <= 0 || recordBytes <= 0 || processingMillisPerRecord < 0) {
+            throw new IllegalArgumentException("Caudal y tamaño de registro deben ser positivos "
+                    + "y el tiempo de procesamiento no negativo");
+        }
+        this.topic = topic;
+        this.targetRecordsPerSec = targetRecordsPerSec;
+        this.recordBytes = recordBytes;
+        this.processingMillisPerRecord = processingMillisPerRecord;
+        this.retention = retention;
+        this.replicas = replicas;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public double getTargetRecordsPerSec() {
+        return targetRecordsPerSec;
+    }
+
+    public int getRecordBytes() {
+        return recordBytes;
+    }
+
+    public double getProcessingMillisPerRecord() {
+        return processingMillisPerRecord;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public short getReplicas() {
+        return replicas;
+    }
+
+    public double targetBytesPerSec() {
+        return targetRecordsPerSec * recordBytes;
+    }
+}
@@ -0,0 +1,70 @@
+package com.helloworld.kafka.springexamples.additional.capacity;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Properties;
+
+/**
+ * Caudal medido sobre una única partición del cluster local, para un tamaño de registro dado.
+ * Se puede guardar y recargar para planificar sin repetir la medida.
+ */
+public class PartitionThroughput {
+
+    private final int recordBytes;
+    private final double producerRecordsPerSec;
+    private final double consumerRecordsPerSec;
+
+    public PartitionThroughput(int recordBytes, double producerRecordsPerSec, double consumerRecordsPerSec) {
+        this.recordBytes = recordBytes;
+        this.producerRecordsPerSec = producerRecordsPerSec;
+        this.consumerRecordsPerSec = consumerRecordsPerSec;
+    }
+
+    public int getRecordBytes() {
+        return recordBytes;
+    }
+
+    public double getProducerRecordsPerSec() {
+        return producerRecordsPerSec;
+    }
+
+    public double getConsumerRecordsPerSec() {
+        return consumerRecordsPerSec;
+    }
+
+    public void store(Path file) throws IOException {
+        Properties props = new Properties();
+        props.setProperty("measured.at", Instant.now().toString());
+        props.setProperty("record.bytes", Integer.toString(recordBytes));
+        props.setProperty("producer.records-per-sec-per-partition", Double.toString(producerRecordsPerSec));
+        props.setProperty("consumer.records-per-sec-per-partition", Double.toString(consumerRecordsPerSec));
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            props.store(writer, "Generado por CapacityPlannerTool");
+        }
+    }
+
+    public static PartitionThroughput load(Path file) throws IOException {
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            props.load(reader);
+        }
+        return new PartitionThroughput(
+                Integer.parseInt(props.getProperty("record.bytes")),
+                Double.parseDouble(props.getProperty("producer.records-per-sec-per-partition")),
+                Double.parseDouble(props.getProperty("consumer.records-per-sec-per-partition")));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("productor %.0f reg/s, consumidor %.0f reg/s por partición (%d bytes)",
+                producerRecordsPerSec, consumerRecordsPerSec, recordBytes);
+    }
+}
@@ -0,0 +1,115 @@
+package com.helloworld.kafka.springexamples.additional.capacity;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+
+import com.helloworld.kafka.springexamples.profiles.ClientConfigBuilder;
+import com.helloworld.kafka.springexamples.profiles.PerformanceProfile;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mide el caudal de un productor y un consumidor contra un topic temporal de una sola
+ * partición. El topic se borra al terminar.
+ */
+@Slf4j
+public class PartitionThroughputProbe {
+
+    private static final Duration CONSUME_TIMEOUT = Duration.ofMinutes(5);
+
+    private final String bootstrap;
+    private final PerformanceProfile profile;
+
+    public PartitionThroughputProbe(String bootstrap, PerformanceProfile profile) {
+        this.bootstrap = bootstrap;
+        this.profile = profile;
+    }
+
+    public PartitionThroughput measure(int recordBytes, int records) throws InterruptedException, ExecutionException {
+        String topic = "capacity-probe-" + UUID.randomUUID();
+        try (AdminClient admin = AdminClient.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap))) {
+            admin.createTopics(List.of(new NewTopic(topic, 1, (short) 1))).all().get();
+            try {
+                double producerRate = produce(topic, recordBytes, records);
+                double consumerRate = consume(topic, recordBytes, records);
+                PartitionThroughput result = new PartitionThroughput(recordBytes, producerRate, consumerRate);
+                log.info("Caudal medido en una partición: {}", result);
+                return result;
+            } finally {
+                admin.deleteTopics(List.of(topic)).all().get();
+            }
+        }
+    }
+
+    private double produce(String topic, int recordBytes, int records) throws InterruptedException, ExecutionException {
+        Map<String, Object> props = ClientConfigBuilder.producer(profile)
+                .with(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap)
+                .with(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class)
+                .with(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class)
+                .typicalRecordBytes(recordBytes)
+                .build();
+        byte[] payload = new byte[recordBytes];
+        Arrays.fill(payload, (byte) 'x');
+
+        try (KafkaProducer<byte[], byte[]> producer = new KafkaProducer<>(props)) {
+            // Calentamiento: metadatos y conexión fuera de la medida
+            producer.send(new ProducerRecord<>(topic, 0, null, payload)).get();
+            long start = System.nanoTime();
+            for (int i = 0; i < records; i++) {
+                producer.send(new ProducerRecord<>(topic, 0, null, payload));
+            }
+            producer.flush();
+            return records / seconds(start);
+        }
+    }
+
+    private double consume(String topic, int recordBytes, int records) {
+        Map<String, Object> props = ClientConfigBuilder.consumer(profile)
+                .with(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap)
+                .with(ConsumerConfig.GROUP_ID_CONFIG, "capacity-probe-" + UUID.randomUUID())
+                .with(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false)
+                .with(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class)
+                .with(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class)
+                .typicalRecordBytes(recordBytes)
+                .build();
+        TopicPartition partition = new TopicPartition(topic, 0);
+        // Incluye el registro de calentamiento
+        long expected = records + 1L;
+
+        try (KafkaConsumer<byte[], byte[]> consumer = new KafkaConsumer<>(props)) {
+            // Asignación directa: la medida no incluye la unión al grupo
+            consumer.assign(List.of(partition));
+            consumer.seekToBeginning(List.of(partition));
+            long consumed = 0;
+            long start = System.nanoTime();
+            long deadline = start + CONSUME_TIMEOUT.toNanos();
+            while (consumed < expected && System.nanoTime() < deadline) {
+                consumed += consumer.poll(Duration.ofMillis(500)).count();
+            }
+            if (consumed < expected) {
+                log.warn("Timeout midiendo el consumidor: leídos {} de {}", consumed, expected);
+            }
+            return consumed / seconds(start);
+        }
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    }
+}
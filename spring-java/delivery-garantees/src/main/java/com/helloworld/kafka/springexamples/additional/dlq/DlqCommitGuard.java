@@ -0,0 +1,128 @@
+package com.helloworld.kafka.springexamples.additional.dlq;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.ConsumerPostProcessor;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Envuelve los consumidores de la fábrica para que ningún commit pase por delante de un envío
+ * a la DLQ sin confirmar.
+ *
+ * Antes de cada commitSync/commitAsync espera a los envíos de {@link DlqPublisher} anteriores
+ * al offset de cada partición. Si alguno ha fallado, esa partición se confirma solo hasta el
+ * registro fallido y el consumidor vuelve a él, así que se entrega de nuevo. La espera ocurre
+ * en el hilo del consumidor y solo antes de confirmar; el listener sigue sin bloquearse.
+ *
+ * Los commits sin offsets explícitos se convierten a la posición actual de cada partición
+ * asignada. Al asignar o perder particiones se olvidan sus envíos pendientes: los de una
+ * partición revocada ya se han resuelto en el commit de la revocación.
+ */
+@Slf4j
+public class DlqCommitGuard implements ConsumerPostProcessor<Object, Object> {
+
+    private final DlqPublisher publisher;
+
+    public DlqCommitGuard(DlqPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Consumer<Object, Object> apply(Consumer<Object, Object> consumer) {
+        return (Consumer<Object, Object>) Proxy.newProxyInstance(Consumer.class.getClassLoader(),
+                new Class<?>[] {Consumer.class}, (proxy, method, args) -> invoke(consumer, method, args));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object invoke(Consumer<Object, Object> consumer, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (name.equals("commitSync") || name.equals("commitAsync")) {
+            if (args != null && args.length > 0 && args[0] instanceof Map) {
+                args[0] = guard(consumer, (Map<TopicPartition, OffsetAndMetadata>) args[0]);
+            } else {
+                commitPositions(consumer, name, args);
+                return null;
+            }
+        } else if (name.equals("subscribe") && args != null && args.length == 2
+                && args[1] instanceof ConsumerRebalanceListener listener) {
+            args[1] = new ForgettingRebalanceListener(listener);
+        }
+        try {
+            return method.invoke(consumer, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void commitPositions(Consumer<Object, Object> consumer, String name, Object[] args) {
+        Map<TopicPartition, OffsetAndMetadata> positions = new HashMap<>();
+        for (TopicPartition partition : consumer.assignment()) {
+            positions.put(partition, new OffsetAndMetadata(consumer.position(partition)));
+        }
+        Map<TopicPartition, OffsetAndMetadata> offsets = guard(consumer, positions);
+        Object arg = args == null || args.length == 0 ? null : args[0];
+        if (name.equals("commitAsync")) {
+            consumer.commitAsync(offsets, (OffsetCommitCallback) arg);
+        } else if (arg instanceof Duration timeout) {
+            consumer.commitSync(offsets, timeout);
+        } else {
+            consumer.commitSync(offsets);
+        }
+    }
+
+    private Map<TopicPartition, OffsetAndMetadata> guard(Consumer<Object, Object> consumer,
+            Map<TopicPartition, OffsetAndMetadata> offsets) {
+        Map<TopicPartition, OffsetAndMetadata> guarded = new HashMap<>(offsets);
+        offsets.forEach((partition, offset) -> {
+            long failed = publisher.awaitBefore(partition, offset.offset());
+            if (failed >= 0) {
+                log.warn("Envío a la DLQ fallido en {}@{}: se confirma hasta ahí y se vuelve a entregar", partition,
+                        failed);
+                guarded.put(partition, new OffsetAndMetadata(failed, offset.metadata()));
+                if (consumer.assignment().contains(partition)) {
+                    consumer.seek(partition, failed);
+                }
+            }
+        });
+        return guarded;
+    }
+
+    private final class ForgettingRebalanceListener implements ConsumerRebalanceListener {
+
+        private final ConsumerRebalanceListener delegate;
+
+        ForgettingRebalanceListener(ConsumerRebalanceListener delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+            delegate.onPartitionsRevoked(partitions);
+        }
+
+        @Override
+        public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+            publisher.forget(partitions);
+            delegate.onPartitionsAssigned(partitions);
+        }
+
+        @Override
+        public void onPartitionsLost(Collection<TopicPartition> partitions) {
+            publisher.forget(partitions);
+            delegate.onPartitionsLost(partitions);
+        }
+    }
+}
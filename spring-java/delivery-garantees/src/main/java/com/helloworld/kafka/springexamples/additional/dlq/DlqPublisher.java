@@ -0,0 +1,297 @@
+package com.helloworld.kafka.springexamples.additional.dlq;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.ListenerExecutionFailedException;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.SendResult;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publica registros fallidos en &lt;topic&gt;-dlq sin esperar la confirmación.
+ *
+ * Sustituye a DeadLetterPublishingRecoverer, que bloquea el hilo del listener en cada envío
+ * y reutiliza la partición del registro original aunque la DLQ tenga menos particiones:
+ * - El envío es asíncrono con un productor propio con linger y compresión, así que una
+ *   ráfaga de fallos sale en pocos lotes. Como mucho maxInFlight envíos sin confirmar; por
+ *   encima, el listener espera (presión hacia atrás en lugar de memoria sin límite).
+ * - La partición es el hash de la clave módulo el número real de particiones de la DLQ,
+ *   leído de los metadatos y guardado durante {@link #PARTITION_CACHE_MS}. Sin clave se usa
+ *   la partición original módulo ese número. Los metadatos se leen en un hilo propio: al
+ *   caducar se sigue usando el valor anterior mientras se refrescan, y el primer envío a una
+ *   DLQ espera a los metadatos fuera del hilo del listener.
+ * - Las cabeceras de error son compactas: motivo, descripción acortada, clase de la
+ *   excepción y topic/partición/offset/timestamp originales, sin la traza completa.
+ *
+ * El recuperador vuelve antes de que la DLQ confirme, así que el offset del registro no se
+ * puede confirmar todavía: los envíos pendientes se guardan por partición de origen y
+ * {@link DlqCommitGuard} espera por ellos antes de cada commit del consumidor. Si un envío ha
+ * fallado, el commit se queda en ese registro y el consumidor vuelve a él, que se procesa y
+ * se publica de nuevo, igual que cuando falla DeadLetterPublishingRecoverer.
+ */
+@Slf4j
+public class DlqPublisher implements ConsumerRecordRecoverer, DisposableBean {
+
+    public static final String DLQ_SUFFIX = "-dlq";
+    public static final String ERROR_REASON_HEADER = "error_reason";
+    public static final String ERROR_DESCRIPTION_HEADER = "error_description";
+    public static final String PROCESSING_ERROR = "PROCESSING_ERROR";
+
+    static final long PARTITION_CACHE_MS = 300_000;
+    private static final int MAX_DESCRIPTION_CHARS = 256;
+    private static final long IN_FLIGHT_TIMEOUT_MS = 30_000;
+
+    private final KafkaTemplate<Object, Object> template;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final Map<String, PartitionCount> partitionCounts = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final Map<TopicPartition, NavigableMap<Long, CompletableFuture<Void>>> pending = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, NavigableSet<Long>> failedOffsets = new ConcurrentHashMap<>();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final ExecutorService metadataExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dlq-metadata");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DlqPublisher(KafkaTemplate<Object, Object> template, int maxInFlight) {
+        this.template = template;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Recuperador para DefaultErrorHandler: publica el registro que ha agotado los reintentos
+     */
+    @Override
+    public void accept(ConsumerRecord<?, ?> record, Exception exception) {
+        Throwable cause = exception instanceof ListenerExecutionFailedException && exception.getCause() != null
+                ? exception.getCause()
+                : exception;
+        publish(record, PROCESSING_ERROR, String.valueOf(cause.getMessage()), cause);
+    }
+
+    public CompletableFuture<SendResult<Object, Object>> publish(ConsumerRecord<?, ?> record, String reason,
+            String description, Throwable cause) {
+        Headers headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            // Las cabeceras de un fallo anterior se sustituyen por las de este
+            if (!header.key().startsWith(KafkaHeaders.PREFIX) && !header.key().startsWith("error_")) {
+                headers.add(header);
+            }
+        }
+        return publish(record.topic(), record.partition(), record.offset(), record.timestamp(), record.key(),
+                record.value(), headers, reason, description, cause);
+    }
+
+    /**
+     * Publica un mensaje del que el listener solo tiene la clave, el valor y sus coordenadas
+     */
+    public CompletableFuture<SendResult<Object, Object>> publish(String topic, int partition, long offset,
+            Object key, Object value, String reason, String description) {
+        return publish(topic, partition, offset, System.currentTimeMillis(), key, value, new RecordHeaders(), reason,
+                description, null);
+    }
+
+    private CompletableFuture<SendResult<Object, Object>> publish(String topic, int partition, long offset,
+            long timestamp, Object key, Object value, Headers headers, String reason, String description,
+            Throwable cause) {
+        String dlqTopic = topic + DLQ_SUFFIX;
+        headers.add(ERROR_REASON_HEADER, utf8(reason));
+        headers.add(ERROR_DESCRIPTION_HEADER, utf8(truncate(description)));
+        if (cause != null) {
+            headers.add(KafkaHeaders.DLT_EXCEPTION_FQCN, utf8(cause.getClass().getName()));
+        }
+        headers.add(KafkaHeaders.DLT_ORIGINAL_TOPIC, utf8(topic));
+        headers.add(KafkaHeaders.DLT_ORIGINAL_PARTITION, ByteBuffer.allocate(Integer.BYTES).putInt(partition).array());
+        headers.add(KafkaHeaders.DLT_ORIGINAL_OFFSET, ByteBuffer.allocate(Long.BYTES).putLong(offset).array());
+        headers.add(KafkaHeaders.DLT_ORIGINAL_TIMESTAMP, ByteBuffer.allocate(Long.BYTES).putLong(timestamp).array());
+
+        acquire(topic, partition, offset);
+        CompletableFuture<SendResult<Object, Object>> future;
+        PartitionCount cached = partitionCounts.get(dlqTopic);
+        try {
+            if (cached == null) {
+                // Primer envío a esta DLQ: los metadatos se esperan en dlq-metadata
+                future = CompletableFuture.supplyAsync(() -> refreshPartitionCount(dlqTopic), metadataExecutor)
+                        .thenCompose(count -> template.send(new ProducerRecord<>(dlqTopic,
+                                dlqPartition(count, key, partition), key, value, headers)));
+            } else {
+                if (System.currentTimeMillis() - cached.readAt >= PARTITION_CACHE_MS) {
+                    refreshPartitionCountAsync(dlqTopic);
+                }
+                future = template.send(new ProducerRecord<>(dlqTopic, dlqPartition(cached.count, key, partition),
+                        key, value, headers));
+            }
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+        track(new TopicPartition(topic, partition), offset, future);
+        future.whenComplete((result, exception) -> {
+            inFlight.release();
+            if (exception == null) {
+                published.increment();
+            } else {
+                failed.increment();
+                log.error("No se pudo publicar en {} el registro {}-{}@{} ({}), se volverá a entregar: {}", dlqTopic,
+                        topic, partition, offset, reason, exception.getMessage());
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Espera a los envíos pendientes de la partición de origen anteriores a commitOffset.
+     *
+     * @return el offset más bajo de esos registros cuyo envío a la DLQ ha fallado, o -1
+     */
+    long awaitBefore(TopicPartition partition, long commitOffset) {
+        NavigableMap<Long, CompletableFuture<Void>> partitionPending = pending.get(partition);
+        if (partitionPending != null) {
+            for (CompletableFuture<Void> done : partitionPending.headMap(commitOffset).values()) {
+                done.join();
+            }
+        }
+        NavigableSet<Long> partitionFailed = failedOffsets.get(partition);
+        if (partitionFailed == null) {
+            return -1;
+        }
+        NavigableSet<Long> before = partitionFailed.headSet(commitOffset, false);
+        if (before.isEmpty()) {
+            return -1;
+        }
+        long first = before.first();
+        // Se volverán a entregar y, si fallan de nuevo, a publicar
+        before.clear();
+        return first;
+    }
+
+    /**
+     * Olvida los envíos de particiones que ya no son de este consumidor
+     */
+    void forget(Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions) {
+            pending.remove(partition);
+            failedOffsets.remove(partition);
+        }
+    }
+
+    private void track(TopicPartition source, long offset, CompletableFuture<?> future) {
+        NavigableMap<Long, CompletableFuture<Void>> partitionPending = pending.computeIfAbsent(source,
+                p -> new ConcurrentSkipListMap<>());
+        // Se registra antes de que el envío pueda terminar; done se completa después de anotar el fallo
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        partitionPending.put(offset, done);
+        future.whenComplete((result, exception) -> {
+            if (exception != null) {
+                failedOffsets.computeIfAbsent(source, p -> new ConcurrentSkipListSet<>()).add(offset);
+            }
+            partitionPending.remove(offset, done);
+            done.complete(null);
+        });
+    }
+
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Envíos a la DLQ todavía sin confirmar
+     */
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    private void acquire(String topic, int partition, long offset) {
+        try {
+            if (!inFlight.tryAcquire(IN_FLIGHT_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("DLQ sin confirmar envíos durante " + IN_FLIGHT_TIMEOUT_MS
+                        + " ms; no se publica " + topic + "-" + partition + "@" + offset);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando a la DLQ", e);
+        }
+    }
+
+    private static int dlqPartition(int partitions, Object key, int originalPartition) {
+        if (key == null) {
+            return originalPartition % partitions;
+        }
+        byte[] keyBytes = key instanceof byte[] bytes ? bytes : utf8(key.toString());
+        return Utils.toPositive(Utils.murmur2(keyBytes)) % partitions;
+    }
+
+    private void refreshPartitionCountAsync(String dlqTopic) {
+        if (refreshing.add(dlqTopic)) {
+            metadataExecutor.execute(() -> {
+                try {
+                    refreshPartitionCount(dlqTopic);
+                } catch (RuntimeException e) {
+                    log.warn("No se pudieron leer las particiones de {}: {}", dlqTopic, e.getMessage());
+                } finally {
+                    refreshing.remove(dlqTopic);
+                }
+            });
+        }
+    }
+
+    private int refreshPartitionCount(String dlqTopic) {
+        int count = Math.max(1, template.partitionsFor(dlqTopic).size());
+        partitionCounts.put(dlqTopic, new PartitionCount(count, System.currentTimeMillis()));
+        return count;
+    }
+
+    private static String truncate(String description) {
+        if (description == null) {
+            return "";
+        }
+        return description.length() <= MAX_DESCRIPTION_CHARS ? description
+                : description.substring(0, MAX_DESCRIPTION_CHARS - 3) + "...";
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record PartitionCount(int count, long readAt) {
+    }
+
+    @Override
+    public void destroy() {
+        metadataExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,46 @@
+package com.helloworld.kafka.springexamples.additional.dlq;
+
+import java.util.Map;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+/**
+ * {@link DlqPublisher} con un productor propio, copia del autoconfigurado con ajustes para
+ * ráfagas: linger para agrupar los fallos en lotes y compresión lz4.
+ *
+ * - kafka.dlq.max-in-flight: envíos sin confirmar antes de frenar al listener (10000)
+ * - kafka.dlq.linger-ms: espera para completar un lote (20)
+ *
+ * Los consumidores de la fábrica autoconfigurada pasan por {@link DlqCommitGuard}, para no
+ * confirmar offsets de registros cuyo envío a la DLQ aún no se ha confirmado.
+ */
+@Configuration
+public class DlqPublisherConfig {
+
+    @Bean
+    public DlqPublisher dlqPublisher(ProducerFactory<Object, Object> producerFactory,
+            @Value("${kafka.dlq.max-in-flight:10000}") int maxInFlight,
+            @Value("${kafka.dlq.linger-ms:20}") int lingerMs) {
+        ProducerFactory<Object, Object> dlqProducerFactory = producerFactory.copyWithConfigurationOverride(Map.of(
+                ProducerConfig.LINGER_MS_CONFIG, lingerMs,
+                ProducerConfig.BATCH_SIZE_CONFIG, 256 * 1024,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4",
+                ProducerConfig.ACKS_CONFIG, "all",
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true));
+        return new DlqPublisher(new KafkaTemplate<>(dlqProducerFactory), maxInFlight);
+    }
+
+    @Bean
+    @SuppressWarnings("unchecked")
+    public DefaultKafkaConsumerFactoryCustomizer dlqCommitGuardCustomizer(DlqPublisher dlqPublisher) {
+        DlqCommitGuard guard = new DlqCommitGuard(dlqPublisher);
+        return factory -> ((DefaultKafkaConsumerFactory<Object, Object>) factory).addPostProcessor(guard);
+    }
+}
@@ -0,0 +1,85 @@
+package com.helloworld.kafka.springexamples.additional.dlq;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Progreso de una reproducción por partición de la DLQ: el rango fijado al empezar (para que
+ * al reanudar no se persigan registros llegados después) y el siguiente offset pendiente.
+ * Se guarda en un fichero de propiedades que se reemplaza de forma atómica.
+ */
+class DlqReplayProgress {
+
+    private final Path file;
+    private final Map<Integer, Long> next = new HashMap<>();
+    private final Map<Integer, Long> end = new HashMap<>();
+
+    private DlqReplayProgress(Path file) {
+        this.file = file;
+    }
+
+    static DlqReplayProgress load(Path file, String dlqTopic) throws IOException {
+        DlqReplayProgress progress = new DlqReplayProgress(file);
+        if (!Files.exists(file)) {
+            return progress;
+        }
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            props.load(reader);
+        }
+        if (!dlqTopic.equals(props.getProperty("dlq.topic"))) {
+            throw new IllegalStateException("El fichero de progreso " + file + " es de la DLQ "
+                    + props.getProperty("dlq.topic"));
+        }
+        for (String name : props.stringPropertyNames()) {
+            if (name.startsWith("next.")) {
+                progress.next.put(Integer.parseInt(name.substring(5)), Long.parseLong(props.getProperty(name)));
+            } else if (name.startsWith("end.")) {
+                progress.end.put(Integer.parseInt(name.substring(4)), Long.parseLong(props.getProperty(name)));
+            }
+        }
+        return progress;
+    }
+
+    boolean isEmpty() {
+        return end.isEmpty();
+    }
+
+    Long next(int partition) {
+        return next.get(partition);
+    }
+
+    Long end(int partition) {
+        return end.get(partition);
+    }
+
+    synchronized void update(int partition, long nextOffset, long endOffset) {
+        next.put(partition, nextOffset);
+        end.put(partition, endOffset);
+    }
+
+    synchronized void store(String dlqTopic) throws IOException {
+        Properties props = new Properties();
+        props.setProperty("dlq.topic", dlqTopic);
+        props.setProperty("updated.at", Instant.now().toString());
+        next.forEach((partition, offset) -> props.setProperty("next." + partition, Long.toString(offset)));
+        end.forEach((partition, offset) -> props.setProperty("end." + partition, Long.toString(offset)));
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            props.store(writer, "Progreso de reproducción de la DLQ");
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
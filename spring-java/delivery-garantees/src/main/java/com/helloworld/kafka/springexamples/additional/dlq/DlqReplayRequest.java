@@ -0,0 +1,84 @@
+package com.helloworld.kafka.springexamples.additional.dlq;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Qué reproducir de una DLQ y a qué ritmo.
+ */
+public class DlqReplayRequest {
+
+    /** Valor de target para volver a publicar en el topic original de cada registro */
+    public static final String ORIGINAL_TOPIC = "original";
+
+    private final String dlqTopic;
+    private final String target;
+    private final Set<String> errorReasons;
+    private final Instant from;
+    private final Instant to;
+    private final double recordsPerSec;
+    private final int maxInFlight;
+    private final int maxReplays;
+    private final Path progressFile;
+
+    /**
+     * @param target       {@link #ORIGINAL_TOPIC} o el nombre de un topic de reintentos
+     * @param errorReasons motivos a reproducir (cabecera error_reason o clase de la excepción);
+     *                     vacío para todos
+     * @param from         primer instante (timestamp del registro en la DLQ), o null
+     * @param to           instante final excluido, o null para el final actual de la DLQ
+     * @param maxReplays   veces que se puede reproducir un mismo registro antes de ignorarlo
+     */
+    public DlqReplayRequest(String dlqTopic, String target, Set<String> errorReasons, Instant from, Instant to,
+            double recordsPerSec, int maxInFlight, int maxReplays, Path progressFile) {
+        if (recordsPerSec <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("El ritmo y los envíos en vuelo deben ser positivos");
+        }
+        this.dlqTopic = dlqTopic;
+        this.target = target;
+        this.errorReasons = Set.copyOf(errorReasons);
+        this.from = from;
+        this.to = to;
+        this.recordsPerSec = recordsPerSec;
+        this.maxInFlight = maxInFlight;
+        this.maxReplays = maxReplays;
+        this.progressFile = progressFile;
+    }
+
+    public String getDlqTopic() {
+        return dlqTopic;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public Set<String> getErrorReasons() {
+        return errorReasons;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public double getRecordsPerSec() {
+        return recordsPerSec;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public int getMaxReplays() {
+        return maxReplays;
+    }
+
+    public Path getProgressFile() {
+        return progressFile;
+    }
+}
@@ -0,0 +1,79 @@
+package com.helloworld.kafka.springexamples.additional.dlq;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Herramienta de línea de comandos de {@link DlqReplayer}.
+ *
+ * Ejemplo: reproducir en enhanced-topic los fallos de validación de una caída, a 200 reg/s
+ * <pre>
+ * DlqReplayTool --dlq-topic=enhanced-topic-dlq --error-reason=VALIDATION_ERROR,RuntimeException \
+ *     --from=2025-04-01T08:00:00Z --to=2025-04-01T12:00:00Z --rate=200 --max-in-flight=50
+ * </pre>
+ *
+ * Con --target=topic se publica en un topic de reintentos en lugar del original. El progreso
+ * se guarda en --progress-file (por defecto dlq-replay/&lt;dlq-topic&gt;.properties); una nueva
+ * ejecución continúa donde lo dejó la anterior, y --reset=true empieza de cero.
+ */
+public class DlqReplayTool {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String dlqTopic = require(options, "dlq-topic");
+        Path progressFile = Paths.get(options.getOrDefault("progress-file", "dlq-replay/" + dlqTopic + ".properties"));
+        if (Boolean.parseBoolean(options.get("reset"))) {
+            Files.deleteIfExists(progressFile);
+        }
+
+        DlqReplayRequest request = new DlqReplayRequest(
+                dlqTopic,
+                options.getOrDefault("target", DlqReplayRequest.ORIGINAL_TOPIC),
+                reasons(options.get("error-reason")),
+                instant(options.get("from")),
+                instant(options.get("to")),
+                Double.parseDouble(options.getOrDefault("rate", "500")),
+                Integer.parseInt(options.getOrDefault("max-in-flight", "100")),
+                Integer.parseInt(options.getOrDefault("max-replays", "3")),
+                progressFile);
+        new DlqReplayer(options.getOrDefault("bootstrap", "localhost:29092"), request).replay();
+    }
+
+    private static Set<String> reasons(String value) {
+        if (value == null || value.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(value.split(",")).map(String::trim).filter(s -> !s.isEmpty()).collect(Collectors.toSet());
+    }
+
+    private static Instant instant(String value) {
+        return value == null ? null : Instant.parse(value);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento no válido, se espera --clave=valor: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    private static String require(Map<String, String> options, String key) {
+        String value = options.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Falta el argumento --" + key);
+        }
+        return value;
+    }
+}
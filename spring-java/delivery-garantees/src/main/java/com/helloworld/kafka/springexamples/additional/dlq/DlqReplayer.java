@@ -0,0 +1,313 @@
+package com.helloworld.kafka.springexamples.additional.dlq;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import com.helloworld.kafka.springexamples.profiles.ClientConfigBuilder;
+import com.helloworld.kafka.springexamples.profiles.PerformanceProfile;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Vuelve a publicar registros de una DLQ en su topic original o en un topic de reintentos.
+ *
+ * Lee un rango fijo de la DLQ (por tiempo, o hasta el final que tenía al empezar) con un
+ * consumidor sin grupo, filtra por la cabecera error_reason o por la clase de la excepción
+ * que añade DeadLetterPublishingRecoverer, y publica a recordsPerSec con como mucho
+ * maxInFlight envíos sin confirmar, para no competir con el tráfico normal del pipeline.
+ *
+ * El progreso por partición es el offset más bajo todavía sin confirmar: se guarda
+ * periódicamente y al terminar, y una nueva ejecución con el mismo fichero continúa desde
+ * ahí. Un envío fallido detiene la reproducción sin avanzar el progreso más allá de él (los
+ * posteriores ya confirmados se volverán a publicar al reanudar: al menos una vez).
+ * Cada registro reproducido lleva la cabecera {@link #REPLAY_COUNT_HEADER}; los que ya se han
+ * reproducido maxReplays veces se saltan para no entrar en un bucle DLQ -> topic -> DLQ.
+ */
+@Slf4j
+public class DlqReplayer {
+
+    public static final String REPLAY_COUNT_HEADER = "dlq_replay_count";
+
+    private static final long PROGRESS_INTERVAL_MS = 5_000;
+
+    private final String bootstrap;
+    private final DlqReplayRequest request;
+
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+    private long skipped;
+
+    public DlqReplayer(String bootstrap, DlqReplayRequest request) {
+        this.bootstrap = bootstrap;
+        this.request = request;
+    }
+
+    /**
+     * @return registros publicados
+     */
+    public long replay() throws IOException, InterruptedException {
+        DlqReplayProgress progress = DlqReplayProgress.load(request.getProgressFile(), request.getDlqTopic());
+        Semaphore inFlight = new Semaphore(request.getMaxInFlight());
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / request.getRecordsPerSec());
+
+        try (KafkaConsumer<byte[], byte[]> consumer = new KafkaConsumer<>(consumerProps());
+                KafkaProducer<byte[], byte[]> producer = new KafkaProducer<>(producerProps())) {
+            Map<TopicPartition, PartitionProgress> partitions = assign(consumer, progress);
+            log.info("Reproduciendo {} registros de {} hacia {} a {} reg/s", remaining(partitions),
+                    request.getDlqTopic(), request.getTarget(), request.getRecordsPerSec());
+
+            long nextSend = System.nanoTime();
+            long lastProgress = System.currentTimeMillis();
+            Set<TopicPartition> active = new HashSet<>(partitions.keySet());
+            while (!active.isEmpty() && failure.get() == null) {
+                for (ConsumerRecord<byte[], byte[]> record : consumer.poll(Duration.ofMillis(500))) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    PartitionProgress state = partitions.get(partition);
+                    if (record.offset() >= state.end || failure.get() != null) {
+                        continue;
+                    }
+                    ProducerRecord<byte[], byte[]> replay = toReplay(record);
+                    if (replay != null) {
+                        long wait = nextSend - System.nanoTime();
+                        if (wait > 0) {
+                            TimeUnit.NANOSECONDS.sleep(wait);
+                        }
+                        nextSend = Math.max(nextSend, System.nanoTime() - intervalNanos) + intervalNanos;
+                        inFlight.acquire();
+                        state.pending.add(record.offset());
+                        producer.send(replay, (metadata, exception) -> {
+                            if (exception == null) {
+                                state.pending.remove(record.offset());
+                                replayed.incrementAndGet();
+                            } else {
+                                failure.compareAndSet(null, exception);
+                            }
+                            inFlight.release();
+                        });
+                    } else {
+                        skipped++;
+                    }
+                    state.dispatched = record.offset() + 1;
+                }
+
+                for (TopicPartition partition : List.copyOf(active)) {
+                    if (consumer.position(partition) >= partitions.get(partition).end) {
+                        active.remove(partition);
+                        consumer.pause(List.of(partition));
+                    }
+                }
+                if (System.currentTimeMillis() - lastProgress >= PROGRESS_INTERVAL_MS) {
+                    storeProgress(progress, partitions);
+                    lastProgress = System.currentTimeMillis();
+                }
+            }
+            producer.flush();
+            storeProgress(progress, partitions);
+        }
+
+        if (failure.get() != null) {
+            throw new IllegalStateException("Reproducción detenida por un envío fallido; se puede reanudar con el "
+                    + "mismo fichero de progreso", failure.get());
+        }
+        log.info("Reproducción terminada: {} publicados, {} saltados", replayed.get(), skipped);
+        return replayed.get();
+    }
+
+    private Map<TopicPartition, PartitionProgress> assign(KafkaConsumer<byte[], byte[]> consumer,
+            DlqReplayProgress progress) {
+        List<TopicPartition> all = new ArrayList<>();
+        for (PartitionInfo info : consumer.partitionsFor(request.getDlqTopic())) {
+            all.add(new TopicPartition(info.topic(), info.partition()));
+        }
+        Map<TopicPartition, Long> beginning = consumer.beginningOffsets(all);
+        Map<TopicPartition, Long> endOffsets = consumer.endOffsets(all);
+        Map<TopicPartition, OffsetAndTimestamp> fromOffsets = offsetsForTime(consumer, all, request.getFrom());
+        Map<TopicPartition, OffsetAndTimestamp> toOffsets = offsetsForTime(consumer, all, request.getTo());
+
+        Map<TopicPartition, PartitionProgress> partitions = new HashMap<>();
+        for (TopicPartition partition : all) {
+            long end;
+            long start;
+            if (!progress.isEmpty() && progress.end(partition.partition()) != null) {
+                end = progress.end(partition.partition());
+                start = progress.next(partition.partition());
+            } else {
+                end = offset(toOffsets, partition, endOffsets.get(partition));
+                start = request.getFrom() == null ? beginning.get(partition)
+                        : offset(fromOffsets, partition, endOffsets.get(partition));
+            }
+            // Los registros ya borrados por retención no se pueden reproducir
+            start = Math.max(start, beginning.get(partition));
+            if (start < end) {
+                partitions.put(partition, new PartitionProgress(start, end));
+            } else {
+                progress.update(partition.partition(), end, end);
+            }
+        }
+        consumer.assign(partitions.keySet());
+        partitions.forEach((partition, state) -> consumer.seek(partition, state.dispatched));
+        return partitions;
+    }
+
+    private static Map<TopicPartition, OffsetAndTimestamp> offsetsForTime(KafkaConsumer<byte[], byte[]> consumer,
+            List<TopicPartition> partitions, Instant instant) {
+        if (instant == null) {
+            return Map.of();
+        }
+        Map<TopicPartition, Long> timestamps = new HashMap<>();
+        partitions.forEach(partition -> timestamps.put(partition, instant.toEpochMilli()));
+        return consumer.offsetsForTimes(timestamps);
+    }
+
+    /**
+     * Offset del primer registro con timestamp >= el instante, o el valor por defecto si no hay
+     */
+    private static long offset(Map<TopicPartition, OffsetAndTimestamp> offsets, TopicPartition partition,
+            long defaultOffset) {
+        OffsetAndTimestamp offset = offsets.get(partition);
+        return offset == null ? defaultOffset : offset.offset();
+    }
+
+    /**
+     * Registro a publicar, o null si no pasa el filtro
+     */
+    private ProducerRecord<byte[], byte[]> toReplay(ConsumerRecord<byte[], byte[]> record) {
+        if (!request.getErrorReasons().isEmpty() && !matchesReason(record.headers())) {
+            return null;
+        }
+        int replays = replayCount(record.headers());
+        if (replays >= request.getMaxReplays()) {
+            log.warn("Saltado {}-{}@{}: ya reproducido {} veces", record.topic(), record.partition(),
+                    record.offset(), replays);
+            return null;
+        }
+        String target = targetTopic(record.headers());
+        if (target == null) {
+            log.warn("Saltado {}-{}@{}: sin topic original", record.topic(), record.partition(), record.offset());
+            return null;
+        }
+
+        Headers headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            // Las cabeceras del fallo anterior no viajan al topic original
+            if (!header.key().startsWith(KafkaHeaders.PREFIX) && !header.key().startsWith("error_")
+                    && !header.key().equals(REPLAY_COUNT_HEADER)) {
+                headers.add(header);
+            }
+        }
+        headers.add(REPLAY_COUNT_HEADER, ByteBuffer.allocate(Integer.BYTES).putInt(replays + 1).array());
+        return new ProducerRecord<>(target, null, record.key(), record.value(), headers);
+    }
+
+    private boolean matchesReason(Headers headers) {
+        String reason = header(headers, DlqPublisher.ERROR_REASON_HEADER);
+        if (reason != null && request.getErrorReasons().contains(reason)) {
+            return true;
+        }
+        String exception = header(headers, KafkaHeaders.DLT_EXCEPTION_FQCN);
+        return exception != null && (request.getErrorReasons().contains(exception)
+                || request.getErrorReasons().contains(exception.substring(exception.lastIndexOf('.') + 1)));
+    }
+
+    private String targetTopic(Headers headers) {
+        if (!DlqReplayRequest.ORIGINAL_TOPIC.equals(request.getTarget())) {
+            return request.getTarget();
+        }
+        String original = header(headers, KafkaHeaders.DLT_ORIGINAL_TOPIC);
+        if (original != null) {
+            return original;
+        }
+        String dlqTopic = request.getDlqTopic();
+        return dlqTopic.endsWith(DlqPublisher.DLQ_SUFFIX)
+                ? dlqTopic.substring(0, dlqTopic.length() - DlqPublisher.DLQ_SUFFIX.length())
+                : null;
+    }
+
+    private static int replayCount(Headers headers) {
+        Header header = headers.lastHeader(REPLAY_COUNT_HEADER);
+        return header == null || header.value().length != Integer.BYTES ? 0 : ByteBuffer.wrap(header.value()).getInt();
+    }
+
+    private static String header(Headers headers, String key) {
+        Header header = headers.lastHeader(key);
+        return header == null || header.value() == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    private void storeProgress(DlqReplayProgress progress, Map<TopicPartition, PartitionProgress> partitions)
+            throws IOException {
+        partitions.forEach((partition, state) -> progress.update(partition.partition(), state.next(), state.end));
+        progress.store(request.getDlqTopic());
+        log.info("Progreso: {} publicados, {} saltados, {} pendientes", replayed.get(), skipped,
+                remaining(partitions));
+    }
+
+    private static long remaining(Map<TopicPartition, PartitionProgress> partitions) {
+        return partitions.values().stream().mapToLong(state -> state.end - state.next()).sum();
+    }
+
+    private Map<String, Object> consumerProps() {
+        return ClientConfigBuilder.consumer(PerformanceProfile.BULK_REPLAY)
+                .with(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap)
+                .with(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false)
+                .with(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class)
+                .with(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class)
+                .build();
+    }
+
+    private Map<String, Object> producerProps() {
+        return ClientConfigBuilder.producer(PerformanceProfile.DURABLE)
+                .with(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap)
+                .with(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class)
+                .with(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class)
+                .build();
+    }
+
+    private static class PartitionProgress {
+        private final long end;
+        private final ConcurrentSkipListSet<Long> pending = new ConcurrentSkipListSet<>();
+        private volatile long dispatched;
+
+        private PartitionProgress(long start, long end) {
+            this.dispatched = start;
+            this.end = end;
+        }
+
+        /**
+         * Siguiente offset a reproducir al reanudar: el envío pendiente más antiguo
+         */
+        private long next() {
+            Long oldestPending = pending.ceiling(Long.MIN_VALUE);
+            return oldestPending != null ? oldestPending : dispatched;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.helloworld.kafka.springexamples.additional.filter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Métricas del filtrado previo a la deserialización, por topic.
+ * Se registran en el log cada 10000 registros evaluados de un mismo topic.
+ */
+@Slf4j
+public class FilterMetrics {
+
+    private static final long LOG_EVERY = 10_000;
+
+    private final Map<String, TopicCounters> counters = new ConcurrentHashMap<>();
+
+    void recordAccepted(String topic) {
+        evaluate(topic);
+    }
+
+    void recordDiscarded(String topic) {
+        evaluate(topic).discarded.increment();
+    }
+
+    public long evaluated(String topic) {
+        TopicCounters topicCounters = counters.get(topic);
+        return topicCounters == null ? 0 : topicCounters.evaluated.get();
+    }
+
+    public long discarded(String topic) {
+        TopicCounters topicCounters = counters.get(topic);
+        return topicCounters == null ? 0 : topicCounters.discarded.sum();
+    }
+
+    /**
+     * Fracción de registros descartados sobre el total evaluado (0.0 - 1.0)
+     */
+    public double hitRate(String topic) {
+        long evaluated = evaluated(topic);
+        return evaluated == 0 ? 0.0 : (double) discarded(topic) / evaluated;
+    }
+
+    public void logMetrics() {
+        counters.keySet().forEach(this::logMetrics);
+    }
+
+    private void logMetrics(String topic) {
+        log.info("MÉTRICA - Filtro topic: {}, evaluados: {}, descartados: {}, ratio: {}",
+                topic, evaluated(topic), discarded(topic), String.format("%.2f", hitRate(topic)));
+    }
+
+    private TopicCounters evaluate(String topic) {
+        TopicCounters topicCounters = counters.computeIfAbsent(topic, t -> new TopicCounters());
+        if (topicCounters.evaluated.incrementAndGet() % LOG_EVERY == 0) {
+            logMetrics(topic);
+        }
+        return topicCounters;
+    }
+
+    private static class TopicCounters {
+        private final AtomicLong evaluated = new AtomicLong();
+        private final LongAdder discarded = new LongAdder();
+    }
+}
@@ -0,0 +1,86 @@
+package com.helloworld.kafka.springexamples.additional.filter;
+
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Deserializador que envuelve al configurado en el consumidor y aplica el
+ * {@link PreDeserializationFilter} antes de decodificar.
+ *
+ * Si no se indica un delegado, se instancia la clase configurada en
+ * key.deserializer / value.deserializer al llamar a {@link #configure(Map, boolean)}.
+ */
+public class FilteringDeserializer<T> implements Deserializer<T> {
+
+    private final PreDeserializationFilter filter;
+    private Deserializer<T> delegate;
+    private boolean isKey;
+
+    public FilteringDeserializer(PreDeserializationFilter filter) {
+        this(filter, null);
+    }
+
+    public FilteringDeserializer(PreDeserializationFilter filter, Deserializer<T> delegate) {
+        this.filter = filter;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        this.isKey = isKey;
+        if (delegate == null) {
+            delegate = createDelegate(configs.get(isKey
+                    ? ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG
+                    : ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG));
+        }
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        return delegate.deserialize(topic, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        boolean discard = isKey
+                ? filter.discardByKey(topic, headers, data)
+                : filter.discardByValue(topic, headers);
+        if (discard) {
+            // No se decodifica el payload: el registro se elimina antes de llegar al listener
+            return null;
+        }
+        return delegate.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        if (delegate != null) {
+            delegate.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Deserializer<T> createDelegate(Object configured) {
+        if (configured == null) {
+            throw new IllegalStateException("No hay deserializador configurado para "
+                    + (isKey ? "la clave" : "el valor"));
+        }
+        try {
+            Class<?> clazz = configured instanceof Class
+                    ? (Class<?>) configured
+                    : ClassUtils.forName(configured.toString().trim(), ClassUtils.getDefaultClassLoader());
+            if (FilteringDeserializer.class.isAssignableFrom(clazz)) {
+                throw new IllegalStateException("El delegado no puede ser otro FilteringDeserializer");
+            }
+            return (Deserializer<T>) BeanUtils.instantiateClass(clazz);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("No se encuentra el deserializador " + configured, e);
+        }
+    }
+}
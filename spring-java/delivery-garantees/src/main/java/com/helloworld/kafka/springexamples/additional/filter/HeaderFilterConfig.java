@@ -0,0 +1,64 @@
+package com.helloworld.kafka.springexamples.additional.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Configuración del filtrado de registros antes de la deserialización.
+ *
+ * Reglas disponibles (todas deben cumplirse para que el registro llegue al listener):
+ * - kafka.filter.required-headers=nombre=valor,otra=valor
+ * - kafka.filter.key-prefix=prefijo
+ *
+ * Si no hay reglas configuradas no se envuelven los deserializadores.
+ */
+@Configuration
+@Slf4j
+public class HeaderFilterConfig {
+
+    @Bean
+    public PreDeserializationFilter preDeserializationFilter(
+            @Value("${kafka.filter.required-headers:}") String[] requiredHeaders,
+            @Value("${kafka.filter.key-prefix:}") String keyPrefix) {
+
+        List<RawRecordFilter> rules = new ArrayList<>();
+        for (String requiredHeader : requiredHeaders) {
+            String[] nameValue = requiredHeader.split("=", 2);
+            if (nameValue.length != 2) {
+                throw new IllegalArgumentException("Formato incorrecto en kafka.filter.required-headers: "
+                        + requiredHeader + ". Use 'nombre=valor'");
+            }
+            rules.add(RawRecordFilter.requireHeader(nameValue[0].trim(), nameValue[1].trim()));
+        }
+        if (!keyPrefix.isEmpty()) {
+            rules.add(RawRecordFilter.keyPrefix(keyPrefix));
+        }
+        log.info("Filtro previo a la deserialización con {} reglas", rules.size());
+        return new PreDeserializationFilter(rules);
+    }
+
+    /**
+     * Envuelve los deserializadores de la ConsumerFactory autoconfigurada por Spring Boot
+     */
+    @Bean
+    public DefaultKafkaConsumerFactoryCustomizer filteringDeserializerCustomizer(PreDeserializationFilter filter) {
+        return consumerFactory -> {
+            if (!filter.isEnabled()) {
+                return;
+            }
+            @SuppressWarnings("unchecked")
+            DefaultKafkaConsumerFactory<Object, Object> factory =
+                    (DefaultKafkaConsumerFactory<Object, Object>) consumerFactory;
+            factory.setKeyDeserializerSupplier(() -> new FilteringDeserializer<>(filter));
+            factory.setValueDeserializerSupplier(() -> new FilteringDeserializer<>(filter));
+        };
+    }
+}
@@ -0,0 +1,88 @@
+package com.helloworld.kafka.springexamples.additional.filter;
+
+import java.util.List;
+
+import org.apache.kafka.common.header.Headers;
+import org.springframework.kafka.listener.adapter.RecordFilterStrategy;
+
+/**
+ * Etapa de filtrado que se ejecuta dentro de los deserializadores del consumidor,
+ * antes de decodificar la clave y el valor.
+ *
+ * Los registros descartados se marcan con la cabecera {@link #DISCARDED_HEADER} y no se
+ * decodifica su payload. La {@link #recordFilterStrategy()} de la fábrica de contenedores
+ * los elimina antes de convertirlos en mensajes, por lo que tampoco se crea el mapa de
+ * cabeceras que recibe el listener.
+ */
+public class PreDeserializationFilter {
+
+    public static final String DISCARDED_HEADER = "pre_filter_discarded";
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final List<RawRecordFilter> rules;
+    private final FilterMetrics metrics = new FilterMetrics();
+
+    // La clave y el valor de un mismo registro se deserializan seguidos en el hilo del consumidor.
+    // Guardamos las cabeceras del último registro evaluado desde la clave para no evaluarlo dos veces.
+    private final ThreadLocal<Headers> evaluatedByKey = new ThreadLocal<>();
+
+    public PreDeserializationFilter(List<RawRecordFilter> rules) {
+        this.rules = List.copyOf(rules);
+    }
+
+    public boolean isEnabled() {
+        return !rules.isEmpty();
+    }
+
+    public FilterMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Evaluación desde el deserializador de la clave (solo se invoca si la clave no es nula)
+     *
+     * @return true si el registro se descarta
+     */
+    boolean discardByKey(String topic, Headers headers, byte[] rawKey) {
+        evaluatedByKey.set(headers);
+        return evaluate(topic, headers, rawKey);
+    }
+
+    /**
+     * Evaluación desde el deserializador del valor. Si el registro ya se evaluó con su clave
+     * se reutiliza la decisión.
+     *
+     * @return true si el registro se descarta
+     */
+    boolean discardByValue(String topic, Headers headers) {
+        if (evaluatedByKey.get() == headers) {
+            evaluatedByKey.remove();
+            return isDiscarded(headers);
+        }
+        return evaluate(topic, headers, null);
+    }
+
+    /**
+     * Estrategia para la fábrica de contenedores: descarta los registros marcados
+     */
+    public <K, V> RecordFilterStrategy<K, V> recordFilterStrategy() {
+        return consumerRecord -> isDiscarded(consumerRecord.headers());
+    }
+
+    private static boolean isDiscarded(Headers headers) {
+        return headers.lastHeader(DISCARDED_HEADER) != null;
+    }
+
+    private boolean evaluate(String topic, Headers headers, byte[] rawKey) {
+        for (RawRecordFilter rule : rules) {
+            if (!rule.accept(topic, headers, rawKey)) {
+                headers.add(DISCARDED_HEADER, EMPTY);
+                metrics.recordDiscarded(topic);
+                return true;
+            }
+        }
+        metrics.recordAccepted(topic);
+        return false;
+    }
+}
@@ -0,0 +1,43 @@
+package com.helloworld.kafka.springexamples.additional.filter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+/**
+ * Predicado evaluado sobre el registro en bruto, antes de deserializar la clave y el valor.
+ * Solo tiene acceso al topic, a las cabeceras y a los bytes de la clave (null si la clave
+ * es nula o si la evaluación se hace desde el deserializador del valor).
+ */
+@FunctionalInterface
+public interface RawRecordFilter {
+
+    /**
+     * @return true si el registro debe llegar al listener, false si se descarta
+     */
+    boolean accept(String topic, Headers headers, byte[] rawKey);
+
+    /**
+     * Acepta solo los registros cuya cabecera tenga exactamente el valor indicado
+     */
+    static RawRecordFilter requireHeader(String name, String value) {
+        final byte[] expected = value.getBytes(StandardCharsets.UTF_8);
+        return (topic, headers, rawKey) -> {
+            Header header = headers.lastHeader(name);
+            return header != null && Arrays.equals(expected, header.value());
+        };
+    }
+
+    /**
+     * Acepta solo los registros cuya clave empiece por el prefijo indicado.
+     * Si la clave no está disponible no se descarta el registro.
+     */
+    static RawRecordFilter keyPrefix(String prefix) {
+        final byte[] expected = prefix.getBytes(StandardCharsets.UTF_8);
+        return (topic, headers, rawKey) -> rawKey == null
+                || (rawKey.length >= expected.length
+                        && Arrays.equals(rawKey, 0, expected.length, expected, 0, expected.length));
+    }
+}
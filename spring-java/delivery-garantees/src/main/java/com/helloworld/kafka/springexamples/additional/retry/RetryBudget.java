@@ -0,0 +1,71 @@
+package com.helloworld.kafka.springexamples.additional.retry;
+
+/**
+ * Presupuesto global de reintentos sobre una ventana deslizante.
+ *
+ * Un reintento se admite si los de la ventana no superan ratio * envíos originales, con un
+ * mínimo de minPerSec reintentos por segundo para que el tráfico bajo pueda reintentar. Si el
+ * broker cae, los fallos no se multiplican por maxRetries: el tráfico extra queda acotado al
+ * ratio y el resto de registros falla enseguida.
+ *
+ * La ventana se divide en {@link #BUCKETS} cubos que se vacían al avanzar el tiempo.
+ */
+public class RetryBudget {
+
+    static final int BUCKETS = 10;
+
+    private final double ratio;
+    private final long minRetries;
+    private final long bucketMs;
+    private final long[] requests = new long[BUCKETS];
+    private final long[] retries = new long[BUCKETS];
+    private long currentBucket;
+    private long windowRequests;
+    private long windowRetries;
+
+    public RetryBudget(double ratio, int minPerSec, long windowMs) {
+        this.ratio = ratio;
+        this.minRetries = (long) minPerSec * windowMs / 1000;
+        this.bucketMs = Math.max(1, windowMs / BUCKETS);
+        this.currentBucket = System.currentTimeMillis() / bucketMs;
+    }
+
+    /**
+     * Anota un envío original
+     */
+    public synchronized void recordRequest() {
+        advance();
+        requests[index(currentBucket)]++;
+        windowRequests++;
+    }
+
+    /**
+     * Consume un reintento del presupuesto si queda
+     */
+    public synchronized boolean tryAcquireRetry() {
+        advance();
+        if (windowRetries >= Math.max(minRetries, (long) (windowRequests * ratio))) {
+            return false;
+        }
+        retries[index(currentBucket)]++;
+        windowRetries++;
+        return true;
+    }
+
+    private void advance() {
+        long bucket = System.currentTimeMillis() / bucketMs;
+        long expired = Math.min(BUCKETS, bucket - currentBucket);
+        for (long i = 1; i <= expired; i++) {
+            int index = index(currentBucket + i);
+            windowRequests -= requests[index];
+            windowRetries -= retries[index];
+            requests[index] = 0;
+            retries[index] = 0;
+        }
+        currentBucket = Math.max(currentBucket, bucket);
+    }
+
+    private static int index(long bucket) {
+        return (int) (bucket % BUCKETS);
+    }
+}
@@ -0,0 +1,46 @@
+package com.helloworld.kafka.springexamples.additional.retry;
+
+import java.util.Map;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+/**
+ * Reintentos de envío con planificador compartido y presupuesto global. Se importa desde la
+ * aplicación productora, que envía a través de {@link RetryingSender}.
+ *
+ * El productor es una copia del autoconfigurado con delivery.timeout.ms = attempt-timeout-ms y
+ * request.timeout.ms y max.block.ms a la mitad, para que un fallo llegue a RetryingSender con
+ * tiempo de reintentarlo antes de deadline-ms.
+ */
+@Configuration
+@EnableConfigurationProperties(RetrySettings.class)
+public class RetryConfig {
+
+    @Bean
+    public RetryMetrics retryMetrics() {
+        return new RetryMetrics();
+    }
+
+    @Bean
+    public RetryingSender<String, String> retryingSender(ProducerFactory<String, String> producerFactory,
+            RetrySettings settings, RetryMetrics retryMetrics) {
+        // Primer intento fallido + backoff inicial + un reintento completo
+        if (settings.getAttemptTimeoutMs() * 2 + settings.getInitialBackoffMs() > settings.getDeadlineMs()) {
+            throw new IllegalStateException("kafka.retry.deadline-ms (" + settings.getDeadlineMs()
+                    + ") debe ser al menos el doble de kafka.retry.attempt-timeout-ms ("
+                    + settings.getAttemptTimeoutMs() + ") más initial-backoff-ms ("
+                    + settings.getInitialBackoffMs() + ") para que quepa algún reintento");
+        }
+        int attemptTimeoutMs = (int) settings.getAttemptTimeoutMs();
+        ProducerFactory<String, String> retryProducerFactory = producerFactory.copyWithConfigurationOverride(Map.of(
+                ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, attemptTimeoutMs,
+                ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, attemptTimeoutMs / 2,
+                ProducerConfig.MAX_BLOCK_MS_CONFIG, attemptTimeoutMs / 2));
+        return new RetryingSender<>(new KafkaTemplate<>(retryProducerFactory), settings, retryMetrics);
+    }
+}
@@ -0,0 +1,68 @@
+package com.helloworld.kafka.springexamples.additional.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Contadores de reintentos: programados, con éxito, agotados, sin presupuesto, fuera de plazo
+ * y no reintentables. Se registran en el log y se reinician cada kafka.retry.metrics-interval-ms;
+ * los pendientes son el valor actual.
+ */
+@Slf4j
+public class RetryMetrics {
+
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+    private final LongAdder budgetRejected = new LongAdder();
+    private final LongAdder deadlineExpired = new LongAdder();
+    private final LongAdder nonRetriable = new LongAdder();
+    private final AtomicLong pending = new AtomicLong();
+
+    void recordScheduled() {
+        scheduled.increment();
+        pending.incrementAndGet();
+    }
+
+    void recordUnscheduled() {
+        scheduled.decrement();
+        pending.decrementAndGet();
+    }
+
+    void recordAttempted() {
+        pending.decrementAndGet();
+    }
+
+    void recordSucceeded() {
+        succeeded.increment();
+    }
+
+    void recordExhausted() {
+        exhausted.increment();
+    }
+
+    void recordBudgetRejected() {
+        budgetRejected.increment();
+    }
+
+    void recordDeadlineExpired() {
+        deadlineExpired.increment();
+    }
+
+    void recordNonRetriable() {
+        nonRetriable.increment();
+    }
+
+    public long getPending() {
+        return pending.get();
+    }
+
+    public void logMetrics() {
+        log.info("MÉTRICA - Reintentos: programados: {}, con éxito: {}, agotados: {}, sin presupuesto: {}, "
+                + "fuera de plazo: {}, no reintentables: {}, pendientes: {}", scheduled.sumThenReset(),
+                succeeded.sumThenReset(), exhausted.sumThenReset(), budgetRejected.sumThenReset(),
+                deadlineExpired.sumThenReset(), nonRetriable.sumThenReset(), pending.get());
+    }
+}
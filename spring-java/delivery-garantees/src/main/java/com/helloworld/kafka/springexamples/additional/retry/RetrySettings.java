@@ -0,0 +1,49 @@
+package com.helloworld.kafka.springexamples.additional.retry;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Propiedades kafka.retry.*
+ */
+@Data
+@ConfigurationProperties(prefix = "kafka.retry")
+public class RetrySettings {
+
+    /** Hilos del planificador compartido por todos los reintentos */
+    private int schedulerThreads = 2;
+
+    /** Reintentos por registro, sin contar el primer envío */
+    private int maxRetries = 3;
+
+    private long initialBackoffMs = 100;
+
+    private double backoffMultiplier = 2.0;
+
+    private long maxBackoffMs = 10_000;
+
+    /** Fracción aleatoria del backoff que se resta: 0 sin jitter, 1 jitter completo */
+    private double jitter = 0.5;
+
+    /**
+     * Tiempo máximo de cada intento dentro del productor: se aplica como delivery.timeout.ms y,
+     * la mitad, como request.timeout.ms y max.block.ms. Tiene que ser bastante menor que
+     * deadline-ms o ningún fallo llegaría a tiempo de reintentarse.
+     */
+    private long attemptTimeoutMs = 10_000;
+
+    /** Tiempo máximo desde el primer envío; no se programa un reintento que acabe después */
+    private long deadlineMs = 30_000;
+
+    /** Reintentos admitidos como fracción de los envíos originales de la ventana */
+    private double budgetRatio = 0.1;
+
+    /** Reintentos por segundo admitidos siempre, aunque haya poco tráfico */
+    private int budgetMinPerSec = 10;
+
+    private long budgetWindowMs = 10_000;
+
+    /** Intervalo entre registros de métricas de reintentos */
+    private long metricsIntervalMs = 60_000;
+}
@@ -0,0 +1,172 @@
+package com.helloworld.kafka.springexamples.additional.retry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.common.errors.RetriableException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Envía con KafkaTemplate y reintenta los fallos en un planificador compartido.
+ *
+ * Ningún hilo espera: cada reintento es una tarea programada en un ScheduledExecutorService de
+ * kafka.retry.scheduler-threads hilos, que solo llama a send y vuelve. Con miles de fallos a
+ * la vez hay miles de tareas en la cola, no miles de hilos.
+ * - Backoff exponencial con jitter, para que los fallos de una misma caída no se reintenten
+ *   todos en el mismo instante.
+ * - Solo se reintentan las excepciones RetriableException (timeouts, líder no disponible...);
+ *   un registro demasiado grande o un error de autorización falla a la primera.
+ * - Un reintento que podría terminar después del plazo del registro (deadline-ms desde el
+ *   primer envío) no se programa: se cuenta el backoff más lo que puede durar el intento
+ *   (attempt-timeout-ms, el delivery.timeout.ms del productor).
+ * - {@link RetryBudget} limita los reintentos a una fracción del tráfico: durante una caída
+ *   larga los registros fallan pronto en lugar de multiplicar la carga sobre el broker.
+ *
+ * Relación con los reintentos del productor: KafkaProducer ya reintenta internamente los
+ * errores transitorios durante delivery.timeout.ms, sin duplicados si es idempotente. Aquí
+ * solo llegan los fallos que el productor da por perdidos (delivery.timeout.ms agotado, o
+ * max.block.ms esperando metadatos o buffer). Por eso el productor de esta clase tiene esos
+ * plazos acotados a attempt-timeout-ms ({@link RetryConfig}): con los valores por defecto
+ * (120 s y 60 s) el primer fallo llegaría después de deadline-ms y nunca se reintentaría.
+ * Un reintento es un envío nuevo: si el intento anterior llegó a escribirse sin confirmarse,
+ * el registro queda duplicado (al menos una vez).
+ *
+ * El future devuelto se completa con el primer envío que tiene éxito o con el último error.
+ */
+@Slf4j
+public class RetryingSender<K, V> implements AutoCloseable {
+
+    private final KafkaTemplate<K, V> template;
+    private final RetrySettings settings;
+    private final RetryBudget budget;
+    private final RetryMetrics metrics;
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    public RetryingSender(KafkaTemplate<K, V> template, RetrySettings settings, RetryMetrics metrics) {
+        this.template = template;
+        this.settings = settings;
+        this.budget = new RetryBudget(settings.getBudgetRatio(), settings.getBudgetMinPerSec(),
+                settings.getBudgetWindowMs());
+        this.metrics = metrics;
+        AtomicInteger threads = new AtomicInteger();
+        this.scheduler = new ScheduledThreadPoolExecutor(settings.getSchedulerThreads(), r -> {
+            Thread thread = new Thread(r, "kafka-retry-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        scheduler.scheduleAtFixedRate(metrics::logMetrics, settings.getMetricsIntervalMs(),
+                settings.getMetricsIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    public CompletableFuture<SendResult<K, V>> send(String topic, K key, V value) {
+        budget.recordRequest();
+        CompletableFuture<SendResult<K, V>> result = new CompletableFuture<>();
+        long deadline = System.currentTimeMillis() + settings.getDeadlineMs();
+        attempt(topic, key, value, 0, deadline, result);
+        return result;
+    }
+
+    private void attempt(String topic, K key, V value, int retry, long deadline,
+            CompletableFuture<SendResult<K, V>> result) {
+        CompletableFuture<SendResult<K, V>> future;
+        try {
+            future = template.send(topic, key, value);
+        } catch (RuntimeException e) {
+            // send puede fallar antes de devolver el future (p. ej. metadatos no disponibles)
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((sendResult, ex) -> {
+            if (ex == null) {
+                if (retry > 0) {
+                    metrics.recordSucceeded();
+                    log.info("Reintento {} con éxito: clave={}", retry, key);
+                }
+                result.complete(sendResult);
+            } else {
+                onFailure(topic, key, value, retry, deadline, result, ex);
+            }
+        });
+    }
+
+    private void onFailure(String topic, K key, V value, int retry, long deadline,
+            CompletableFuture<SendResult<K, V>> result, Throwable ex) {
+        if (!isRetriable(ex)) {
+            metrics.recordNonRetriable();
+            result.completeExceptionally(ex);
+            return;
+        }
+        if (retry >= settings.getMaxRetries()) {
+            metrics.recordExhausted();
+            log.error("Se agotaron los reintentos para: clave={}, error={}", key, ex.getMessage());
+            result.completeExceptionally(ex);
+            return;
+        }
+        long delay = backoff(retry);
+        if (System.currentTimeMillis() + delay + settings.getAttemptTimeoutMs() > deadline) {
+            metrics.recordDeadlineExpired();
+            log.error("Sin tiempo para reintentar: clave={}, error={}", key, ex.getMessage());
+            result.completeExceptionally(ex);
+            return;
+        }
+        if (!budget.tryAcquireRetry()) {
+            metrics.recordBudgetRejected();
+            log.warn("Presupuesto de reintentos agotado: clave={}, error={}", key, ex.getMessage());
+            result.completeExceptionally(ex);
+            return;
+        }
+        // Se cuenta antes de programar: con un retraso corto la tarea podría ejecutarse antes
+        metrics.recordScheduled();
+        try {
+            scheduler.schedule(() -> {
+                metrics.recordAttempted();
+                log.info("Reintentando envío (intento {}/{}): clave={}", retry + 1, settings.getMaxRetries(), key);
+                attempt(topic, key, value, retry + 1, deadline, result);
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Cerrando: no se aceptan reintentos nuevos
+            metrics.recordUnscheduled();
+            result.completeExceptionally(ex);
+        }
+    }
+
+    long backoff(int retry) {
+        double base = Math.min(settings.getMaxBackoffMs(),
+                settings.getInitialBackoffMs() * Math.pow(settings.getBackoffMultiplier(), retry));
+        return (long) (base * (1 - settings.getJitter() * ThreadLocalRandom.current().nextDouble()));
+    }
+
+    private static boolean isRetriable(Throwable ex) {
+        // El error de Kafka llega envuelto en KafkaProducerException y a veces en CompletionException
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public RetryMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Deja terminar los reintentos ya programados, como mucho durante deadline-ms
+     */
+    @Override
+    public void close() throws InterruptedException {
+        scheduler.shutdown();
+        if (!scheduler.awaitTermination(settings.getDeadlineMs(), TimeUnit.MILLISECONDS)) {
+            log.warn("Reintentos pendientes al cerrar: {}", metrics.getPending());
+            scheduler.shutdownNow();
+        }
+        metrics.logMetrics();
+    }
+}
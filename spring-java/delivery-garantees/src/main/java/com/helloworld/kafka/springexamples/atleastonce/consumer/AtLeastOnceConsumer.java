@@ -3,21 +3,36 @@ package com.helloworld.kafka.springexamples.atleastonce.consumer;
 import java.util.Map;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Headers;
 import org.springframework.messaging.handler.annotation.Payload;
 
+import com.helloworld.kafka.springexamples.autoscaling.ListenerAutoscalingConfig;
+import com.helloworld.kafka.springexamples.circuitbreaker.CircuitBreakerConfig;
+import com.helloworld.kafka.springexamples.circuitbreaker.CircuitOpenException;
+import com.helloworld.kafka.springexamples.circuitbreaker.DownstreamCircuitBreaker;
+
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @SpringBootApplication
+@Import({ListenerAutoscalingConfig.class, CircuitBreakerConfig.class})
 @Slf4j
+@RequiredArgsConstructor
 public class AtLeastOnceConsumer {
 
+    private final DeduplicationCache deduplicationCache;
+    private final DownstreamCircuitBreaker circuitBreaker;
+
     public static void main(String[] args) {
         SpringApplication app = new SpringApplication(AtLeastOnceConsumer.class);
         app.setAdditionalProfiles("at-least-once-consumer");
@@ -37,6 +52,9 @@ public class AtLeastOnceConsumer {
     @KafkaListener(id = "atLeastOnceListener", topics = "at-least-once-topic")
     public void listen(
         @Payload String message,
+        @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+        @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+        @Header(KafkaHeaders.OFFSET) long offset,
         @Headers Map<String, Object> headers,
         Acknowledgment acknowledgment) {
         
@@ -44,14 +62,29 @@ public class AtLeastOnceConsumer {
             log.info("Recibido mensaje: {}", message);
             log.info("Headers: {}", headers);
             
-            // Simulamos procesamiento del mensaje
-            processMessage(message);
+            // Las reentregas propias de AT-LEAST-ONCE se descartan si ya se procesaron
+            String dedupId = DeduplicationCache.dedupId(
+                    headers.get(DeduplicationCache.MESSAGE_ID_HEADER), topic, partition, offset);
+            if (deduplicationCache.isDuplicate(topic, partition, dedupId)) {
+                log.info("Mensaje duplicado descartado: id={}", dedupId);
+                acknowledgment.acknowledge();
+                return;
+            }
+            
+            // Simulamos procesamiento del mensaje; si la dependencia cae, el circuito pausa el consumo
+            circuitBreaker.run(new TopicPartition(topic, partition), () -> processMessage(message));
+            deduplicationCache.markProcessed(topic, partition, dedupId);
             
             // Confirmamos manualmente el mensaje después de procesarlo correctamente
             // Esto garantiza at-least-once: si falla antes de confirmar, se volverá a procesar
             acknowledgment.acknowledge();
             log.info("Mensaje procesado y confirmado correctamente");
             
+        } catch (CircuitOpenException e) {
+            // Con el circuito abierto el error handler vuelve a posicionar el consumidor en el
+            // mensaje y se reentrega cuando se reanuden las particiones
+            log.warn("Circuito abierto, el mensaje se reentregará: {}", e.getMessage());
+            throw e;
         } catch (Exception e) {
             // Si ocurre un error durante el procesamiento, no confirmamos el mensaje
             // Esto hará que el mensaje se vuelva a procesar en el siguiente poll
@@ -0,0 +1,160 @@
+package com.helloworld.kafka.springexamples.atleastonce.consumer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caché de deduplicación para consumidores idempotentes con garantía AT-LEAST-ONCE.
+ *
+ * Por cada partición asignada mantiene:
+ * - Un LRU exacto con los lru-size identificadores procesados más recientes.
+ * - Un filtro de Bloom rotatorio que cubre la ventana temporal configurada (window-ms) con
+ *   memoria fija, mucho más allá de lo que cabe en el LRU.
+ *
+ * Primero se consulta el LRU, que es exacto y barato. Si no está ahí, el Bloom decide: un
+ * negativo es nuevo con seguridad y un positivo se trata como duplicado de un identificador
+ * que ya salió del LRU. Con una fracción false-positive-rate de los identificadores nuevos
+ * que no están en el LRU se descarta un mensaje que no era duplicado; por eso la tasa por
+ * defecto es muy baja (1e-6). Con dedup.bloom-enabled=false no se crea el filtro y solo se
+ * deduplica contra el LRU: ninguna pérdida, pero solo para las reentregas recientes.
+ */
+@Component
+@Slf4j
+public class DeduplicationCache {
+
+    public static final String MESSAGE_ID_HEADER = "message_id";
+
+    private static final long LOG_EVERY = 1_000;
+
+    private final int lruSize;
+    private final int expectedIdsPerWindow;
+    private final double falsePositiveRate;
+    private final long windowMs;
+    private final boolean bloomEnabled;
+
+    private final Map<TopicPartition, PartitionWindow> partitions = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bloomOnly = new LongAdder();
+
+    public DeduplicationCache(
+            @Value("${dedup.lru-size:10000}") int lruSize,
+            @Value("${dedup.expected-ids-per-window:100000}") int expectedIdsPerWindow,
+            @Value("${dedup.false-positive-rate:0.000001}") double falsePositiveRate,
+            @Value("${dedup.window-ms:600000}") long windowMs,
+            @Value("${dedup.bloom-enabled:true}") boolean bloomEnabled) {
+        this.lruSize = lruSize;
+        this.expectedIdsPerWindow = expectedIdsPerWindow;
+        this.falsePositiveRate = falsePositiveRate;
+        this.windowMs = windowMs;
+        this.bloomEnabled = bloomEnabled;
+    }
+
+    /**
+     * Identificador de deduplicación: la cabecera message_id asignada por el productor o,
+     * si no existe, topic/partición/offset (cubre solo las reentregas del mismo registro).
+     */
+    public static String dedupId(Object messageIdHeader, String topic, int partition, long offset) {
+        if (messageIdHeader instanceof byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        if (messageIdHeader != null) {
+            return messageIdHeader.toString();
+        }
+        return topic + "-" + partition + "@" + offset;
+    }
+
+    public boolean isDuplicate(String topic, int partition, String id) {
+        boolean duplicate = window(new TopicPartition(topic, partition)).isDuplicate(id, System.currentTimeMillis());
+        if (duplicate) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        if ((hits.sum() + misses.sum()) % LOG_EVERY == 0) {
+            logMetrics();
+        }
+        return duplicate;
+    }
+
+    /**
+     * Registrar el identificador solo después de procesar el mensaje correctamente,
+     * para que un fallo siga provocando la reentrega
+     */
+    public void markProcessed(String topic, int partition, String id) {
+        window(new TopicPartition(topic, partition)).put(id, System.currentTimeMillis());
+    }
+
+    /**
+     * Olvidar el estado de las particiones que deja de tener este consumidor
+     */
+    public void clear(Collection<TopicPartition> revoked) {
+        revoked.forEach(partitions::remove);
+        log.info("Caché de deduplicación liberada para {}", revoked);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getBloomOnly() {
+        return bloomOnly.sum();
+    }
+
+    public void logMetrics() {
+        log.info("MÉTRICA - Deduplicación duplicados: {}, nuevos: {}, solo en Bloom: {}, particiones: {}",
+                getHits(), getMisses(), getBloomOnly(), partitions.size());
+    }
+
+    private PartitionWindow window(TopicPartition topicPartition) {
+        return partitions.computeIfAbsent(topicPartition, tp -> new PartitionWindow());
+    }
+
+    private class PartitionWindow {
+
+        private final RotatingBloomFilter bloom = bloomEnabled
+                ? new RotatingBloomFilter(expectedIdsPerWindow, falsePositiveRate, windowMs, System.currentTimeMillis())
+                : null;
+
+        private final LinkedHashMap<String, Boolean> recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > lruSize;
+            }
+        };
+
+        synchronized boolean isDuplicate(String id, long now) {
+            if (recent.get(id) != null) {
+                return true;
+            }
+            if (bloom == null || !bloom.mightContain(id, now)) {
+                return false;
+            }
+            // Procesado dentro de la ventana pero ya fuera del LRU (o falso positivo)
+            bloomOnly.increment();
+            return true;
+        }
+
+        synchronized void put(String id, long now) {
+            if (bloom != null) {
+                bloom.put(id, now);
+            }
+            recent.put(id, Boolean.TRUE);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.helloworld.kafka.springexamples.atleastonce.consumer;
+
+import java.util.Collection;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Libera la caché de deduplicación de las particiones revocadas o perdidas.
+ * Spring Boot lo aplica a la fábrica de contenedores autoconfigurada.
+ */
+@Component
+@RequiredArgsConstructor
+public class DeduplicationRebalanceListener implements ConsumerAwareRebalanceListener {
+
+    private final DeduplicationCache deduplicationCache;
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        deduplicationCache.clear(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        deduplicationCache.clear(partitions);
+    }
+}
@@ -0,0 +1,101 @@
+package com.helloworld.kafka.springexamples.atleastonce.consumer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Filtro de Bloom con ventana temporal formado por dos generaciones.
+ * Las inserciones van a la generación actual; al cumplirse la ventana la generación
+ * anterior se descarta y la actual pasa a ser la anterior. Un identificador se recuerda
+ * por tanto entre una y dos ventanas, con memoria fija.
+ *
+ * No es thread-safe: cada partición tiene su propia instancia.
+ */
+class RotatingBloomFilter {
+
+    private final int numBits;
+    private final int numHashes;
+    private final long windowMs;
+
+    private long[] current;
+    private long[] previous;
+    private long windowStart;
+
+    RotatingBloomFilter(int expectedIdsPerWindow, double falsePositiveRate, long windowMs, long now) {
+        // Dimensionado estándar: m = -n ln(p) / ln(2)^2, k = m/n ln(2)
+        double bits = -expectedIdsPerWindow * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.numBits = (int) Math.max(64, Math.min(Integer.MAX_VALUE - 64, Math.ceil(bits)));
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedIdsPerWindow * Math.log(2)));
+        this.windowMs = windowMs;
+        this.current = new long[(numBits + 63) / 64];
+        this.previous = new long[current.length];
+        this.windowStart = now;
+    }
+
+    boolean mightContain(String id, long now) {
+        rotateIfNeeded(now);
+        long hash = hash(id);
+        return contains(current, hash) || contains(previous, hash);
+    }
+
+    void put(String id, long now) {
+        rotateIfNeeded(now);
+        long hash = hash(id);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, numBits);
+            current[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Memoria ocupada por los bits de ambas generaciones
+     */
+    long sizeInBytes() {
+        return 2L * current.length * Long.BYTES;
+    }
+
+    private boolean contains(long[] bits, long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, numBits);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rotateIfNeeded(long now) {
+        long elapsed = now - windowStart;
+        if (elapsed < windowMs) {
+            return;
+        }
+        if (elapsed >= 2 * windowMs) {
+            // Han pasado dos ventanas sin actividad: ambas generaciones han caducado
+            Arrays.fill(current, 0L);
+        }
+        long[] recycled = previous;
+        Arrays.fill(recycled, 0L);
+        previous = current;
+        current = recycled;
+        windowStart = now;
+    }
+
+    /**
+     * Hash de 64 bits (FNV-1a con mezcla final de SplitMix64); de él se derivan los k índices
+     * por doble hashing
+     */
+    private static long hash(String id) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : id.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
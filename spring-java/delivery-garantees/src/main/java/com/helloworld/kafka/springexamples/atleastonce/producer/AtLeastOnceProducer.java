@@ -1,18 +1,25 @@
 package com.helloworld.kafka.springexamples.atleastonce.producer;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Scanner;
+import java.util.UUID;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.KafkaTemplate;
 
+import com.helloworld.kafka.springexamples.profiles.PerformanceProfileConfig;
+
 import lombok.extern.slf4j.Slf4j;
 
 @SpringBootApplication
+@Import(PerformanceProfileConfig.class)
 @Slf4j
 public class AtLeastOnceProducer {
 
@@ -56,7 +63,12 @@ public class AtLeastOnceProducer {
                 }
                 
                 // Envío con garantía AT-LEAST-ONCE
-                template.send("at-least-once-topic", data[0], data[1])
+                // El identificador viaja en cabecera para que el consumidor descarte duplicados
+                ProducerRecord<String, String> producerRecord =
+                        new ProducerRecord<>("at-least-once-topic", data[0], data[1]);
+                producerRecord.headers().add("message_id",
+                        UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+                template.send(producerRecord)
                     .whenComplete((result, ex) -> {
                         if (ex == null) {
                             log.info("Mensaje enviado con éxito: clave={}, valor={}, offset={}",
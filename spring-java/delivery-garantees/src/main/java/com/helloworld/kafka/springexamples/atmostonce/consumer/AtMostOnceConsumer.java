@@ -6,14 +6,18 @@ import org.apache.kafka.clients.admin.NewTopic;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.messaging.handler.annotation.Headers;
 import org.springframework.messaging.handler.annotation.Payload;
 
+import com.helloworld.kafka.springexamples.autoscaling.ListenerAutoscalingConfig;
+
 import lombok.extern.slf4j.Slf4j;
 
 @SpringBootApplication
+@Import(ListenerAutoscalingConfig.class)
 @Slf4j
 public class AtMostOnceConsumer {
 
@@ -8,7 +8,9 @@ import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 
-import java.util.HashMap;
+import com.helloworld.kafka.springexamples.profiles.ClientConfigBuilder;
+import com.helloworld.kafka.springexamples.profiles.PerformanceProfile;
+
 import java.util.Map;
 
 @Configuration
@@ -17,19 +19,20 @@ public class KafkaConsumerConfig {
     
     @Bean
     public ConsumerFactory<String, String> consumerFactory() {
-        Map<String, Object> props = new HashMap<>();
-        
-        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.GROUP_ID_CONFIG, "at-most-once-group");
-        
-        // Configuración específica para AT-MOST-ONCE
-        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true); // Commit automático
-        props.put(ConsumerConfig.AUTO_COMMIT_INTERVAL_MS_CONFIG, "100"); // Commit frecuente
-        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest"); // Comenzar desde el último offset
-        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500); // Procesar más registros por poll
-        
+        // Parámetros de rendimiento del perfil LOW_LATENCY; las propiedades de la garantía se añaden encima
+        Map<String, Object> props = ClientConfigBuilder.consumer(PerformanceProfile.LOW_LATENCY)
+                .with(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092")
+                .with(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class)
+                .with(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class)
+                // Rebalanceos incrementales y sin rebalanceo en reinicios rápidos
+                .cooperativeStaticMembership("at-most-once-group")
+                // Configuración específica para AT-MOST-ONCE
+                .with(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true) // Commit automático
+                .with(ConsumerConfig.AUTO_COMMIT_INTERVAL_MS_CONFIG, "100") // Commit frecuente
+                .with(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest") // Comenzar desde el último offset
+                .with(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500) // Procesar más registros por poll
+                .build();
+
         return new DefaultKafkaConsumerFactory<>(props);
     }
 }
@@ -7,12 +7,16 @@ import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.KafkaTemplate;
 
+import com.helloworld.kafka.springexamples.profiles.PerformanceProfileConfig;
+
 import lombok.extern.slf4j.Slf4j;
 
 @SpringBootApplication
+@Import(PerformanceProfileConfig.class)
 @Slf4j
 public class AtMostOnceProducer {
 
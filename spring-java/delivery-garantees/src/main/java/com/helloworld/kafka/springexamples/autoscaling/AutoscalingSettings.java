@@ -0,0 +1,40 @@
+package com.helloworld.kafka.springexamples.autoscaling;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Propiedades kafka.autoscaling.*
+ */
+@Data
+@ConfigurationProperties(prefix = "kafka.autoscaling")
+public class AutoscalingSettings {
+
+    /** Identificadores de listener a escalar; vacío para todos los registrados */
+    private List<String> listenerIds = new ArrayList<>();
+
+    /** Intervalo entre evaluaciones */
+    private long evaluationIntervalMs = 15_000;
+
+    /** Concurrencia mínima mientras hay tráfico; el máximo es el número de particiones */
+    private int minConcurrency = 1;
+
+    /** Tiempo en el que se quiere drenar el lag acumulado */
+    private long drainTargetMs = 60_000;
+
+    /** Ocupación objetivo de cada hilo de consumo (0.0 - 1.0) */
+    private double targetUtilization = 0.7;
+
+    /** Tiempo mínimo entre dos subidas de concurrencia */
+    private long scaleUpCooldownMs = 30_000;
+
+    /** Tiempo mínimo entre dos bajadas de concurrencia */
+    private long scaleDownCooldownMs = 300_000;
+
+    /** Tiempo sin lag ni tráfico tras el que se detiene el contenedor; 0 para no detenerlo */
+    private long idleStopMs = 600_000;
+}
@@ -0,0 +1,312 @@
+package com.helloworld.kafka.springexamples.autoscaling;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
+import org.apache.kafka.clients.admin.MemberDescription;
+import org.apache.kafka.clients.admin.MemberToRemove;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.RemoveMembersFromConsumerGroupOptions;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ajusta en tiempo de ejecución la concurrencia de los contenedores de listeners.
+ *
+ * En cada evaluación calcula, con el AdminClient, el lag del grupo y la tasa de llegada
+ * (crecimiento de los offsets finales), y con {@link ProcessingTimeInterceptor} el tiempo
+ * medio por registro. La concurrencia necesaria es:
+ *
+ *   (tasa de llegada + lag / tiempo de drenado) * tiempo por registro / ocupación objetivo
+ *
+ * acotada entre la mínima configurada y el número de particiones. Las subidas y bajadas
+ * respetan sus periodos de enfriamiento, y un contenedor sin lag ni tráfico durante
+ * idle-stop-ms se detiene para liberar sus hilos y buffers de fetch; se vuelve a arrancar
+ * en cuanto aparece lag.
+ *
+ * Con membresía estática (group.instance.id) un consumidor que se cierra no envía LeaveGroup,
+ * y sus particiones quedarían sin asignar hasta session.timeout.ms. Por eso, al bajar la
+ * concurrencia o detener un contenedor inactivo, los miembros que no van a volver se sacan del
+ * grupo con removeMembersFromConsumerGroup y sus particiones se reasignan en el acto. Los que
+ * vuelven con el mismo group.instance.id al reiniciar recuperan su sitio sin esperar.
+ *
+ * Una partición sin offset confirmado cuenta como lag desde su offset inicial, no desde 0.
+ */
+@Slf4j
+public class ConcurrencyAutoscaler implements DisposableBean {
+
+    private static final long ADMIN_TIMEOUT_MS = 10_000;
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final KafkaAdmin kafkaAdmin;
+    private final ProcessingTimeInterceptor processingTime;
+    private final AutoscalingSettings settings;
+
+    private final Map<String, ListenerState> states = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "listener-autoscaler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private AdminClient adminClient;
+
+    public ConcurrencyAutoscaler(KafkaListenerEndpointRegistry registry, KafkaAdmin kafkaAdmin,
+            ProcessingTimeInterceptor processingTime, AutoscalingSettings settings) {
+        this.registry = registry;
+        this.kafkaAdmin = kafkaAdmin;
+        this.processingTime = processingTime;
+        this.settings = settings;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+        scheduler.scheduleWithFixedDelay(this::evaluateAll, settings.getEvaluationIntervalMs(),
+                settings.getEvaluationIntervalMs(), TimeUnit.MILLISECONDS);
+        log.info("Autoescalado de listeners activo cada {} ms", settings.getEvaluationIntervalMs());
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        if (adminClient != null) {
+            adminClient.close();
+        }
+    }
+
+    private void evaluateAll() {
+        Collection<String> listenerIds = settings.getListenerIds().isEmpty()
+                ? registry.getListenerContainerIds()
+                : settings.getListenerIds();
+        for (String listenerId : listenerIds) {
+            try {
+                evaluate(listenerId);
+            } catch (Exception e) {
+                log.warn("No se pudo evaluar el autoescalado de {}: {}", listenerId, e.getMessage());
+            }
+        }
+    }
+
+    private void evaluate(String listenerId) throws Exception {
+        MessageListenerContainer listenerContainer = registry.getListenerContainer(listenerId);
+        if (!(listenerContainer instanceof ConcurrentMessageListenerContainer<?, ?> container)) {
+            return;
+        }
+        String groupId = container.getGroupId();
+        String[] topics = container.getContainerProperties().getTopics();
+        if (groupId == null || topics == null) {
+            // Solo se escalan listeners suscritos por nombre de topic
+            return;
+        }
+
+        Map<String, TopicDescription> descriptions = adminClient.describeTopics(Arrays.asList(topics))
+                .allTopicNames().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+        descriptions.values().forEach(description -> description.partitions().forEach(info ->
+                latest.put(new TopicPartition(description.name(), info.partition()), OffsetSpec.latest())));
+        int partitionCount = latest.size();
+
+        Map<TopicPartition, ListOffsetsResultInfo> endOffsets = adminClient.listOffsets(latest)
+                .all().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        Map<TopicPartition, OffsetAndMetadata> committed = adminClient.listConsumerGroupOffsets(groupId)
+                .partitionsToOffsetAndMetadata().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        Map<TopicPartition, Long> startOffsets = startOffsets(endOffsets.keySet(), committed);
+
+        long endOffsetSum = 0;
+        long lag = 0;
+        for (Map.Entry<TopicPartition, ListOffsetsResultInfo> end : endOffsets.entrySet()) {
+            long endOffset = end.getValue().offset();
+            endOffsetSum += endOffset;
+            lag += Math.max(0, endOffset - startOffsets.get(end.getKey()));
+        }
+
+        double secondsPerRecord = Arrays.stream(topics).mapToDouble(processingTime::averageSeconds).max().orElse(0);
+
+        long now = System.currentTimeMillis();
+        ListenerState state = states.computeIfAbsent(listenerId, id -> new ListenerState());
+        double arrivalRate = state.arrivalRate(endOffsetSum, now);
+
+        int current = container.getConcurrency();
+        int desired = desiredConcurrency(current, lag, arrivalRate, secondsPerRecord, partitionCount);
+
+        log.info("MÉTRICA - Autoescalado listener: {}, lag: {}, llegada: {}/s, procesamiento: {}ms, "
+                + "concurrencia: {}, deseada: {}, activo: {}", listenerId, lag, String.format("%.1f", arrivalRate),
+                String.format("%.2f", secondsPerRecord * 1000), current, desired, container.isRunning());
+
+        boolean idle = lag == 0 && arrivalRate == 0;
+        if (!container.isRunning()) {
+            if (!idle && state.stoppedForIdle) {
+                restart(listenerId, container, groupId, Math.max(current, desired), "hay lag de nuevo");
+                state.stoppedForIdle = false;
+                state.lastScaleUp = now;
+            }
+            return;
+        }
+
+        if (idle) {
+            if (state.idleSince == 0) {
+                state.idleSince = now;
+            } else if (settings.getIdleStopMs() > 0 && now - state.idleSince >= settings.getIdleStopMs()) {
+                log.info("Deteniendo listener {} tras {} ms sin tráfico", listenerId, now - state.idleSince);
+                container.stop();
+                removeStaticMembers(container, groupId, 0);
+                state.stoppedForIdle = true;
+                state.idleSince = 0;
+                return;
+            }
+        } else {
+            state.idleSince = 0;
+        }
+
+        if (desired > current && now - state.lastScaleUp >= settings.getScaleUpCooldownMs()) {
+            restart(listenerId, container, groupId, desired, "subida por lag");
+            state.lastScaleUp = now;
+        } else if (desired < current && now - state.lastScaleDown >= settings.getScaleDownCooldownMs()
+                && now - state.lastScaleUp >= settings.getScaleDownCooldownMs()) {
+            restart(listenerId, container, groupId, desired, "bajada por falta de carga");
+            state.lastScaleDown = now;
+        }
+    }
+
+    private int desiredConcurrency(int current, long lag, double arrivalRate, double secondsPerRecord,
+            int partitionCount) {
+        int max = Math.max(1, partitionCount);
+        int min = Math.max(1, Math.min(settings.getMinConcurrency(), max));
+        if (secondsPerRecord == 0) {
+            // Sin muestras de procesamiento no hay base para cambiar la concurrencia
+            return Math.max(min, Math.min(current, max));
+        }
+        double recordsPerSecondToDrain = arrivalRate + lag * 1000.0 / settings.getDrainTargetMs();
+        double threads = recordsPerSecondToDrain * secondsPerRecord / settings.getTargetUtilization();
+        return (int) Math.max(min, Math.min(max, Math.ceil(threads)));
+    }
+
+    /**
+     * Offset desde el que se cuenta el lag: el confirmado o, si la partición no tiene, su offset
+     * inicial (el consumidor empezará por ahí con auto.offset.reset=earliest)
+     */
+    private Map<TopicPartition, Long> startOffsets(Collection<TopicPartition> partitions,
+            Map<TopicPartition, OffsetAndMetadata> committed) throws Exception {
+        Map<TopicPartition, Long> startOffsets = new HashMap<>();
+        Map<TopicPartition, OffsetSpec> earliest = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            OffsetAndMetadata committedOffset = committed.get(partition);
+            if (committedOffset == null) {
+                earliest.put(partition, OffsetSpec.earliest());
+            } else {
+                startOffsets.put(partition, committedOffset.offset());
+            }
+        }
+        if (!earliest.isEmpty()) {
+            adminClient.listOffsets(earliest).all().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                    .forEach((partition, info) -> startOffsets.put(partition, info.offset()));
+        }
+        return startOffsets;
+    }
+
+    private void restart(String listenerId, ConcurrentMessageListenerContainer<?, ?> container, String groupId,
+            int concurrency, String reason) {
+        log.info("Listener {}: concurrencia {} -> {} ({})", listenerId, container.getConcurrency(), concurrency,
+                reason);
+        if (container.isRunning()) {
+            // La concurrencia solo se aplica al arrancar el contenedor
+            container.stop();
+            // Los consumidores con índice >= concurrency no vuelven
+            removeStaticMembers(container, groupId, concurrency);
+        }
+        container.setConcurrency(concurrency);
+        container.start();
+    }
+
+    /**
+     * Saca del grupo los miembros estáticos del contenedor (ya detenido) cuyo índice es mayor o
+     * igual que keep. Spring forma su group.instance.id con el configurado y el sufijo -n del
+     * consumidor; sin sufijo, el índice es 0. Sin membresía estática no hay nada que hacer:
+     * el consumidor ya ha enviado LeaveGroup al cerrarse.
+     */
+    private void removeStaticMembers(ConcurrentMessageListenerContainer<?, ?> container, String groupId, int keep) {
+        String instanceId = groupInstanceId(container);
+        if (instanceId == null) {
+            return;
+        }
+        Pattern ownInstance = Pattern.compile(Pattern.quote(instanceId) + "(?:-(\\d+))?");
+        List<String> departing = new ArrayList<>();
+        try {
+            Collection<MemberDescription> members = adminClient.describeConsumerGroups(List.of(groupId))
+                    .describedGroups().get(groupId).get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS).members();
+            for (MemberDescription member : members) {
+                String memberInstanceId = member.groupInstanceId().orElse(null);
+                Matcher matcher = memberInstanceId == null ? null : ownInstance.matcher(memberInstanceId);
+                if (matcher != null && matcher.matches()
+                        && (matcher.group(1) == null ? 0 : Integer.parseInt(matcher.group(1))) >= keep) {
+                    departing.add(memberInstanceId);
+                }
+            }
+            if (departing.isEmpty()) {
+                return;
+            }
+            List<MemberToRemove> toRemove = departing.stream().map(MemberToRemove::new).toList();
+            adminClient.removeMembersFromConsumerGroup(groupId, new RemoveMembersFromConsumerGroupOptions(toRemove))
+                    .all().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            log.info("Grupo {}: miembros estáticos retirados {}", groupId, departing);
+        } catch (Exception e) {
+            // Las particiones se reasignarán al vencer session.timeout.ms
+            log.warn("No se pudieron retirar del grupo {} los miembros estáticos {}: {}", groupId, departing,
+                    e.getMessage());
+        }
+    }
+
+    private static String groupInstanceId(ConcurrentMessageListenerContainer<?, ?> container) {
+        String override = container.getContainerProperties().getKafkaConsumerProperties()
+                .getProperty(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG);
+        if (override != null) {
+            return override;
+        }
+        Object configured = container.getConsumerFactory().getConfigurationProperties()
+                .get(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG);
+        return configured == null ? null : configured.toString();
+    }
+
+    private static class ListenerState {
+        private long lastEndOffsetSum = -1;
+        private long lastSampleTime;
+        private long lastScaleUp;
+        private long lastScaleDown;
+        private long idleSince;
+        private boolean stoppedForIdle;
+
+        private double arrivalRate(long endOffsetSum, long now) {
+            double rate = 0;
+            if (lastEndOffsetSum >= 0 && now > lastSampleTime) {
+                rate = (endOffsetSum - lastEndOffsetSum) * 1000.0 / (now - lastSampleTime);
+            }
+            lastEndOffsetSum = endOffsetSum;
+            lastSampleTime = now;
+            return rate;
+        }
+    }
+}
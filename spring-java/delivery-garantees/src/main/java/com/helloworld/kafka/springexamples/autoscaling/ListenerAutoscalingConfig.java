@@ -0,0 +1,33 @@
+package com.helloworld.kafka.springexamples.autoscaling;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaAdmin;
+
+/**
+ * Autoescalado de la concurrencia de los listeners según lag y tiempo de procesamiento.
+ * Se importa desde la aplicación consumidora y se activa con kafka.autoscaling.enabled=true.
+ */
+@Configuration
+@ConditionalOnProperty(name = "kafka.autoscaling.enabled", havingValue = "true")
+@EnableConfigurationProperties(AutoscalingSettings.class)
+public class ListenerAutoscalingConfig {
+
+    /**
+     * Spring Boot aplica este interceptor a la fábrica de contenedores autoconfigurada
+     */
+    @Bean
+    public ProcessingTimeInterceptor processingTimeInterceptor() {
+        return new ProcessingTimeInterceptor();
+    }
+
+    @Bean
+    public ConcurrencyAutoscaler concurrencyAutoscaler(KafkaListenerEndpointRegistry registry,
+            KafkaAdmin kafkaAdmin, ProcessingTimeInterceptor processingTimeInterceptor,
+            AutoscalingSettings settings) {
+        return new ConcurrencyAutoscaler(registry, kafkaAdmin, processingTimeInterceptor, settings);
+    }
+}
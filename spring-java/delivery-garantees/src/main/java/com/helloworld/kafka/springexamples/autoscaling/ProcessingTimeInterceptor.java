@@ -0,0 +1,46 @@
+package com.helloworld.kafka.springexamples.autoscaling;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+/**
+ * Mide el tiempo de procesamiento de cada registro en el listener y mantiene
+ * una media móvil exponencial por topic.
+ */
+public class ProcessingTimeInterceptor implements RecordInterceptor<Object, Object> {
+
+    private static final double ALPHA = 0.2;
+
+    private final ThreadLocal<Long> startNanos = new ThreadLocal<>();
+    private final Map<String, Double> averageNanosByTopic = new ConcurrentHashMap<>();
+
+    @Override
+    public ConsumerRecord<Object, Object> intercept(ConsumerRecord<Object, Object> consumerRecord,
+            Consumer<Object, Object> consumer) {
+        startNanos.set(System.nanoTime());
+        return consumerRecord;
+    }
+
+    @Override
+    public void afterRecord(ConsumerRecord<Object, Object> consumerRecord, Consumer<Object, Object> consumer) {
+        Long start = startNanos.get();
+        if (start == null) {
+            return;
+        }
+        startNanos.remove();
+        double elapsed = System.nanoTime() - start;
+        averageNanosByTopic.merge(consumerRecord.topic(), elapsed,
+                (average, sample) -> average + ALPHA * (sample - average));
+    }
+
+    /**
+     * Tiempo medio de procesamiento en segundos; 0 si todavía no hay muestras
+     */
+    public double averageSeconds(String topic) {
+        return averageNanosByTopic.getOrDefault(topic, 0.0) / 1_000_000_000.0;
+    }
+}
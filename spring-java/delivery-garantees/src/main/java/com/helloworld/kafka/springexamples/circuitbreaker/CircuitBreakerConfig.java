@@ -0,0 +1,30 @@
+package com.helloworld.kafka.springexamples.circuitbreaker;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+
+/**
+ * Circuit breaker de dependencias externas para los listeners. Se importa desde la aplicación
+ * consumidora; con kafka.circuit-breaker.enabled=false el circuito deja pasar todas las
+ * llamadas.
+ *
+ * El CircuitBreakerErrorHandler lo aplica Spring Boot a la fábrica de contenedores
+ * autoconfigurada; las fábricas propias deben usarlo en lugar de DefaultErrorHandler.
+ */
+@Configuration
+@EnableConfigurationProperties(CircuitBreakerSettings.class)
+public class CircuitBreakerConfig {
+
+    @Bean
+    public DownstreamCircuitBreaker downstreamCircuitBreaker(KafkaListenerEndpointRegistry registry,
+            CircuitBreakerSettings settings) {
+        return new DownstreamCircuitBreaker(registry, settings);
+    }
+
+    @Bean
+    public CircuitBreakerErrorHandler circuitBreakerErrorHandler() {
+        return new CircuitBreakerErrorHandler();
+    }
+}
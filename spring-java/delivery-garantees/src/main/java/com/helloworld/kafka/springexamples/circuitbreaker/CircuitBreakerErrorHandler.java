@@ -0,0 +1,66 @@
+package com.helloworld.kafka.springexamples.circuitbreaker;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.util.backoff.BackOff;
+
+/**
+ * DefaultErrorHandler que no gasta reintentos ni envía a la DLQ los registros fallidos por
+ * {@link CircuitOpenException}: se vuelve a posicionar el consumidor en ellos y se entregan
+ * de nuevo cuando el circuito reanuda las particiones. El resto de errores siguen el
+ * backoff y el recuperador configurados.
+ *
+ * Con un listener asíncrono hay muchos registros en vuelo y Spring llama a handleRemaining
+ * una vez por cada registro fallido, en cualquier orden. Por eso solo se retrocede: se busca
+ * el offset fallido solo si es menor que la posición actual. Si fallan 10 y 40, la posición
+ * acaba en 10 sea cual sea el orden, y 10..39 se vuelven a entregar.
+ */
+public class CircuitBreakerErrorHandler extends DefaultErrorHandler {
+
+    public CircuitBreakerErrorHandler() {
+        super();
+    }
+
+    public CircuitBreakerErrorHandler(ConsumerRecordRecoverer recoverer, BackOff backOff) {
+        super(recoverer, backOff);
+    }
+
+    @Override
+    public void handleRemaining(Exception thrownException, List<ConsumerRecord<?, ?>> records,
+            Consumer<?, ?> consumer, MessageListenerContainer container) {
+        if (!CircuitOpenException.isCause(thrownException)) {
+            super.handleRemaining(thrownException, records, consumer, container);
+            return;
+        }
+        Map<TopicPartition, Long> firstOffsets = new LinkedHashMap<>();
+        for (ConsumerRecord<?, ?> record : records) {
+            firstOffsets.merge(new TopicPartition(record.topic(), record.partition()), record.offset(), Math::min);
+        }
+        firstOffsets.forEach((partition, offset) -> seekBackwards(consumer, partition, offset));
+    }
+
+    @Override
+    public boolean handleOne(Exception thrownException, ConsumerRecord<?, ?> record, Consumer<?, ?> consumer,
+            MessageListenerContainer container) {
+        if (!CircuitOpenException.isCause(thrownException)) {
+            return super.handleOne(thrownException, record, consumer, container);
+        }
+        seekBackwards(consumer, new TopicPartition(record.topic(), record.partition()), record.offset());
+        return false;
+    }
+
+    private static void seekBackwards(Consumer<?, ?> consumer, TopicPartition partition, long offset) {
+        // Una partición revocada ya no es nuestra: su nuevo dueño empieza en el último commit
+        if (consumer.assignment().contains(partition) && offset < consumer.position(partition)) {
+            consumer.seek(partition, offset);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.helloworld.kafka.springexamples.circuitbreaker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Propiedades kafka.circuit-breaker.*
+ */
+@Data
+@ConfigurationProperties(prefix = "kafka.circuit-breaker")
+public class CircuitBreakerSettings {
+
+    public enum Scope {
+        /** Se pausan todas las particiones de los listeners */
+        ALL,
+        /** Solo se pausan las particiones cuyos registros han fallado */
+        PARTITION
+    }
+
+    /** Sin activar, el circuito deja pasar todas las llamadas */
+    private boolean enabled = false;
+
+    /** Nombre de la dependencia protegida, para logs y métricas */
+    private String name = "downstream";
+
+    /** Listeners cuyos contenedores se pausan; vacío para todos los registrados */
+    private List<String> listenerIds = new ArrayList<>();
+
+    /** Fallos consecutivos que abren el circuito */
+    private int failureThreshold = 5;
+
+    /** Tiempo abierto antes de probar con registros de prueba */
+    private long openDurationMs = 30_000;
+
+    /** Tope del tiempo abierto, que se duplica cada vez que falla una prueba */
+    private long maxOpenDurationMs = 300_000;
+
+    /** Registros de prueba que deben terminar bien en semiabierto para cerrar el circuito */
+    private int trialRecords = 3;
+
+    private Scope scope = Scope.ALL;
+}
@@ -0,0 +1,25 @@
+package com.helloworld.kafka.springexamples.circuitbreaker;
+
+/**
+ * El circuito está abierto: la llamada no se ha hecho (o su fallo ha abierto el circuito) y
+ * el registro debe volver a entregarse cuando se reanude el consumo, sin contar como intento
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    public CircuitOpenException(String name) {
+        super("Circuito " + name + " abierto");
+    }
+
+    public CircuitOpenException(String name, Throwable cause) {
+        super("Circuito " + name + " abierto tras: " + cause.getMessage(), cause);
+    }
+
+    static boolean isCause(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CircuitOpenException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,243 @@
+package com.helloworld.kafka.springexamples.circuitbreaker;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Circuit breaker de una dependencia externa integrado con los contenedores de listeners.
+ *
+ * Los listeners hacen la llamada a la dependencia a través de {@link #run}. Tras
+ * failure-threshold fallos consecutivos el circuito se abre: se pausan los contenedores (o
+ * solo las particiones que han fallado) y las llamadas fallan al instante con
+ * {@link CircuitOpenException}, que {@link CircuitBreakerErrorHandler} convierte en una nueva
+ * entrega sin gastar reintentos. Los contenedores siguen haciendo poll sin recibir registros,
+ * así que el consumidor sigue en el grupo sin consumir CPU en reintentos.
+ *
+ * Pasado open-duration-ms se reanuda el consumo en semiabierto: solo trial-records llamadas de
+ * prueba llegan a la dependencia. Si todas terminan bien el circuito se cierra; si alguna
+ * falla se vuelve a abrir con el doble de tiempo, hasta max-open-duration-ms.
+ */
+@Slf4j
+public class DownstreamCircuitBreaker implements DisposableBean {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final CircuitBreakerSettings settings;
+
+    private final Set<TopicPartition> failedPartitions = ConcurrentHashMap.newKeySet();
+    private final Set<TopicPartition> pausedPartitions = ConcurrentHashMap.newKeySet();
+    private final LongAdder rejected = new LongAdder();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "circuit-breaker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile State state = State.CLOSED;
+    private int consecutiveFailures;
+    private int trialPermits;
+    private int trialSuccesses;
+    private long openDurationMs;
+    private long opens;
+
+    public DownstreamCircuitBreaker(KafkaListenerEndpointRegistry registry, CircuitBreakerSettings settings) {
+        this.registry = registry;
+        this.settings = settings;
+        this.openDurationMs = settings.getOpenDurationMs();
+    }
+
+    /**
+     * Hace la llamada a la dependencia para el registro si el circuito lo permite
+     *
+     * @throws CircuitOpenException si el circuito está abierto o la llamada lo ha abierto
+     */
+    public void run(ConsumerRecord<?, ?> record, Runnable call) {
+        run(new TopicPartition(record.topic(), record.partition()), call);
+    }
+
+    /**
+     * Hace la llamada a la dependencia para un registro de la partición si el circuito lo permite
+     *
+     * @throws CircuitOpenException si el circuito está abierto o la llamada lo ha abierto
+     */
+    public void run(TopicPartition partition, Runnable call) {
+        if (!settings.isEnabled()) {
+            call.run();
+            return;
+        }
+        boolean trial = acquire(partition);
+        try {
+            call.run();
+        } catch (RuntimeException e) {
+            if (onFailure(partition, trial)) {
+                throw new CircuitOpenException(settings.getName(), e);
+            }
+            throw e;
+        }
+        onSuccess(trial);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Estado como número, para métricas: 0 cerrado, 1 semiabierto, 2 abierto
+     */
+    public int getStateCode() {
+        return state == State.CLOSED ? 0 : state == State.HALF_OPEN ? 1 : 2;
+    }
+
+    public synchronized long getOpenCount() {
+        return opens;
+    }
+
+    /**
+     * Llamadas rechazadas sin llegar a la dependencia
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return true si la llamada es de prueba en semiabierto
+     */
+    private synchronized boolean acquire(TopicPartition partition) {
+        if (state == State.CLOSED) {
+            return false;
+        }
+        if (settings.getScope() == CircuitBreakerSettings.Scope.PARTITION && !failedPartitions.contains(partition)) {
+            // Las particiones que no han fallado siguen llamando; si fallan se pausan también
+            return false;
+        }
+        if (state == State.HALF_OPEN && trialPermits > 0) {
+            trialPermits--;
+            return true;
+        }
+        rejected.increment();
+        throw new CircuitOpenException(settings.getName());
+    }
+
+    /**
+     * @return true si el circuito está abierto tras el fallo
+     */
+    private synchronized boolean onFailure(TopicPartition partition, boolean trial) {
+        boolean newPartition = failedPartitions.add(partition);
+        if (state == State.OPEN) {
+            if (newPartition) {
+                pause();
+            }
+            return true;
+        }
+        if (trial || state == State.HALF_OPEN) {
+            open(Math.min(openDurationMs * 2, settings.getMaxOpenDurationMs()), "falla una prueba");
+            return true;
+        }
+        if (++consecutiveFailures >= settings.getFailureThreshold()) {
+            open(settings.getOpenDurationMs(), consecutiveFailures + " fallos consecutivos");
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized void onSuccess(boolean trial) {
+        consecutiveFailures = 0;
+        if (trial && state == State.HALF_OPEN && ++trialSuccesses >= settings.getTrialRecords()) {
+            state = State.CLOSED;
+            openDurationMs = settings.getOpenDurationMs();
+            failedPartitions.clear();
+            logState("se cierra tras " + trialSuccesses + " pruebas correctas");
+        }
+    }
+
+    private void open(long durationMs, String reason) {
+        state = State.OPEN;
+        opens++;
+        openDurationMs = durationMs;
+        logState("se abre durante " + durationMs + " ms: " + reason);
+        pause();
+        scheduler.schedule(this::halfOpen, durationMs, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void halfOpen() {
+        state = State.HALF_OPEN;
+        trialPermits = settings.getTrialRecords();
+        trialSuccesses = 0;
+        consecutiveFailures = 0;
+        logState("semiabierto, " + trialPermits + " registros de prueba");
+        resume();
+    }
+
+    private void pause() {
+        for (MessageListenerContainer container : containers()) {
+            if (settings.getScope() == CircuitBreakerSettings.Scope.ALL) {
+                container.pause();
+                continue;
+            }
+            Collection<TopicPartition> assigned = container.getAssignedPartitions();
+            for (TopicPartition partition : failedPartitions) {
+                if (assigned != null && assigned.contains(partition)) {
+                    container.pausePartition(partition);
+                    pausedPartitions.add(partition);
+                }
+            }
+        }
+    }
+
+    private void resume() {
+        for (MessageListenerContainer container : containers()) {
+            if (settings.getScope() == CircuitBreakerSettings.Scope.ALL) {
+                container.resume();
+                continue;
+            }
+            for (TopicPartition partition : pausedPartitions) {
+                if (container.isPartitionPauseRequested(partition)) {
+                    container.resumePartition(partition);
+                }
+            }
+        }
+        pausedPartitions.clear();
+    }
+
+    private List<MessageListenerContainer> containers() {
+        List<MessageListenerContainer> containers = new ArrayList<>();
+        Collection<String> listenerIds = settings.getListenerIds().isEmpty()
+                ? registry.getListenerContainerIds()
+                : settings.getListenerIds();
+        for (String listenerId : listenerIds) {
+            MessageListenerContainer container = registry.getListenerContainer(listenerId);
+            if (container != null) {
+                containers.add(container);
+            }
+        }
+        return containers;
+    }
+
+    private void logState(String transition) {
+        log.info("MÉTRICA - Circuito: {}, estado: {} ({}), aperturas: {}, rechazados: {}", settings.getName(),
+                state, transition, opens, rejected.sum());
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
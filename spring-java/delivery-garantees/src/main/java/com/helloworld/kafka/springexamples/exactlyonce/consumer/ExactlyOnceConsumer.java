@@ -6,6 +6,7 @@ import org.apache.kafka.clients.admin.NewTopic;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.support.Acknowledgment;
@@ -13,9 +14,12 @@ import org.springframework.messaging.handler.annotation.Headers;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.helloworld.kafka.springexamples.autoscaling.ListenerAutoscalingConfig;
+
 import lombok.extern.slf4j.Slf4j;
 
 @SpringBootApplication
+@Import(ListenerAutoscalingConfig.class)
 @Slf4j
 public class ExactlyOnceConsumer {
 
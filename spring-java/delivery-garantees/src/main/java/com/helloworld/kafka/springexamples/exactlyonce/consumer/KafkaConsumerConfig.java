@@ -8,7 +8,9 @@ import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 
-import java.util.HashMap;
+import com.helloworld.kafka.springexamples.profiles.ClientConfigBuilder;
+import com.helloworld.kafka.springexamples.profiles.PerformanceProfile;
+
 import java.util.Map;
 
 @Configuration
@@ -17,18 +19,19 @@ public class KafkaConsumerConfig {
     
     @Bean
     public ConsumerFactory<String, String> consumerFactory() {
-        Map<String, Object> props = new HashMap<>();
-        
-        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.GROUP_ID_CONFIG, "exactly-once-group");
-        
-        // Configuración específica para EXACTLY-ONCE
-        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false); // Desactivar commit automático
-        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed"); // Solo leer mensajes confirmados
-        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest"); // Comenzar desde el principio si no hay offset
-        
+        // Parámetros de rendimiento del perfil DURABLE; las propiedades de la garantía se añaden encima
+        Map<String, Object> props = ClientConfigBuilder.consumer(PerformanceProfile.DURABLE)
+                .with(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092")
+                .with(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class)
+                .with(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class)
+                // Rebalanceos incrementales y sin rebalanceo en reinicios rápidos
+                .cooperativeStaticMembership("exactly-once-group")
+                // Configuración específica para EXACTLY-ONCE
+                .with(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false) // Desactivar commit automático
+                .with(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed") // Solo leer mensajes confirmados
+                .with(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest") // Comenzar desde el principio si no hay offset
+                .build();
+
         return new DefaultKafkaConsumerFactory<>(props);
     }
 }
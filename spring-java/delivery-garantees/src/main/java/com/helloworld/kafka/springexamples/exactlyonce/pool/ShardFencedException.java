@@ -0,0 +1,20 @@
+package com.helloworld.kafka.springexamples.exactlyonce.pool;
+
+/**
+ * El productor de un shard del pool ha quedado aislado: otra encarnación usa su
+ * transactional.id y el shard no acepta más transacciones.
+ */
+public class ShardFencedException extends RuntimeException {
+
+    private final int shard;
+
+    public ShardFencedException(int shard, Throwable cause) {
+        super("Shard " + shard + " del pool transaccional aislado por otro productor con el mismo transactional.id",
+                cause);
+        this.shard = shard;
+    }
+
+    public int getShard() {
+        return shard;
+    }
+}
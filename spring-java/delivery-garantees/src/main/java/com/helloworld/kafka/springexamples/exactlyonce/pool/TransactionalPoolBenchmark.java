@@ -0,0 +1,120 @@
+package com.helloworld.kafka.springexamples.exactlyonce.pool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import com.helloworld.kafka.springexamples.profiles.ClientConfigBuilder;
+import com.helloworld.kafka.springexamples.profiles.PerformanceProfile;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mide cómo escala exactly-once con el tamaño del {@link TransactionalProducerPool}.
+ *
+ * Para cada tamaño envía el mismo número de transacciones de N registros, repartidas entre los
+ * shards, y da transacciones/s, registros/s y la latencia p50/p99 de cada transacción (desde
+ * que empieza hasta que se confirma). Con tamaño 1 es el techo de un único productor
+ * transaccional.
+ *
+ * Uso: TransactionalPoolBenchmark [bootstrap] [tamaño,tamaño...] [transacciones] [registrosPorTransacción]
+ */
+@Slf4j
+public class TransactionalPoolBenchmark {
+
+    private static final String DEFAULT_BOOTSTRAP = "localhost:29092";
+    private static final String DEFAULT_POOL_SIZES = "1,2,4,8";
+    private static final int DEFAULT_TRANSACTIONS = 2_000;
+    private static final int DEFAULT_RECORDS_PER_TRANSACTION = 10;
+    private static final int PARTITIONS = 8;
+
+    public static void main(String[] args) throws Exception {
+        String bootstrap = args.length > 0 ? args[0] : DEFAULT_BOOTSTRAP;
+        String poolSizes = args.length > 1 ? args[1] : DEFAULT_POOL_SIZES;
+        int transactions = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_TRANSACTIONS;
+        int recordsPerTransaction = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_RECORDS_PER_TRANSACTION;
+
+        String topic = "tx-pool-benchmark-" + System.currentTimeMillis();
+        createTopic(bootstrap, topic);
+        Map<String, Object> props = ClientConfigBuilder.producer(PerformanceProfile.DURABLE)
+                .with(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap)
+                .with(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class)
+                .with(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class)
+                .build();
+
+        StringBuilder table = new StringBuilder(String.format("%8s %12s %12s %12s %12s%n", "pool", "tx/s",
+                "reg/s", "p50 ms", "p99 ms"));
+        for (String size : poolSizes.split(",")) {
+            table.append(run(props, topic, Integer.parseInt(size.trim()), transactions, recordsPerTransaction));
+        }
+        log.info("Resultados con {} transacciones de {} registros en {}:\n{}", transactions, recordsPerTransaction,
+                topic, table);
+    }
+
+    private static String run(Map<String, Object> props, String topic, int poolSize, int transactions,
+            int recordsPerTransaction) throws Exception {
+        TransactionalPoolSettings settings = new TransactionalPoolSettings();
+        settings.setSize(poolSize);
+        settings.setIdPrefix("tx-pool-benchmark-" + poolSize + "-");
+        String value = "x".repeat(100);
+
+        long[] latenciesNanos = new long[transactions];
+        double seconds;
+        try (TransactionalProducerPool pool = new TransactionalProducerPool(props, settings)) {
+            // Calentamiento: initTransactions y metadatos de cada productor fuera de la medida
+            List<CompletableFuture<?>> warmup = new ArrayList<>();
+            for (int shard = 0; shard < poolSize; shard++) {
+                warmup.add(pool.executeInTransaction(shard, operations -> operations.send(topic, "warmup", value)));
+            }
+            CompletableFuture.allOf(warmup.toArray(new CompletableFuture[0])).get();
+
+            List<CompletableFuture<?>> pending = new ArrayList<>(transactions);
+            long start = System.nanoTime();
+            for (int i = 0; i < transactions; i++) {
+                int index = i;
+                long[] startedAt = new long[1];
+                pending.add(pool.executeInTransaction(i % poolSize, operations -> {
+                    startedAt[0] = System.nanoTime();
+                    for (int r = 0; r < recordsPerTransaction; r++) {
+                        operations.send(topic, index + "-" + r, value);
+                    }
+                    return null;
+                }).whenComplete((result, ex) -> latenciesNanos[index] = ex == null
+                        ? System.nanoTime() - startedAt[0] : -1));
+            }
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).get();
+            seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        }
+
+        long failed = Arrays.stream(latenciesNanos).filter(l -> l < 0).count();
+        long[] sorted = Arrays.stream(latenciesNanos).filter(l -> l >= 0).sorted().toArray();
+        double p50 = percentile(sorted, 0.50) / 1_000_000.0;
+        double p99 = percentile(sorted, 0.99) / 1_000_000.0;
+        log.info("Pool {}: {} tx/s, {} fallidas", poolSize, String.format("%.0f", transactions / seconds), failed);
+        return String.format("%8d %12.0f %12.0f %12.2f %12.2f%n", poolSize, transactions / seconds,
+                transactions * (double) recordsPerTransaction / seconds, p50, p99);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static void createTopic(String bootstrap, String topic) throws InterruptedException, ExecutionException {
+        try (AdminClient admin = AdminClient.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap))) {
+            admin.createTopics(List.of(new NewTopic(topic, PARTITIONS, (short) 1))).all().get();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.helloworld.kafka.springexamples.exactlyonce.pool;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.ProducerFactory;
+
+/**
+ * Pool de productores transaccionales, activado con kafka.transactional-pool.enabled=true.
+ * Los productores del pool parten de la configuración del productor autoconfigurado
+ * (spring.kafka.producer.*) con un transactional.id propio por shard.
+ */
+@Configuration
+@ConditionalOnProperty(name = "kafka.transactional-pool.enabled", havingValue = "true")
+@EnableConfigurationProperties(TransactionalPoolSettings.class)
+public class TransactionalPoolConfig {
+
+    @Bean(destroyMethod = "close")
+    public TransactionalProducerPool transactionalProducerPool(ProducerFactory<String, String> producerFactory,
+            TransactionalPoolSettings settings) {
+        Map<String, Object> props = new HashMap<>(producerFactory.getConfigurationProperties());
+        props.remove(ProducerConfig.TRANSACTIONAL_ID_CONFIG);
+        return new TransactionalProducerPool(props, settings);
+    }
+}
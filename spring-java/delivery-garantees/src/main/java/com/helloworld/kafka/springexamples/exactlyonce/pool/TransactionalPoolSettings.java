@@ -0,0 +1,22 @@
+package com.helloworld.kafka.springexamples.exactlyonce.pool;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Propiedades kafka.transactional-pool.*
+ */
+@Data
+@ConfigurationProperties(prefix = "kafka.transactional-pool")
+public class TransactionalPoolSettings {
+
+    /** Productores transaccionales del pool; cada uno procesa sus transacciones en serie */
+    private int size = 4;
+
+    /** El transactional.id de cada productor es prefijo + instancia + "-" + shard + "-0" */
+    private String idPrefix = "tx-";
+
+    /** Transacciones en cola por shard antes de bloquear a quien envía */
+    private int queueCapacity = 1_000;
+}
@@ -0,0 +1,257 @@
+package com.helloworld.kafka.springexamples.exactlyonce.pool;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.errors.InvalidProducerEpochException;
+import org.apache.kafka.common.errors.ProducerFencedException;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.DefaultTransactionIdSuffixStrategy;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import com.helloworld.kafka.springexamples.profiles.ClientConfigBuilder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pool de productores transaccionales para repartir las transacciones exactly-once.
+ *
+ * Un productor transaccional solo tiene una transacción abierta a la vez, así que con uno solo
+ * todas las transacciones del servicio van en serie. El pool crea size productores, cada uno
+ * con su hilo y su cola: las transacciones de un shard siguen en serie, las de shards
+ * distintos van en paralelo.
+ * - El transactional.id es estable: prefijo + instancia + "-" + shard + "-0", con la instancia
+ *   de KAFKA_INSTANCE_ID o HOSTNAME. Al reiniciar, el nuevo productor del shard aborta la
+ *   transacción pendiente del anterior y lo aísla (fencing), aunque siga vivo.
+ * - Las transacciones se reparten por clave ({@link #shardForKey}) o por partición de
+ *   entrada ({@link #shardForPartition}); en consume-transform-produce conviene repartir por
+ *   partición para que los offsets de cada partición se confirmen siempre con el mismo
+ *   productor.
+ * - Si el productor queda aislado (ProducerFencedException), este proceso es el zombi: otra
+ *   encarnación ya usa el transactional.id. El shard deja de usarse: se cierra su productor,
+ *   la transacción y las que estaban en cola fallan con {@link ShardFencedException}, y las
+ *   nuevas también. No se vuelve a llamar a initTransactions, que aislaría al dueño legítimo
+ *   y, en un despliegue progresivo, las dos encarnaciones se aislarían una a otra sin fin.
+ * - Un InvalidProducerEpochException se trata igual. Es lo que recibe un zombi al enviar o
+ *   confirmar cuando el dueño ya ha subido la época, y no se distingue de una transacción
+ *   caducada. Spring cierra el productor al fallar, así que repetir la transacción crearía otro
+ *   con el mismo id y volvería a llamar a initTransactions, aislando al dueño. Un shard retirado
+ *   solo se recupera reiniciando la instancia.
+ *
+ * Cada shard usa un DefaultKafkaProducerFactory con una sola posición de sufijo, de modo que el
+ * id no cambia si Spring recrea el productor. Las transacciones que quedan en cola al cerrar el
+ * pool terminan con error; ningún future se queda sin completar.
+ */
+@Slf4j
+public class TransactionalProducerPool implements AutoCloseable {
+
+    private final List<Shard> shards = new ArrayList<>();
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder fenced = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public TransactionalProducerPool(Map<String, Object> producerProperties, TransactionalPoolSettings settings) {
+        String instance = ClientConfigBuilder.instanceName();
+        for (int i = 0; i < settings.getSize(); i++) {
+            Map<String, Object> props = new HashMap<>(producerProperties);
+            props.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, settings.getIdPrefix() + instance + "-" + i + "-");
+            shards.add(new Shard(i, props, settings.getQueueCapacity()));
+        }
+        log.info("Pool transaccional con {} productores: {}{}-<shard>-0", shards.size(), settings.getIdPrefix(),
+                instance);
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    public int shardForKey(String key) {
+        if (key == null) {
+            return 0;
+        }
+        return Utils.toPositive(Utils.murmur2(key.getBytes(StandardCharsets.UTF_8))) % shards.size();
+    }
+
+    public int shardForPartition(int partition) {
+        return partition % shards.size();
+    }
+
+    /**
+     * Ejecuta el callback en una transacción del productor del shard. Si la cola del shard está
+     * llena, espera a que haya sitio.
+     */
+    public <T> CompletableFuture<T> executeInTransaction(int shard,
+            KafkaOperations.OperationsCallback<String, String, T> callback) {
+        Shard target = shards.get(shard);
+        Task<T> task = new Task<>(target, callback);
+        if (target.fencedBy != null) {
+            task.fail(new ShardFencedException(shard, target.fencedBy));
+            return task.result;
+        }
+        try {
+            target.executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.fail(e);
+        }
+        return task.result;
+    }
+
+    /**
+     * Envía un registro en su propia transacción, en el shard de su clave
+     */
+    public CompletableFuture<SendResult<String, String>> send(String topic, String key, String value) {
+        return executeInTransaction(shardForKey(key), operations -> operations.send(topic, key, value))
+                .thenCompose(future -> future);
+    }
+
+    public long getCommittedCount() {
+        return committed.sum();
+    }
+
+    public long getFencedCount() {
+        return fenced.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Termina las transacciones en cola y cierra los productores
+     */
+    @Override
+    public void close() throws InterruptedException {
+        for (Shard shard : shards) {
+            shard.executor.shutdown();
+        }
+        for (Shard shard : shards) {
+            if (!shard.executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Shard {}: transacciones sin terminar al cerrar", shard.index);
+                for (Runnable queued : shard.executor.shutdownNow()) {
+                    ((Task<?>) queued).fail(new RejectedExecutionException("Pool transaccional cerrado"));
+                }
+            }
+            shard.factory.destroy();
+        }
+        log.info("MÉTRICA - Pool transaccional: confirmadas: {}, aislamientos: {}, fallidas: {}", committed.sum(),
+                fenced.sum(), failed.sum());
+    }
+
+    private static boolean hasCause(Throwable ex, Class<? extends Throwable> type) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Transacción de un shard; completa su future pase lo que pase
+     */
+    private static final class Task<T> implements Runnable {
+
+        private final Shard shard;
+        private final KafkaOperations.OperationsCallback<String, String, T> callback;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        Task(Shard shard, KafkaOperations.OperationsCallback<String, String, T> callback) {
+            this.shard = shard;
+            this.callback = callback;
+        }
+
+        @Override
+        public void run() {
+            try {
+                result.complete(shard.execute(callback));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        void fail(Exception e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private final class Shard {
+
+        private final int index;
+        private final DefaultKafkaProducerFactory<String, String> factory;
+        private final KafkaTemplate<String, String> template;
+        private final ThreadPoolExecutor executor;
+        private volatile RuntimeException fencedBy;
+
+        Shard(int index, Map<String, Object> props, int queueCapacity) {
+            this.index = index;
+            this.factory = new DefaultKafkaProducerFactory<>(props);
+            // Un solo sufijo: el transactional.id del shard no cambia
+            factory.setTransactionIdSuffixStrategy(new DefaultTransactionIdSuffixStrategy(1));
+            this.template = new KafkaTemplate<>(factory);
+            this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity), r -> {
+                        Thread thread = new Thread(r, "tx-pool-" + index);
+                        thread.setDaemon(true);
+                        return thread;
+                    }, (r, pool) -> {
+                        // Cola llena: se bloquea a quien envía en lugar de rechazar
+                        if (pool.isShutdown()) {
+                            throw new RejectedExecutionException("Pool transaccional cerrado");
+                        }
+                        try {
+                            pool.getQueue().put(r);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new RejectedExecutionException(e);
+                        }
+                        // Si se ha cerrado mientras esperaba, nadie ejecutaría la tarea
+                        if (pool.isShutdown() && pool.remove(r)) {
+                            throw new RejectedExecutionException("Pool transaccional cerrado");
+                        }
+                    });
+        }
+
+        <T> T execute(KafkaOperations.OperationsCallback<String, String, T> callback) {
+            if (fencedBy != null) {
+                // Transacciones que ya estaban en cola cuando el shard quedó aislado
+                failed.increment();
+                throw new ShardFencedException(index, fencedBy);
+            }
+            try {
+                T result = template.executeInTransaction(callback);
+                committed.increment();
+                return result;
+            } catch (RuntimeException e) {
+                failed.increment();
+                // Sin reintento: el productor nuevo llamaría a initTransactions y aislaría al dueño
+                if (hasCause(e, ProducerFencedException.class) || hasCause(e, InvalidProducerEpochException.class)) {
+                    onFenced(e);
+                    throw new ShardFencedException(index, e);
+                }
+                throw e;
+            }
+        }
+
+        private void onFenced(RuntimeException e) {
+            fencedBy = e;
+            fenced.increment();
+            log.error("Shard {}: productor aislado o con época inválida (otra instancia usa el mismo "
+                    + "transactional.id); el shard deja de usarse", index, e);
+            // Cierra el productor sin volver a llamar a initTransactions
+            factory.destroy();
+        }
+    }
+}
@@ -3,16 +3,24 @@ package com.helloworld.kafka.springexamples.exactlyonce.producer;
 import java.util.Scanner;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import com.helloworld.kafka.springexamples.exactlyonce.pool.TransactionalPoolConfig;
+import com.helloworld.kafka.springexamples.exactlyonce.pool.TransactionalProducerPool;
+import com.helloworld.kafka.springexamples.profiles.PerformanceProfileConfig;
 
 import lombok.extern.slf4j.Slf4j;
 
 @SpringBootApplication
+@Import({PerformanceProfileConfig.class, TransactionalPoolConfig.class})
 @Slf4j
 public class ExactlyOnceProducer {
 
@@ -33,7 +41,8 @@ public class ExactlyOnceProducer {
     }
 
     @Bean
-    public ApplicationRunner runner(KafkaTemplate<String, String> template) {
+    public ApplicationRunner runner(KafkaTemplate<String, String> template,
+            ObjectProvider<TransactionalProducerPool> pool) {
         return args -> {
             Scanner scanner = new Scanner(System.in);
             log.info("Configuración del productor EXACTLY-ONCE:");
@@ -42,6 +51,11 @@ public class ExactlyOnceProducer {
             log.info("- transactional.id=<id>: Habilita transacciones para garantizar atomicidad");
             log.info("- retries=3: Reintentos en caso de fallos");
             log.info("- max.in.flight.requests.per.connection=5: Permite múltiples solicitudes en vuelo");
+            TransactionalProducerPool transactionalPool = pool.getIfAvailable();
+            if (transactionalPool != null) {
+                log.info("- kafka.transactional-pool.size={}: Transacciones en paralelo, repartidas por clave",
+                        transactionalPool.size());
+            }
             
             while (true) {
                 System.out.println("Ingrese clave:valor para enviar a Kafka (escriba 'exit' para salir):");
@@ -57,20 +71,28 @@ public class ExactlyOnceProducer {
                 }
                 
                 // Envío con garantía EXACTLY-ONCE usando transacciones
+                if (transactionalPool != null) {
+                    // Cada clave va siempre al mismo productor del pool
+                    transactionalPool.send("exactly-once-topic", data[0], data[1])
+                        .whenComplete((result, ex) -> logResult(data, result, ex));
+                    continue;
+                }
                 template.executeInTransaction(operations -> {
                     return operations.send("exactly-once-topic", data[0], data[1])
-                        .whenComplete((result, ex) -> {
-                            if (ex == null) {
-                                log.info("Mensaje enviado con éxito en transacción: clave={}, valor={}, offset={}",
-                                        data[0], data[1], result.getRecordMetadata().offset());
-                            } else {
-                                log.error("Error al enviar mensaje en transacción: clave={}, valor={}, error={}",
-                                        data[0], data[1], ex.getMessage());
-                            }
-                        });
+                        .whenComplete((result, ex) -> logResult(data, result, ex));
                 });
             }
             scanner.close();
         };
     }
+
+    private void logResult(String[] data, SendResult<String, String> result, Throwable ex) {
+        if (ex == null) {
+            log.info("Mensaje enviado con éxito en transacción: clave={}, valor={}, offset={}",
+                    data[0], data[1], result.getRecordMetadata().offset());
+        } else {
+            log.error("Error al enviar mensaje en transacción: clave={}, valor={}, error={}",
+                    data[0], data[1], ex.getMessage());
+        }
+    }
 }
@@ -0,0 +1,68 @@
+package com.helloworld.kafka.springexamples.priority;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Métricas por carril: registros procesados, latencia desde que se produjo el registro hasta
+ * que termina su procesamiento (media y máxima) y pausas. Se registran en el log y se
+ * reinician cada kafka.priority.metrics-interval-ms.
+ */
+@Slf4j
+public class LaneMetrics {
+
+    private final PriorityLaneSettings settings;
+    private final Map<String, LaneCounters> counters = new ConcurrentHashMap<>();
+    private final AtomicLong lastLog = new AtomicLong(System.currentTimeMillis());
+
+    LaneMetrics(PriorityLaneSettings settings) {
+        this.settings = settings;
+    }
+
+    void recordProcessed(String topic, long latencyMs) {
+        LaneCounters lane = lane(topic);
+        lane.processed.increment();
+        lane.latencyMs.add(latencyMs);
+        lane.maxLatencyMs.accumulateAndGet(latencyMs, Math::max);
+    }
+
+    void recordPause(String topic) {
+        lane(topic).pauses.increment();
+    }
+
+    /**
+     * Registra las métricas si ha pasado el intervalo desde la última vez
+     */
+    void logIfDue() {
+        long now = System.currentTimeMillis();
+        long last = lastLog.get();
+        if (now - last >= settings.getMetricsIntervalMs() && lastLog.compareAndSet(last, now)) {
+            logMetrics();
+        }
+    }
+
+    public void logMetrics() {
+        counters.forEach((topic, lane) -> {
+            long processed = lane.processed.sumThenReset();
+            long latency = lane.latencyMs.sumThenReset();
+            log.info("MÉTRICA - Carril: {}, peso: {}, procesados: {}, latencia media: {} ms, máx: {} ms, pausas: {}",
+                    topic, settings.weight(topic), processed, processed == 0 ? 0 : latency / processed,
+                    lane.maxLatencyMs.getAndSet(0), lane.pauses.sumThenReset());
+        });
+    }
+
+    private LaneCounters lane(String topic) {
+        return counters.computeIfAbsent(topic, t -> new LaneCounters());
+    }
+
+    private static class LaneCounters {
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder latencyMs = new LongAdder();
+        private final AtomicLong maxLatencyMs = new AtomicLong();
+        private final LongAdder pauses = new LongAdder();
+    }
+}
@@ -0,0 +1,39 @@
+package com.helloworld.kafka.springexamples.priority;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.ConsumerFactory;
+
+/**
+ * Carriles de prioridad entre topics de un mismo listener. Se importa desde la aplicación
+ * consumidora y se activa con kafka.priority.enabled=true; los listeners usan
+ * containerFactory = "priorityLaneContainerFactory" y delegan en {@link PriorityLaneProcessor}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "kafka.priority.enabled", havingValue = "true")
+@EnableConfigurationProperties(PriorityLaneSettings.class)
+public class PriorityLaneConfig {
+
+    @Bean
+    public PriorityLaneProcessor priorityLaneProcessor(KafkaListenerEndpointRegistry registry,
+            PriorityLaneSettings settings) {
+        return new PriorityLaneProcessor(registry, settings);
+    }
+
+    /**
+     * Fábrica de listeners por lotes: el reparto entre carriles se hace sobre el poll completo
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> priorityLaneContainerFactory(
+            ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        return factory;
+    }
+}
@@ -0,0 +1,97 @@
+package com.helloworld.kafka.springexamples.priority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Un listener suscrito a orders-high y orders-low con carriles de prioridad.
+ *
+ * Se lanza una recarga masiva en orders-low y, mientras se procesa, pedidos urgentes en
+ * orders-high. Sin carriles los urgentes esperarían detrás de la recarga en el orden del
+ * poll; con ellos, las métricas por carril muestran la latencia de orders-high acotada
+ * mientras orders-low avanza con lo que queda de capacidad.
+ */
+@SpringBootApplication
+@Import(PriorityLaneConfig.class)
+@Slf4j
+@RequiredArgsConstructor
+public class PriorityLaneExample {
+
+    static final String LISTENER_ID = "priorityLaneListener";
+    static final String HIGH_TOPIC = "orders-high";
+    static final String LOW_TOPIC = "orders-low";
+
+    private static final int BACKFILL_RECORDS = 50_000;
+    private static final int URGENT_RECORDS = 500;
+    private static final long PROCESSING_MS = 1;
+
+    private final PriorityLaneProcessor priorityLanes;
+
+    public static void main(String[] args) throws Exception {
+        SpringApplication app = new SpringApplication(PriorityLaneExample.class);
+        app.setAdditionalProfiles("priority-lanes");
+        var context = app.run(args);
+
+        @SuppressWarnings("unchecked")
+        KafkaTemplate<String, String> template = context.getBean(KafkaTemplate.class);
+        for (int i = 0; i < BACKFILL_RECORDS; i++) {
+            template.send(LOW_TOPIC, "backfill-" + i, "pedido histórico " + i);
+        }
+        log.info("Recarga de {} registros enviada a {}", BACKFILL_RECORDS, LOW_TOPIC);
+
+        for (int i = 0; i < URGENT_RECORDS; i++) {
+            template.send(HIGH_TOPIC, "urgent-" + i, "pedido urgente " + i);
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        log.info("Enviados {} pedidos urgentes a {}", URGENT_RECORDS, HIGH_TOPIC);
+
+        TimeUnit.SECONDS.sleep(10);
+        context.getBean(PriorityLaneProcessor.class).getMetrics().logMetrics();
+        SpringApplication.exit(context, () -> 0);
+    }
+
+    @Bean
+    public NewTopic highPriorityTopic() {
+        return TopicBuilder.name(HIGH_TOPIC)
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
+
+    @Bean
+    public NewTopic lowPriorityTopic() {
+        return TopicBuilder.name(LOW_TOPIC)
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
+
+    @KafkaListener(id = LISTENER_ID, topics = {HIGH_TOPIC, LOW_TOPIC},
+            containerFactory = "priorityLaneContainerFactory")
+    public void listen(List<ConsumerRecord<String, String>> records, Consumer<?, ?> consumer) {
+        priorityLanes.process(LISTENER_ID, records, consumer, this::processOrder);
+    }
+
+    private void processOrder(ConsumerRecord<String, String> record) {
+        // Simulación del procesamiento del pedido
+        try {
+            TimeUnit.MILLISECONDS.sleep(PROCESSING_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.helloworld.kafka.springexamples.priority;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Procesa los lotes de un listener suscrito a varios topics dando prioridad a los de más peso.
+ *
+ * Dentro de cada poll, {@link WeightedFairScheduler} reparte los huecos de procesamiento entre
+ * carriles según su peso. Tras cada lote se mira el lag de las particiones asignadas a este
+ * consumidor (consumer.currentLag, sin llamadas al broker): si algún carril supera
+ * kafka.priority.pause-lag-threshold, se pausan en el contenedor las particiones de los
+ * carriles de menos peso, que dejan de ocupar polls, y se reanudan cuando el lag baja. Un
+ * carril pausado más de max-pause-ms se reanuda durante una décima parte de ese tiempo para
+ * que un carril prioritario saturado no lo deje sin procesar indefinidamente.
+ */
+@Slf4j
+public class PriorityLaneProcessor {
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final PriorityLaneSettings settings;
+    private final WeightedFairScheduler scheduler;
+    private final LaneMetrics metrics;
+
+    private final Map<TopicPartition, Long> pausedSince = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, Long> forcedResumeUntil = new ConcurrentHashMap<>();
+
+    public PriorityLaneProcessor(KafkaListenerEndpointRegistry registry, PriorityLaneSettings settings) {
+        this.registry = registry;
+        this.settings = settings;
+        this.scheduler = new WeightedFairScheduler(settings);
+        this.metrics = new LaneMetrics(settings);
+    }
+
+    /**
+     * Procesa el lote en orden de prioridad y actualiza las pausas de los carriles
+     *
+     * @param listenerId id del @KafkaListener, para pausar particiones en su contenedor
+     */
+    public <K, V> void process(String listenerId, List<ConsumerRecord<K, V>> records, Consumer<?, ?> consumer,
+            java.util.function.Consumer<ConsumerRecord<K, V>> handler) {
+        for (ConsumerRecord<K, V> record : scheduler.order(records)) {
+            handler.accept(record);
+            metrics.recordProcessed(record.topic(), Math.max(0, System.currentTimeMillis() - record.timestamp()));
+        }
+        MessageListenerContainer container = registry.getListenerContainer(listenerId);
+        if (container != null) {
+            updatePauses(container, consumer);
+        }
+        metrics.logIfDue();
+    }
+
+    public LaneMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void updatePauses(MessageListenerContainer container, Consumer<?, ?> consumer) {
+        Map<String, Long> lagByLane = new HashMap<>();
+        for (TopicPartition partition : consumer.assignment()) {
+            consumer.currentLag(partition).ifPresent(lag -> lagByLane.merge(partition.topic(), lag, Long::sum));
+        }
+
+        long now = System.currentTimeMillis();
+        for (TopicPartition partition : consumer.assignment()) {
+            String blockingLane = blockingLane(partition.topic(), lagByLane);
+            boolean pauseRequested = container.isPartitionPauseRequested(partition);
+            if (blockingLane != null && !pauseRequested && now >= forcedResumeUntil.getOrDefault(partition, 0L)) {
+                container.pausePartition(partition);
+                pausedSince.put(partition, now);
+                metrics.recordPause(partition.topic());
+                log.debug("Pausada {} por lag de {}: {}", partition, blockingLane, lagByLane.get(blockingLane));
+            } else if (pauseRequested && blockingLane == null) {
+                resume(container, partition);
+            } else if (pauseRequested && settings.getMaxPauseMs() > 0
+                    && now - pausedSince.getOrDefault(partition, now) >= settings.getMaxPauseMs()) {
+                resume(container, partition);
+                forcedResumeUntil.put(partition, now + settings.getMaxPauseMs() / 10);
+                log.info("Reanudada {} tras {} ms pausada con {} con lag", partition, settings.getMaxPauseMs(),
+                        blockingLane);
+            }
+        }
+    }
+
+    /**
+     * Carril de más peso que el del topic cuyo lag obliga a pausarlo, o null
+     */
+    private String blockingLane(String topic, Map<String, Long> lagByLane) {
+        int weight = settings.weight(topic);
+        for (Map.Entry<String, Long> lane : lagByLane.entrySet()) {
+            if (settings.weight(lane.getKey()) > weight && lane.getValue() > settings.getPauseLagThreshold()) {
+                return lane.getKey();
+            }
+        }
+        return null;
+    }
+
+    private void resume(MessageListenerContainer container, TopicPartition partition) {
+        container.resumePartition(partition);
+        pausedSince.remove(partition);
+    }
+}
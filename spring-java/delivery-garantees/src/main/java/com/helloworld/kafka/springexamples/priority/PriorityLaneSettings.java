@@ -0,0 +1,32 @@
+package com.helloworld.kafka.springexamples.priority;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Propiedades kafka.priority.*
+ */
+@Data
+@ConfigurationProperties(prefix = "kafka.priority")
+public class PriorityLaneSettings {
+
+    /** Peso de cada topic (carril); más peso es más prioridad. Los topics sin peso tienen 1 */
+    private Map<String, Integer> weights = new LinkedHashMap<>();
+
+    /** Lag de un carril, en registros, a partir del cual se pausan los carriles de menos peso */
+    private long pauseLagThreshold = 500;
+
+    /** Tiempo máximo que un carril puede estar pausado seguido; 0 para no limitarlo */
+    private long maxPauseMs = 30_000;
+
+    /** Intervalo entre registros de métricas por carril */
+    private long metricsIntervalMs = 30_000;
+
+    public int weight(String topic) {
+        return Math.max(1, weights.getOrDefault(topic, 1));
+    }
+}
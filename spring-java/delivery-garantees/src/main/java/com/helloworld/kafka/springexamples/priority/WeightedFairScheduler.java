@@ -0,0 +1,50 @@
+package com.helloworld.kafka.springexamples.priority;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+/**
+ * Ordena los registros de un poll por weighted fair queuing entre carriles (topics).
+ *
+ * Cada registro ocupa un hueco de procesamiento de coste 1 y recibe al llegar un tiempo
+ * virtual de fin: el fin del anterior de su carril + 1 / peso. Se procesa primero el de menor
+ * fin (en empate, el carril de más peso). Con pesos 4 y 1, mientras ambos carriles tengan
+ * registros se procesan 4 del primero por cada uno del segundo. Como el contenedor no entrega
+ * otro poll hasta terminar el anterior, cada poll empieza con todos los carriles en cero.
+ * Dentro de un carril se respeta el orden del poll, y con él el de cada partición.
+ */
+class WeightedFairScheduler {
+
+    private final PriorityLaneSettings settings;
+
+    WeightedFairScheduler(PriorityLaneSettings settings) {
+        this.settings = settings;
+    }
+
+    <K, V> List<ConsumerRecord<K, V>> order(List<ConsumerRecord<K, V>> records) {
+        Map<String, Double> lastFinish = new HashMap<>();
+        List<Tagged<K, V>> tagged = new ArrayList<>(records.size());
+        for (ConsumerRecord<K, V> record : records) {
+            int weight = settings.weight(record.topic());
+            double finish = lastFinish.merge(record.topic(), 1.0 / weight, Double::sum);
+            tagged.add(new Tagged<>(record, finish, weight));
+        }
+        if (lastFinish.size() == 1) {
+            return records;
+        }
+        // Ordenación estable: dentro de un carril se mantiene el orden de llegada
+        tagged.sort(Comparator.<Tagged<K, V>>comparingDouble(Tagged::finish)
+                .thenComparing(t -> -t.weight()));
+        List<ConsumerRecord<K, V>> ordered = new ArrayList<>(records.size());
+        tagged.forEach(t -> ordered.add(t.record()));
+        return ordered;
+    }
+
+    private record Tagged<K, V>(ConsumerRecord<K, V> record, double finish, int weight) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.helloworld.kafka.springexamples.profiles;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
+
+/**
+ * Construye la configuración de un cliente a partir de un {@link PerformanceProfile}.
+ * Las propiedades añadidas con {@link #with(String, Object)} prevalecen sobre las del perfil
+ * y el resultado se valida con {@link ClientConfigValidator}.
+ *
+ * <pre>
+ * Map&lt;String, Object&gt; props = ClientConfigBuilder.consumer(PerformanceProfile.DURABLE)
+ *         .with(ConsumerConfig.GROUP_ID_CONFIG, "mi-grupo")
+ *         .build();
+ * </pre>
+ */
+public class ClientConfigBuilder {
+
+    private final boolean producer;
+    private final Map<String, Object> props;
+    private ClientConfigValidator validator = new ClientConfigValidator();
+
+    private ClientConfigBuilder(boolean producer, Map<String, Object> profileProps) {
+        this.producer = producer;
+        this.props = new HashMap<>(profileProps);
+    }
+
+    public static ClientConfigBuilder producer(PerformanceProfile profile) {
+        return new ClientConfigBuilder(true, profile.producerProperties());
+    }
+
+    public static ClientConfigBuilder consumer(PerformanceProfile profile) {
+        return new ClientConfigBuilder(false, profile.consumerProperties());
+    }
+
+    public ClientConfigBuilder with(String key, Object value) {
+        props.put(key, value);
+        return this;
+    }
+
+    /**
+     * Grupo con asignación cooperativa incremental (solo se revocan las particiones que cambian
+     * de dueño) y membresía estática (un reinicio dentro de session.timeout.ms no rebalancea).
+     *
+     * El group.instance.id es grupo-instancia, con la instancia tomada de KAFKA_INSTANCE_ID,
+     * HOSTNAME o el nombre del host; con concurrency &gt; 1 Spring añade -n a cada consumidor
+     * del contenedor. Varios procesos del mismo grupo en un host necesitan KAFKA_INSTANCE_ID
+     * distintos.
+     */
+    public ClientConfigBuilder cooperativeStaticMembership(String groupId) {
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, CooperativeStickyAssignor.class.getName());
+        props.put(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG, groupId + "-" + instanceName());
+        return this;
+    }
+
+    public ClientConfigBuilder typicalRecordBytes(int typicalRecordBytes) {
+        this.validator = new ClientConfigValidator(typicalRecordBytes);
+        return this;
+    }
+
+    public Map<String, Object> build() {
+        if (producer) {
+            validator.validateProducer(props);
+        } else {
+            validator.validateConsumer(props);
+        }
+        return new HashMap<>(props);
+    }
+
+    /**
+     * Nombre estable de esta instancia: KAFKA_INSTANCE_ID, HOSTNAME o el nombre del host
+     */
+    public static String instanceName() {
+        String instance = System.getenv("KAFKA_INSTANCE_ID");
+        if (instance == null || instance.isBlank()) {
+            instance = System.getenv("HOSTNAME");
+        }
+        if (instance == null || instance.isBlank()) {
+            try {
+                instance = InetAddress.getLocalHost().getHostName();
+            } catch (UnknownHostException e) {
+                throw new IllegalStateException("No se pudo obtener el nombre del host; define KAFKA_INSTANCE_ID", e);
+            }
+        }
+        return instance;
+    }
+}
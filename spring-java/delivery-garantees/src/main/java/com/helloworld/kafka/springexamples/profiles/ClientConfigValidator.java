@@ -0,0 +1,108 @@
+package com.helloworld.kafka.springexamples.profiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+/**
+ * Valida combinaciones de propiedades que Kafka acepta o corrige en silencio pero que
+ * no tienen sentido o degradan el rendimiento.
+ */
+public class ClientConfigValidator {
+
+    /** Tamaño típico de registro usado si no se indica otro */
+    public static final int DEFAULT_TYPICAL_RECORD_BYTES = 1_024;
+
+    private final int typicalRecordBytes;
+
+    public ClientConfigValidator() {
+        this(DEFAULT_TYPICAL_RECORD_BYTES);
+    }
+
+    public ClientConfigValidator(int typicalRecordBytes) {
+        this.typicalRecordBytes = typicalRecordBytes;
+    }
+
+    /**
+     * @throws IllegalArgumentException con todas las incompatibilidades encontradas
+     */
+    public void validateProducer(Map<String, Object> props) {
+        List<String> errors = new ArrayList<>();
+
+        boolean idempotent = asBoolean(props.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+        String acks = props.containsKey(ProducerConfig.ACKS_CONFIG)
+                ? props.get(ProducerConfig.ACKS_CONFIG).toString() : "all";
+        if (idempotent && !("all".equals(acks) || "-1".equals(acks))) {
+            errors.add("enable.idempotence=true requiere acks=all (configurado acks=" + acks + ")");
+        }
+        Long inFlight = asLong(props.get(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION_CONFIG));
+        if (idempotent && inFlight != null && inFlight > 5) {
+            errors.add("enable.idempotence=true admite como máximo 5 max.in.flight.requests.per.connection");
+        }
+        Long retries = asLong(props.get(ProducerConfig.RETRIES_CONFIG));
+        if (idempotent && retries != null && retries == 0) {
+            errors.add("enable.idempotence=true requiere retries > 0");
+        }
+        if (props.get(ProducerConfig.TRANSACTIONAL_ID_CONFIG) != null
+                && props.containsKey(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG) && !idempotent) {
+            errors.add("transactional.id requiere enable.idempotence=true");
+        }
+        Long batchSize = asLong(props.get(ProducerConfig.BATCH_SIZE_CONFIG));
+        if (batchSize != null && batchSize < typicalRecordBytes) {
+            errors.add("batch.size=" + batchSize + " es menor que el tamaño típico de registro ("
+                    + typicalRecordBytes + " bytes): cada registro iría en su propio lote");
+        }
+        Long deliveryTimeout = asLong(props.get(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG));
+        Long linger = asLong(props.get(ProducerConfig.LINGER_MS_CONFIG));
+        Long requestTimeout = asLong(props.get(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG));
+        if (deliveryTimeout != null && deliveryTimeout < orDefault(linger, 0) + orDefault(requestTimeout, 30_000)) {
+            errors.add("delivery.timeout.ms debe ser >= linger.ms + request.timeout.ms");
+        }
+        throwIfAny("productor", errors);
+    }
+
+    /**
+     * @throws IllegalArgumentException con todas las incompatibilidades encontradas
+     */
+    public void validateConsumer(Map<String, Object> props) {
+        List<String> errors = new ArrayList<>();
+
+        Long fetchMin = asLong(props.get(ConsumerConfig.FETCH_MIN_BYTES_CONFIG));
+        Long fetchMax = asLong(props.get(ConsumerConfig.FETCH_MAX_BYTES_CONFIG));
+        if (fetchMin != null && fetchMin > orDefault(fetchMax, ConsumerConfig.DEFAULT_FETCH_MAX_BYTES)) {
+            errors.add("fetch.min.bytes no puede superar fetch.max.bytes");
+        }
+        Long partitionFetch = asLong(props.get(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG));
+        if (partitionFetch != null && partitionFetch < typicalRecordBytes) {
+            errors.add("max.partition.fetch.bytes=" + partitionFetch
+                    + " es menor que el tamaño típico de registro: cada fetch traería un único registro");
+        }
+        Long maxPollRecords = asLong(props.get(ConsumerConfig.MAX_POLL_RECORDS_CONFIG));
+        if (maxPollRecords != null && maxPollRecords <= 0) {
+            errors.add("max.poll.records debe ser mayor que 0");
+        }
+        throwIfAny("consumidor", errors);
+    }
+
+    private static void throwIfAny(String client, List<String> errors) {
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Configuración de " + client + " no válida: "
+                    + String.join("; ", errors));
+        }
+    }
+
+    private static boolean asBoolean(Object value) {
+        return value != null && Boolean.parseBoolean(value.toString());
+    }
+
+    private static Long asLong(Object value) {
+        return value == null ? null : Long.valueOf(value.toString().trim());
+    }
+
+    private static long orDefault(Long value, long defaultValue) {
+        return value == null ? defaultValue : value;
+    }
+}
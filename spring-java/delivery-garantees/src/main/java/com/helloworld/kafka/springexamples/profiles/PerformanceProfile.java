@@ -0,0 +1,108 @@
+package com.helloworld.kafka.springexamples.profiles;
+
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+/**
+ * Catálogo de perfiles de rendimiento para productores y consumidores.
+ *
+ * Cada perfil solo fija parámetros de rendimiento; la garantía de entrega (auto commit,
+ * isolation.level, transactional.id...) la sigue decidiendo cada ejemplo. Los resultados de
+ * {@link ProfileBenchmark} para cada perfil se guardan en benchmarks/profiles/&lt;perfil&gt;.properties.
+ */
+public enum PerformanceProfile {
+
+    /**
+     * Máximo de registros por segundo: lotes grandes, compresión y confirmación solo del líder.
+     * Resultado: benchmarks/profiles/max-throughput.properties
+     */
+    MAX_THROUGHPUT(
+            Map.of(ProducerConfig.ACKS_CONFIG, "1",
+                    ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false,
+                    ProducerConfig.LINGER_MS_CONFIG, 20,
+                    ProducerConfig.BATCH_SIZE_CONFIG, 262_144,
+                    ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4",
+                    ProducerConfig.BUFFER_MEMORY_CONFIG, 67_108_864L),
+            Map.of(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 1_048_576,
+                    ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, 500,
+                    ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 2_000,
+                    ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, 4_194_304)),
+
+    /**
+     * Mínima latencia extremo a extremo: sin espera para formar lotes ni en el fetch.
+     * Resultado: benchmarks/profiles/low-latency.properties
+     */
+    LOW_LATENCY(
+            Map.of(ProducerConfig.ACKS_CONFIG, "1",
+                    ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false,
+                    ProducerConfig.LINGER_MS_CONFIG, 0,
+                    ProducerConfig.BATCH_SIZE_CONFIG, 16_384,
+                    ProducerConfig.COMPRESSION_TYPE_CONFIG, "none"),
+            Map.of(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 1,
+                    ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, 10,
+                    ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 100)),
+
+    /**
+     * Sin pérdidas ni duplicados por reintentos: idempotencia con acks=all.
+     * Resultado: benchmarks/profiles/durable.properties
+     */
+    DURABLE(
+            Map.of(ProducerConfig.ACKS_CONFIG, "all",
+                    ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+                    ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION_CONFIG, 5,
+                    ProducerConfig.RETRIES_CONFIG, Integer.MAX_VALUE,
+                    ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 120_000,
+                    ProducerConfig.LINGER_MS_CONFIG, 5,
+                    ProducerConfig.BATCH_SIZE_CONFIG, 65_536,
+                    ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4"),
+            Map.of(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 1,
+                    ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500)),
+
+    /**
+     * Relectura masiva de histórico: fetch muy grandes y lotes de productor de 1 MB comprimidos.
+     * Resultado: benchmarks/profiles/bulk-replay.properties
+     */
+    BULK_REPLAY(
+            Map.of(ProducerConfig.ACKS_CONFIG, "all",
+                    ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+                    ProducerConfig.LINGER_MS_CONFIG, 100,
+                    ProducerConfig.BATCH_SIZE_CONFIG, 1_048_576,
+                    ProducerConfig.COMPRESSION_TYPE_CONFIG, "zstd",
+                    ProducerConfig.BUFFER_MEMORY_CONFIG, 134_217_728L),
+            Map.of(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 4_194_304,
+                    ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, 1_000,
+                    ConsumerConfig.FETCH_MAX_BYTES_CONFIG, 104_857_600,
+                    ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, 10_485_760,
+                    ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 5_000,
+                    ConsumerConfig.RECEIVE_BUFFER_CONFIG, 1_048_576));
+
+    private final Map<String, Object> producerProperties;
+    private final Map<String, Object> consumerProperties;
+
+    PerformanceProfile(Map<String, Object> producerProperties, Map<String, Object> consumerProperties) {
+        this.producerProperties = producerProperties;
+        this.consumerProperties = consumerProperties;
+    }
+
+    public Map<String, Object> producerProperties() {
+        return producerProperties;
+    }
+
+    public Map<String, Object> consumerProperties() {
+        return consumerProperties;
+    }
+
+    /**
+     * Nombre en propiedades y ficheros: max-throughput, low-latency, durable, bulk-replay
+     */
+    public String externalName() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    public static PerformanceProfile fromExternalName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
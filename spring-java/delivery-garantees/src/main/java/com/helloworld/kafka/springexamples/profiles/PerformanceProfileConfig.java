@@ -0,0 +1,65 @@
+package com.helloworld.kafka.springexamples.profiles;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Aplica un {@link PerformanceProfile} a las factorías autoconfiguradas por Spring Boot.
+ *
+ * Se activa con kafka.performance-profile=max-throughput|low-latency|durable|bulk-replay.
+ * Las propiedades del perfil solo rellenan las claves que no estén ya definidas en
+ * spring.kafka.*, de modo que la configuración de cada garantía sigue mandando. El
+ * resultado combinado se valida al arrancar.
+ */
+@Configuration
+@ConditionalOnProperty("kafka.performance-profile")
+@Slf4j
+public class PerformanceProfileConfig {
+
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer performanceProfileProducerCustomizer(
+            @Value("${kafka.performance-profile}") String profileName) {
+        PerformanceProfile profile = PerformanceProfile.fromExternalName(profileName);
+        return factory -> {
+            Map<String, Object> missing = missing(factory.getConfigurationProperties(), profile.producerProperties());
+            Map<String, Object> merged = new HashMap<>(factory.getConfigurationProperties());
+            merged.putAll(missing);
+            new ClientConfigValidator().validateProducer(merged);
+            factory.updateConfigs(missing);
+            log.info("Perfil {} aplicado al productor: {}", profile.externalName(), missing);
+        };
+    }
+
+    @Bean
+    public DefaultKafkaConsumerFactoryCustomizer performanceProfileConsumerCustomizer(
+            @Value("${kafka.performance-profile}") String profileName) {
+        PerformanceProfile profile = PerformanceProfile.fromExternalName(profileName);
+        return factory -> {
+            Map<String, Object> missing = missing(factory.getConfigurationProperties(), profile.consumerProperties());
+            Map<String, Object> merged = new HashMap<>(factory.getConfigurationProperties());
+            merged.putAll(missing);
+            new ClientConfigValidator().validateConsumer(merged);
+            factory.updateConfigs(missing);
+            log.info("Perfil {} aplicado al consumidor: {}", profile.externalName(), missing);
+        };
+    }
+
+    private static Map<String, Object> missing(Map<String, Object> current, Map<String, Object> profile) {
+        Map<String, Object> missing = new HashMap<>();
+        profile.forEach((key, value) -> {
+            if (!current.containsKey(key)) {
+                missing.put(key, value);
+            }
+        });
+        return missing;
+    }
+}
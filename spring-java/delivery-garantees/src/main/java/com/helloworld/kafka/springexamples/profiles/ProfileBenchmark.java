@@ -0,0 +1,215 @@
+package com.helloworld.kafka.springexamples.profiles;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.utils.AppInfoParser;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Benchmark reproducible de los perfiles de {@link PerformanceProfile}.
+ *
+ * Para cada perfil crea un topic nuevo, produce N registros de tamaño fijo midiendo la
+ * latencia de confirmación de cada envío, y los vuelve a leer con un grupo nuevo. El
+ * resultado se escribe en benchmarks/profiles/&lt;perfil&gt;.properties junto con los
+ * parámetros de la ejecución, para poder repetirla y comparar.
+ *
+ * Uso: ProfileBenchmark [bootstrap] [perfil,perfil...] [registros] [bytesPorRegistro]
+ */
+@Slf4j
+public class ProfileBenchmark {
+
+    private static final String DEFAULT_BOOTSTRAP = "localhost:29092";
+    private static final int DEFAULT_RECORDS = 200_000;
+    private static final int DEFAULT_RECORD_BYTES = 1_024;
+    private static final int PARTITIONS = 6;
+    private static final Path OUTPUT_DIR = Paths.get("benchmarks", "profiles");
+
+    public static void main(String[] args) throws Exception {
+        String bootstrap = args.length > 0 ? args[0] : DEFAULT_BOOTSTRAP;
+        List<PerformanceProfile> profiles = args.length > 1 ? parseProfiles(args[1])
+                : Arrays.asList(PerformanceProfile.values());
+        int records = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_RECORDS;
+        int recordBytes = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_RECORD_BYTES;
+
+        Files.createDirectories(OUTPUT_DIR);
+        for (PerformanceProfile profile : profiles) {
+            String topic = "profile-benchmark-" + profile.externalName() + "-" + System.currentTimeMillis();
+            createTopic(bootstrap, topic);
+
+            log.info("Perfil {}: produciendo {} registros de {} bytes en {}",
+                    profile.externalName(), records, recordBytes, topic);
+            Map<String, String> result = new TreeMap<>();
+            result.putAll(produce(bootstrap, profile, topic, records, recordBytes));
+            result.putAll(consume(bootstrap, profile, topic, records, recordBytes));
+            writeResult(profile, args, bootstrap, records, recordBytes, result);
+        }
+    }
+
+    private static Map<String, String> produce(String bootstrap, PerformanceProfile profile, String topic,
+            int records, int recordBytes) throws InterruptedException {
+        Map<String, Object> props = ClientConfigBuilder.producer(profile)
+                .with(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap)
+                .with(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class)
+                .with(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class)
+                .typicalRecordBytes(recordBytes)
+                .build();
+
+        byte[] payload = new byte[recordBytes];
+        Arrays.fill(payload, (byte) 'x');
+        long[] latenciesNanos = new long[records];
+        long start;
+        long elapsed;
+        try (KafkaProducer<byte[], byte[]> producer = new KafkaProducer<>(props)) {
+            // Calentamiento: metadatos y conexiones fuera de la medida
+            producer.send(new ProducerRecord<>(topic, payload)).get();
+
+            start = System.nanoTime();
+            for (int i = 0; i < records; i++) {
+                int index = i;
+                long sentAt = System.nanoTime();
+                producer.send(new ProducerRecord<>(topic, payload),
+                        (metadata, exception) -> latenciesNanos[index] = exception == null
+                                ? System.nanoTime() - sentAt : -1);
+            }
+            producer.flush();
+            elapsed = System.nanoTime() - start;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("No se pudo producir en " + topic, e.getCause());
+        }
+
+        long failed = Arrays.stream(latenciesNanos).filter(l -> l < 0).count();
+        long[] sorted = Arrays.stream(latenciesNanos).filter(l -> l >= 0).sorted().toArray();
+        double seconds = elapsed / 1_000_000_000.0;
+
+        Map<String, String> result = new TreeMap<>();
+        result.put("producer.records-per-sec", format(records / seconds));
+        result.put("producer.mb-per-sec", format(records * (double) recordBytes / seconds / (1024 * 1024)));
+        result.put("producer.ack-latency-p50-ms", format(percentile(sorted, 0.50) / 1_000_000.0));
+        result.put("producer.ack-latency-p99-ms", format(percentile(sorted, 0.99) / 1_000_000.0));
+        result.put("producer.failed", Long.toString(failed));
+        log.info("Perfil {}: productor {}", profile.externalName(), result);
+        return result;
+    }
+
+    private static Map<String, String> consume(String bootstrap, PerformanceProfile profile, String topic,
+            int records, int recordBytes) {
+        Map<String, Object> props = ClientConfigBuilder.consumer(profile)
+                .with(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap)
+                .with(ConsumerConfig.GROUP_ID_CONFIG, "profile-benchmark-" + UUID.randomUUID())
+                .with(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest")
+                .with(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false)
+                .with(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class)
+                .with(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class)
+                .typicalRecordBytes(recordBytes)
+                .build();
+
+        // El registro de calentamiento también está en el topic
+        long expected = records + 1L;
+        long consumed = 0;
+        long start = 0;
+        long deadline = System.nanoTime() + Duration.ofMinutes(5).toNanos();
+        try (KafkaConsumer<byte[], byte[]> consumer = new KafkaConsumer<>(props)) {
+            consumer.subscribe(List.of(topic));
+            while (consumed < expected && System.nanoTime() < deadline) {
+                ConsumerRecords<byte[], byte[]> batch = consumer.poll(Duration.ofMillis(500));
+                if (!batch.isEmpty() && start == 0) {
+                    // La medida empieza con el primer registro, sin contar la unión al grupo
+                    start = System.nanoTime();
+                }
+                consumed += batch.count();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        Map<String, String> result = new TreeMap<>();
+        result.put("consumer.records", Long.toString(consumed));
+        result.put("consumer.records-per-sec", format(start == 0 ? 0 : consumed / seconds));
+        result.put("consumer.mb-per-sec", format(start == 0 ? 0 : consumed * (double) recordBytes / seconds / (1024 * 1024)));
+        log.info("Perfil {}: consumidor {}", profile.externalName(), result);
+        return result;
+    }
+
+    private static void writeResult(PerformanceProfile profile, String[] args, String bootstrap, int records,
+            int recordBytes, Map<String, String> result) throws IOException {
+        Properties out = new Properties();
+        out.setProperty("profile", profile.externalName());
+        out.setProperty("status", "measured");
+        // Desde delivery-garantees, para que el fichero quede en este mismo directorio
+        out.setProperty("run.command", "mvn exec:java -Dexec.mainClass="
+                + ProfileBenchmark.class.getName() + " -Dexec.args=\"" + String.join(" ", args) + "\"");
+        out.setProperty("run.timestamp", Instant.now().toString());
+        out.setProperty("run.bootstrap", bootstrap);
+        out.setProperty("run.records", Integer.toString(records));
+        out.setProperty("run.record-bytes", Integer.toString(recordBytes));
+        out.setProperty("run.partitions", Integer.toString(PARTITIONS));
+        out.setProperty("run.kafka-clients", AppInfoParser.getVersion());
+        out.setProperty("run.java", System.getProperty("java.version"));
+        out.setProperty("run.os", System.getProperty("os.name") + " " + System.getProperty("os.version") + " "
+                + System.getProperty("os.arch"));
+        out.setProperty("run.cpus", Integer.toString(Runtime.getRuntime().availableProcessors()));
+        out.setProperty("run.max-heap-mb", Long.toString(Runtime.getRuntime().maxMemory() / (1024 * 1024)));
+        profile.producerProperties().forEach((k, v) -> out.setProperty("config.producer." + k, v.toString()));
+        profile.consumerProperties().forEach((k, v) -> out.setProperty("config.consumer." + k, v.toString()));
+        result.forEach(out::setProperty);
+
+        Path file = OUTPUT_DIR.resolve(profile.externalName() + ".properties");
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.store(writer, "Generado por ProfileBenchmark");
+        }
+        log.info("Resultado del perfil {} guardado en {}", profile.externalName(), file.toAbsolutePath());
+    }
+
+    private static void createTopic(String bootstrap, String topic) throws InterruptedException, ExecutionException {
+        try (AdminClient admin = AdminClient.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap))) {
+            admin.createTopics(List.of(new NewTopic(topic, PARTITIONS, (short) 1))).all().get();
+        }
+    }
+
+    private static List<PerformanceProfile> parseProfiles(String value) {
+        List<PerformanceProfile> profiles = new ArrayList<>();
+        for (String name : value.split(",")) {
+            profiles.add(PerformanceProfile.fromExternalName(name));
+        }
+        return profiles;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
@@ -0,0 +1,49 @@
+package com.helloworld.kafka.springexamples.streams;
+
+import java.util.Map;
+
+import org.apache.kafka.streams.state.RocksDBConfigSetter;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.Cache;
+import org.rocksdb.CompressionType;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Options;
+import org.rocksdb.WriteBufferManager;
+
+/**
+ * Limita la memoria de RocksDB compartiendo una única caché de bloques y un gestor de
+ * memtables entre todos los almacenes de la instancia.
+ *
+ * Sin esto cada segmento de cada almacén de ventana reserva su propia caché y sus memtables,
+ * y la memoria fuera del heap crece con el número de particiones y segmentos.
+ */
+public class BoundedMemoryRocksDBConfig implements RocksDBConfigSetter {
+
+    private static final long TOTAL_OFF_HEAP_BYTES = 256L * 1024 * 1024;
+    private static final long TOTAL_MEMTABLE_BYTES = 64L * 1024 * 1024;
+    private static final long MEMTABLE_BYTES = 16L * 1024 * 1024;
+    private static final long BLOCK_SIZE = 16L * 1024;
+
+    private static final Cache CACHE = new LRUCache(TOTAL_OFF_HEAP_BYTES, -1, false, 0.1);
+    private static final WriteBufferManager WRITE_BUFFER_MANAGER = new WriteBufferManager(TOTAL_MEMTABLE_BYTES, CACHE);
+
+    @Override
+    public void setConfig(String storeName, Options options, Map<String, Object> configs) {
+        BlockBasedTableConfig tableConfig = (BlockBasedTableConfig) options.tableFormatConfig();
+        tableConfig.setBlockCache(CACHE);
+        tableConfig.setCacheIndexAndFilterBlocks(true);
+        tableConfig.setPinTopLevelIndexAndFilter(true);
+        tableConfig.setBlockSize(BLOCK_SIZE);
+        options.setWriteBufferManager(WRITE_BUFFER_MANAGER);
+        options.setTableFormatConfig(tableConfig);
+
+        options.setWriteBufferSize(MEMTABLE_BYTES);
+        options.setMaxWriteBufferNumber(3);
+        options.setCompressionType(CompressionType.LZ4_COMPRESSION);
+    }
+
+    @Override
+    public void close(String storeName, Options options) {
+        // La caché y el gestor son compartidos: no se cierran por almacén
+    }
+}
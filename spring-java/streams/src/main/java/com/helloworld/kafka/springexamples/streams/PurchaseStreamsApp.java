@@ -0,0 +1,58 @@
+package com.helloworld.kafka.springexamples.streams;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.config.StreamsBuilderFactoryBeanConfigurer;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Aplicación Kafka Streams con los conteos de compras por ventana de {@link PurchaseTopology}.
+ * La configuración de rendimiento (caché, commit.interval.ms, RocksDB) está en application.properties.
+ */
+@SpringBootApplication
+@EnableKafkaStreams
+@EnableConfigurationProperties(PurchaseStreamsSettings.class)
+@Slf4j
+public class PurchaseStreamsApp {
+
+    public static void main(String[] args) {
+        SpringApplication.run(PurchaseStreamsApp.class, args);
+    }
+
+    @Autowired
+    void purchaseTopology(StreamsBuilder builder, PurchaseStreamsSettings settings) {
+        PurchaseTopology.build(builder, settings);
+    }
+
+    @Bean
+    public KafkaAdmin.NewTopics purchaseTopics(PurchaseStreamsSettings settings) {
+        return new KafkaAdmin.NewTopics(
+                topic(settings.getInputTopic(), settings),
+                topic(settings.getUserTumblingTopic(), settings),
+                topic(settings.getUserHoppingTopic(), settings),
+                topic(settings.getItemTumblingTopic(), settings),
+                topic(settings.getItemHoppingTopic(), settings));
+    }
+
+    @Bean
+    public StreamsBuilderFactoryBeanConfigurer stateListenerConfigurer() {
+        return factoryBean -> factoryBean.setStateListener((newState, oldState) ->
+                log.info("Kafka Streams: {} -> {}", oldState, newState));
+    }
+
+    private static NewTopic topic(String name, PurchaseStreamsSettings settings) {
+        return TopicBuilder.name(name)
+                .partitions(settings.getPartitions())
+                .replicas(1)
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.helloworld.kafka.springexamples.streams;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Topics y ventanas de la topología de compras (prefijo purchases.*)
+ */
+@Data
+@ConfigurationProperties("purchases")
+public class PurchaseStreamsSettings {
+
+    /** Topic de entrada: clave = usuario, valor = artículo */
+    private String inputTopic = "purchases";
+
+    private int partitions = 6;
+
+    private Duration tumblingWindow = Duration.ofMinutes(1);
+
+    private Duration hoppingWindow = Duration.ofMinutes(5);
+
+    private Duration hoppingAdvance = Duration.ofMinutes(1);
+
+    /** Tiempo que se aceptan registros tardíos antes de cerrar la ventana */
+    private Duration grace = Duration.ofSeconds(30);
+
+    private String userTumblingTopic = "purchases-user-counts-tumbling";
+
+    private String userHoppingTopic = "purchases-user-counts-hopping";
+
+    private String itemTumblingTopic = "purchases-item-counts-tumbling";
+
+    private String itemHoppingTopic = "purchases-item-counts-hopping";
+}
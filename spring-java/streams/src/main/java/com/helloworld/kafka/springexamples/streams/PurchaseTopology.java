@@ -0,0 +1,91 @@
+package com.helloworld.kafka.springexamples.streams;
+
+import java.time.Duration;
+
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KGroupedStream;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.KeyValue;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.state.WindowStore;
+
+/**
+ * Topología de conteos de compras por ventana.
+ *
+ * A partir de eventos usuario → artículo calcula, por usuario y por artículo, el número de
+ * compras en ventanas tumbling y hopping. Los cuatro conteos usan almacenes de ventana
+ * persistentes (RocksDB) con caché activada, de modo que las actualizaciones de una misma
+ * clave entre dos commits se agregan en memoria y solo se escribe el último valor en el
+ * changelog y en el topic de salida.
+ *
+ * La salida usa como clave "&lt;usuario|artículo&gt;@&lt;inicio de ventana&gt;" y como valor el conteo.
+ */
+public final class PurchaseTopology {
+
+    public static final String USER_TUMBLING_STORE = "user-tumbling-counts";
+    public static final String USER_HOPPING_STORE = "user-hopping-counts";
+    public static final String ITEM_TUMBLING_STORE = "item-tumbling-counts";
+    public static final String ITEM_HOPPING_STORE = "item-hopping-counts";
+
+    private PurchaseTopology() {
+    }
+
+    public static Topology build(PurchaseStreamsSettings settings) {
+        StreamsBuilder builder = new StreamsBuilder();
+        build(builder, settings);
+        return builder.build();
+    }
+
+    public static void build(StreamsBuilder builder, PurchaseStreamsSettings settings) {
+        TimeWindows tumbling = TimeWindows.ofSizeAndGrace(settings.getTumblingWindow(), settings.getGrace());
+        TimeWindows hopping = TimeWindows.ofSizeAndGrace(settings.getHoppingWindow(), settings.getGrace())
+                .advanceBy(settings.getHoppingAdvance());
+
+        KStream<String, String> purchases = builder.stream(settings.getInputTopic(),
+                Consumed.with(Serdes.String(), Serdes.String()).withName("purchases-source"));
+
+        // Por usuario: la clave de entrada ya es el usuario, no hace falta reparticionar
+        KGroupedStream<String, String> byUser = purchases.groupByKey(
+                Grouped.with(Serdes.String(), Serdes.String()));
+        // Por artículo: un único topic de repartición compartido por las dos ventanas
+        KGroupedStream<String, String> byItem = purchases.groupBy((user, item) -> item,
+                Grouped.with("purchases-by-item", Serdes.String(), Serdes.String()));
+
+        count(byUser, tumbling, USER_TUMBLING_STORE, settings.getUserTumblingTopic());
+        count(byUser, hopping, USER_HOPPING_STORE, settings.getUserHoppingTopic());
+        count(byItem, tumbling, ITEM_TUMBLING_STORE, settings.getItemTumblingTopic());
+        count(byItem, hopping, ITEM_HOPPING_STORE, settings.getItemHoppingTopic());
+    }
+
+    private static void count(KGroupedStream<String, String> grouped, TimeWindows windows, String storeName,
+            String outputTopic) {
+        grouped.windowedBy(windows)
+                .count(Materialized.<String, Long, WindowStore<Bytes, byte[]>>as(storeName)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(Serdes.Long())
+                        .withCachingEnabled()
+                        .withRetention(retention(windows)))
+                .toStream()
+                .map((windowed, count) -> KeyValue.pair(outputKey(windowed), count))
+                .to(outputTopic, Produced.with(Serdes.String(), Serdes.Long()));
+    }
+
+    /**
+     * Retención mínima del almacén: tamaño de ventana más gracia
+     */
+    private static Duration retention(TimeWindows windows) {
+        return Duration.ofMillis(windows.size() + windows.gracePeriodMs());
+    }
+
+    public static String outputKey(Windowed<String> windowed) {
+        return windowed.key() + "@" + windowed.window().startTime();
+    }
+}
@@ -0,0 +1,217 @@
+package com.helloworld.kafka.springexamples.streams;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.LongDeserializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Benchmark de {@link PurchaseTopology}.
+ *
+ * <ul>
+ * <li>driver: procesa N compras con TopologyTestDriver, sin red. Mide el coste de CPU de la
+ * topología y de RocksDB (registros/s y latencia p50/p99 de cada registro).</li>
+ * <li>embedded: arranca un broker KRaft embebido y una instancia real de KafkaStreams. Intercala
+ * compras "sonda" con usuarios únicos y mide la latencia extremo a extremo de cada una, desde
+ * el envío hasta su aparición en el topic de salida; el caudal se calcula hasta la última sonda.</li>
+ * </ul>
+ *
+ * Uso: PurchaseStreamsBenchmark [driver|embedded|all] [compras]
+ */
+@Slf4j
+public class PurchaseStreamsBenchmark {
+
+    private static final String[] USERS = {"eabara", "jsmith", "sgarcia", "jbernard", "htanaka", "awalther"};
+    private static final String[] ITEMS = {"book", "alarm clock", "t-shirts", "gift card", "batteries"};
+    private static final int PROBES = 200;
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "all";
+        int purchases = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+        PurchaseStreamsSettings settings = new PurchaseStreamsSettings();
+
+        if ("driver".equals(mode) || "all".equals(mode)) {
+            runWithTestDriver(settings, purchases);
+        }
+        if ("embedded".equals(mode) || "all".equals(mode)) {
+            runWithEmbeddedBroker(settings, purchases);
+        }
+    }
+
+    private static void runWithTestDriver(PurchaseStreamsSettings settings, int purchases) throws Exception {
+        Properties props = streamsProperties("purchase-streams-benchmark", "dummy:9092");
+        props.put(StreamsConfig.STATE_DIR_CONFIG, Files.createTempDirectory("purchase-streams").toString());
+        Topology topology = PurchaseTopology.build(settings);
+
+        try (TopologyTestDriver driver = new TopologyTestDriver(topology, props)) {
+            TestInputTopic<String, String> input = driver.createInputTopic(settings.getInputTopic(),
+                    Serdes.String().serializer(), Serdes.String().serializer());
+            Random rnd = new Random(42);
+            Instant eventTime = Instant.parse("2024-01-01T00:00:00Z");
+            long[] latencies = new long[purchases];
+
+            long start = System.nanoTime();
+            for (int i = 0; i < purchases; i++) {
+                // 100 compras por segundo de tiempo de evento: las ventanas se cierran durante la prueba
+                eventTime = eventTime.plusMillis(10);
+                long before = System.nanoTime();
+                input.pipeInput(USERS[rnd.nextInt(USERS.length)], ITEMS[rnd.nextInt(ITEMS.length)], eventTime);
+                latencies[i] = System.nanoTime() - before;
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            Arrays.sort(latencies);
+
+            log.info("TopologyTestDriver: {} compras en {} s, {} reg/s, latencia p50={} µs p99={} µs",
+                    purchases, format(seconds), format(purchases / seconds),
+                    format(percentile(latencies, 0.50) / 1_000.0), format(percentile(latencies, 0.99) / 1_000.0));
+            log.info("Registros en salida (usuario, tumbling): {}",
+                    driver.createOutputTopic(settings.getUserTumblingTopic(), new StringDeserializer(),
+                            new LongDeserializer()).getQueueSize());
+        }
+    }
+
+    private static void runWithEmbeddedBroker(PurchaseStreamsSettings settings, int purchases) throws Exception {
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, settings.getPartitions(),
+                settings.getInputTopic(), settings.getUserTumblingTopic(), settings.getUserHoppingTopic(),
+                settings.getItemTumblingTopic(), settings.getItemHoppingTopic());
+        broker.afterPropertiesSet();
+        String bootstrap = broker.getBrokersAsString();
+
+        Properties props = streamsProperties("purchase-streams-benchmark-" + System.currentTimeMillis(), bootstrap);
+        props.put(StreamsConfig.STATE_DIR_CONFIG, Files.createTempDirectory("purchase-streams").toString());
+        KafkaStreams streams = new KafkaStreams(PurchaseTopology.build(settings), props);
+        Map<String, Long> probeSentAt = new ConcurrentHashMap<>();
+        Map<String, Long> probeLatency = new ConcurrentHashMap<>();
+
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(producerProperties(bootstrap));
+                KafkaConsumer<String, Long> output = new KafkaConsumer<>(outputConsumerProperties(bootstrap))) {
+            output.subscribe(List.of(settings.getUserTumblingTopic()));
+            streams.start();
+            waitUntilRunning(streams);
+
+            Random rnd = new Random(42);
+            int probeEvery = Math.max(1, purchases / PROBES);
+            long start = System.nanoTime();
+            for (int i = 0; i < purchases; i++) {
+                String user = USERS[rnd.nextInt(USERS.length)];
+                if (i % probeEvery == 0) {
+                    // Usuario único: su primer conteo en la salida marca el fin del recorrido
+                    user = "probe-" + i;
+                    probeSentAt.put(user, System.nanoTime());
+                }
+                producer.send(new ProducerRecord<>(settings.getInputTopic(), user, ITEMS[rnd.nextInt(ITEMS.length)]));
+            }
+            producer.flush();
+
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+            while (probeLatency.size() < probeSentAt.size() && System.nanoTime() < deadline) {
+                for (ConsumerRecord<String, Long> record : output.poll(Duration.ofMillis(200))) {
+                    String user = record.key().substring(0, record.key().indexOf('@'));
+                    Long sentAt = probeSentAt.get(user);
+                    if (sentAt != null) {
+                        probeLatency.putIfAbsent(user, System.nanoTime() - sentAt);
+                    }
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            long[] latencies = probeLatency.values().stream().mapToLong(Long::longValue).sorted().toArray();
+
+            log.info("Broker embebido: {} compras procesadas en {} s, {} reg/s", purchases, format(seconds),
+                    format(purchases / seconds));
+            log.info("Latencia extremo a extremo ({} de {} sondas): p50={} ms p99={} ms (commit.interval.ms={})",
+                    latencies.length, probeSentAt.size(),
+                    format(percentile(latencies, 0.50) / 1_000_000.0), format(percentile(latencies, 0.99) / 1_000_000.0),
+                    props.get(StreamsConfig.COMMIT_INTERVAL_MS_CONFIG));
+        } finally {
+            streams.close(Duration.ofSeconds(30));
+            streams.cleanUp();
+            broker.destroy();
+        }
+    }
+
+    /**
+     * Misma configuración de rendimiento que application.properties
+     */
+    static Properties streamsProperties(String applicationId, String bootstrap) {
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, applicationId);
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
+        props.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG, 2);
+        props.put(StreamsConfig.STATESTORE_CACHE_MAX_BYTES_CONFIG, 64L * 1024 * 1024);
+        props.put(StreamsConfig.COMMIT_INTERVAL_MS_CONFIG, 5_000);
+        props.put(StreamsConfig.TOPOLOGY_OPTIMIZATION_CONFIG, StreamsConfig.OPTIMIZE);
+        props.put(StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG, BoundedMemoryRocksDBConfig.class);
+        props.put(StreamsConfig.producerPrefix(ProducerConfig.LINGER_MS_CONFIG), 20);
+        props.put(StreamsConfig.producerPrefix(ProducerConfig.BATCH_SIZE_CONFIG), 131_072);
+        props.put(StreamsConfig.producerPrefix(ProducerConfig.COMPRESSION_TYPE_CONFIG), "lz4");
+        props.put(StreamsConfig.consumerPrefix(ConsumerConfig.FETCH_MIN_BYTES_CONFIG), 65_536);
+        props.put(StreamsConfig.consumerPrefix(ConsumerConfig.MAX_POLL_RECORDS_CONFIG), 2_000);
+        return props;
+    }
+
+    private static Properties producerProperties(String bootstrap) {
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        return props;
+    }
+
+    private static Properties outputConsumerProperties(String bootstrap) {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "purchase-streams-benchmark-output");
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, LongDeserializer.class);
+        return props;
+    }
+
+    private static void waitUntilRunning(KafkaStreams streams) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (streams.state() != KafkaStreams.State.RUNNING) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("KafkaStreams no llegó a RUNNING: " + streams.state());
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static String format(double value) {
+        return String.format("%.2f", value);
+    }
+}